@@ -0,0 +1,114 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The ColumnarStudentDatabaseBenchmark class compares the scan throughput of the object-based
+ * StudentDatabase class with that of the ColumnarStudentDatabase class holding the same synthetic
+ * roster. The bytes used per student by each are reported by StudentDatabaseFootprint.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ColumnarStudentDatabaseBenchmark
+{
+    @Param({"1000", "100000", "1000000"})
+    public int rosterSize;
+
+    private StudentDatabase objectStudents;
+    private ColumnarStudentDatabase columnarStudents;
+    private SubjectDatabase subjectFilters;
+    private String lookupName;
+    private int lookupIdentityNumber;
+
+    /**
+     * Load the synthetic roster into both backends.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(rosterSize);
+        SchoolManager schoolManager = fixture.loadSchoolManager();
+        fixture.delete();
+        SubjectDatabase allSubjects = schoolManager.getAllSubjects();
+        objectStudents = schoolManager.getAllStudents();
+        columnarStudents = new ColumnarStudentDatabase(allSubjects);
+        for (int index = 0; index < objectStudents.getSize(); index++)
+            columnarStudents.addStudent(objectStudents.getStudent(index));
+        Student student = objectStudents.getStudent(rosterSize / 2);
+        lookupName = student.getName();
+        lookupIdentityNumber = student.getIdentityNumber();
+        subjectFilters = new SubjectDatabase();
+        subjectFilters.addSubject(allSubjects.getSubject(4));
+        subjectFilters.addSubject(allSubjects.getSubject(7));
+    }
+
+    @Benchmark
+    public Student columnarFilterStudentByIdentityNumber()
+    {
+        return columnarStudents.filterStudentByIdentityNumber(lookupIdentityNumber);
+    }
+
+    @Benchmark
+    public ColumnarStudentDatabase columnarFilterStudentsByName()
+    {
+        return columnarStudents.filterStudentsByName(lookupName);
+    }
+
+    @Benchmark
+    public ColumnarStudentDatabase columnarFilterStudentsBySubjects()
+    {
+        return columnarStudents.filterStudentsBySubjects(subjectFilters);
+    }
+
+    @Benchmark
+    public ColumnarStudentDatabase columnarFilterStudentsBySuspension()
+    {
+        return columnarStudents.filterStudentsBySuspension(1);
+    }
+
+    @Benchmark
+    public ColumnarStudentDatabase columnarFilterStudentsNotEnrolled()
+    {
+        return columnarStudents.filterStudentsNotEnrolled();
+    }
+
+    @Benchmark
+    public Student objectFilterStudentByIdentityNumber()
+    {
+        return objectStudents.filterStudentByIdentityNumber(lookupIdentityNumber);
+    }
+
+    @Benchmark
+    public StudentDatabase objectFilterStudentsByName()
+    {
+        return objectStudents.filterStudentsByName(lookupName);
+    }
+
+    @Benchmark
+    public StudentDatabase objectFilterStudentsBySubjects()
+    {
+        return objectStudents.filterStudentsBySubjects(subjectFilters);
+    }
+
+    @Benchmark
+    public StudentDatabase objectFilterStudentsBySuspension()
+    {
+        return objectStudents.filterStudentsBySuspension(1);
+    }
+
+    @Benchmark
+    public StudentDatabase objectFilterStudentsNotEnrolled()
+    {
+        return objectStudents.filterStudentsNotEnrolled();
+    }
+}
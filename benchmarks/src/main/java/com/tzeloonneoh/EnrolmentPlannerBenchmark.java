@@ -0,0 +1,58 @@
+package com.tzeloonneoh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The EnrolmentPlannerBenchmark class measures planning the enrolments of a student who is not
+ * enrolled in any subject yet, and of one who has a few credit points left, for wish lists of 10
+ * (the subjects offered at the school), 16 and 20 (EnrolmentPlanner.MAXIMUM_WISHES) subjects.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrolmentPlannerBenchmark
+{
+    @Param({"10", "16", "20"})
+    public int wishListSize;
+
+    private EnrolmentPlanner planner;
+    private SubjectDatabase wishList;
+    private SubjectDatabase noSubjects;
+    private SubjectDatabase someSubjects;
+
+    /**
+     * Create the wish list, with credits of 1 to 6 points, and the enrolments of the students.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        planner = new EnrolmentPlanner(Student.MAXIMUM_CREDIT);
+        wishList = new SubjectDatabase();
+        for (int index = 0; index < wishListSize; index++)
+            wishList.addSubject(new Subject("Subject" + index, index % 6 + 1));
+        noSubjects = new SubjectDatabase();
+        someSubjects = new SubjectDatabase();
+        someSubjects.addSubject(new Subject("Programming", 6));
+        someSubjects.addSubject(new Subject("Maths", 4));
+    }
+
+    @Benchmark
+    public EnrolmentPlan planWithFullCredit()
+    {
+        return planner.plan(noSubjects, wishList, 5);
+    }
+
+    @Benchmark
+    public EnrolmentPlan planWithFewCreditsLeft()
+    {
+        return planner.plan(someSubjects, wishList, 5);
+    }
+}
@@ -0,0 +1,276 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The EnrolmentStress class runs random enrolment transactions (Student.updateEnrolments()) from
+ * many threads at once against a small number of shared students, so that the threads keep
+ * colliding, while other threads keep reading the enrolments. The subjects have a small capacity,
+ * so that transactions are also rejected for full subjects; a writer puts the student on the
+ * waitlists of the full subjects half of the time, and now and then empties the enrolments of a
+ * student, which serves the waitlists. It checks that:
+ *
+ * - no reader ever sees a student with a total credit beyond the maximum, or a subject with more
+ *   seats taken than its capacity,
+ * - the enrolments a reader sees always add up to the total credit they carry, and their version
+ *   never goes backwards,
+ * - every committed transaction is kept: the version of each student equals the number of
+ *   transactions committed on it, and its number of enrolled subjects equals the subjects enrolled
+ *   in less the subjects unenrolled from by those transactions (counting the enrolments from
+ *   waitlists),
+ * - the seats taken of each subject equal the number of students enrolled in it, and no student
+ *   who could be enrolled is left waiting for a free seat.
+ *
+ * It prints the number of transactions committed, left unchanged and rejected, the number of
+ * retries and enrolments from waitlists and the throughput, and exits with status 1 if any check
+ * fails. Run it with "gradle :benchmarks:enrolmentStress", optionally with -PstressArgs="writers
+ * readers students transactions capacity", e.g. -PstressArgs="8 2 16 200000 6" (a capacity of 0
+ * leaves the subjects unlimited).
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class EnrolmentStress
+{
+    private static final int SUBJECTS = 12;
+    private static final int MAXIMUM_SUBJECT_CREDIT = 4;
+
+    /**
+     * Run the stress test with the numbers of writer threads, reader threads, students and
+     * transactions per writer and the capacity of the subjects given on the command line.
+     *
+     * @param   args    The numbers of writers, readers, students and transactions per writer and
+     *                  the capacity, 8, 2, 16, 200000 and 6 if not given.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        int writers = (args.length > 0 ? Integer.parseInt(args[0]) : 8);
+        int readers = (args.length > 1 ? Integer.parseInt(args[1]) : 2);
+        int studentCount = (args.length > 2 ? Integer.parseInt(args[2]) : 16);
+        int transactions = (args.length > 3 ? Integer.parseInt(args[3]) : 200_000);
+        int capacity = (args.length > 4 ? Integer.parseInt(args[4]) : 6);
+
+        Subject[] subjects = new Subject[SUBJECTS];
+        for (int index = 0; index < SUBJECTS; index++)
+            subjects[index] = new Subject("Subject" + index, index % MAXIMUM_SUBJECT_CREDIT + 1,
+                    capacity);
+        Student[] students = new Student[studentCount];
+        LongAdder[] commits = new LongAdder[studentCount];
+        LongAdder[] netEnrolments = new LongAdder[studentCount];
+        for (int index = 0; index < studentCount; index++)
+        {
+            students[index] = new Student();
+            students[index].setIdentityNumber(Student.MINIMUM_IDENTITY_NUMBER + index);
+            students[index].claimSeats();
+            commits[index] = new LongAdder();
+            netEnrolments[index] = new LongAdder();
+        }
+        LongAdder[] outcomes = new LongAdder[EnrolmentResult.Status.values().length];
+        for (int index = 0; index < outcomes.length; index++)
+            outcomes[index] = new LongAdder();
+        LongAdder retries = new LongAdder();
+        LongAdder promotions = new LongAdder();
+        LongAdder reads = new LongAdder();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ArrayList<Thread> writerThreads = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++)
+        {
+            writerThreads.add(new Thread(() ->
+            {
+                await(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int count = 0; count < transactions; count++)
+                {
+                    int studentIndex = random.nextInt(studentCount);
+                    Student student = students[studentIndex];
+                    EnrolmentResult result;
+                    if (random.nextInt(50) == 0)
+                        result = student.clearSubjectsEnrolled();
+                    else
+                    {
+                        SubjectDatabase subjectsToEnrol = randomSubjects(subjects, random, 3);
+                        SubjectDatabase subjectsToUnenrol = randomSubjects(subjects, random, 2);
+                        result = student.updateEnrolments(subjectsToEnrol, subjectsToUnenrol);
+                    }
+                    outcomes[result.getStatus().ordinal()].increment();
+                    retries.add(result.getRetries());
+                    if (result.isCommitted())
+                    {
+                        commits[studentIndex].increment();
+                        netEnrolments[studentIndex].add(result.getSubjectsEnrolled().getSize() -
+                                result.getSubjectsUnenrolled().getSize());
+                    }
+                    ArrayList<Student> studentsPromoted =
+                            new ArrayList<>(result.getStudentsPromoted());
+                    SubjectDatabase subjectsFull = result.getSubjectsFull();
+                    if (subjectsFull.getSize() > 0 && random.nextBoolean())
+                        for (int index = 0; index < subjectsFull.getSize(); index++)
+                            studentsPromoted.addAll(subjectsFull.getSubject(index).
+                                    joinWaitlist(student));
+                    for (Student promotedStudent : studentsPromoted)
+                    {
+                        int promotedIndex = promotedStudent.getIdentityNumber() -
+                                Student.MINIMUM_IDENTITY_NUMBER;
+                        commits[promotedIndex].increment();
+                        netEnrolments[promotedIndex].increment();
+                        promotions.increment();
+                    }
+                }
+            }, "enrolment-writer-" + writer));
+        }
+        ArrayList<Thread> readerThreads = new ArrayList<>();
+        for (int reader = 0; reader < readers; reader++)
+        {
+            readerThreads.add(new Thread(() ->
+            {
+                await(start);
+                long[] lastVersions = new long[studentCount];
+                while (writing.get())
+                {
+                    for (int index = 0; index < studentCount; index++)
+                    {
+                        checkEnrolments(students[index], lastVersions, index, failures);
+                        reads.increment();
+                    }
+                    for (Subject subject : subjects)
+                        if (subject.hasCapacity() && subject.getSeatsTaken() > capacity)
+                            failures.add(subject.getName() + " has " + subject.getSeatsTaken() +
+                                    " seats taken");
+                }
+            }, "enrolment-reader-" + reader));
+        }
+        for (Thread thread : readerThreads)
+            thread.start();
+        for (Thread thread : writerThreads)
+            thread.start();
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread thread : writerThreads)
+            thread.join();
+        long elapsedNanos = System.nanoTime() - startTime;
+        writing.set(false);
+        for (Thread thread : readerThreads)
+            thread.join();
+
+        long[] lastVersions = new long[studentCount];
+        for (int index = 0; index < studentCount; index++)
+        {
+            Student student = students[index];
+            checkEnrolments(student, lastVersions, index, failures);
+            if (student.getEnrolmentVersion() != commits[index].sum())
+                failures.add("Student " + index + " is at version " +
+                        student.getEnrolmentVersion() + " after " + commits[index].sum() +
+                        " commits");
+            if (student.getSubjectsEnrolled().getSize() != netEnrolments[index].sum())
+                failures.add("Student " + index + " has " +
+                        student.getSubjectsEnrolled().getSize() + " subjects, but the commits " +
+                        "added " + netEnrolments[index].sum());
+        }
+        for (Subject subject : subjects)
+        {
+            if (!subject.hasCapacity())
+                continue;
+            int enrolled = 0;
+            for (Student student : students)
+            {
+                EnrolledSubjects enrolments = student.getSubjectsEnrolled();
+                for (int index = 0; index < enrolments.getSize(); index++)
+                    if (enrolments.getSubject(index) == subject)
+                        enrolled++;
+            }
+            if (subject.getSeatsTaken() != enrolled)
+                failures.add(subject.getName() + " has " + subject.getSeatsTaken() + " seats " +
+                        "taken by " + enrolled + " students");
+            if (!subject.promoteWaitlist().isEmpty())
+                failures.add(subject.getName() + " left a student waiting for a free seat");
+        }
+
+        long total = (long) writers * transactions;
+        System.out.println(String.format("%d writers, %d readers, %d students: %d transactions " +
+                "in %.1f ms (%.0f per second)", writers, readers, studentCount, total,
+                elapsedNanos / 1e6, total / (elapsedNanos / 1e9)));
+        for (EnrolmentResult.Status status : EnrolmentResult.Status.values())
+            System.out.println(String.format("%16s %12d", status,
+                    outcomes[status.ordinal()].sum()));
+        System.out.println(String.format("%16s %12d", "RETRIES", retries.sum()));
+        System.out.println(String.format("%16s %12d", "PROMOTIONS", promotions.sum()));
+        System.out.println(String.format("%16s %12d", "READS", reads.sum()));
+        if (failures.isEmpty())
+            System.out.println("All invariants held.");
+        else
+        {
+            System.out.println(failures.size() + " invariant violations, e.g.:");
+            failures.stream().limit(10).forEach(System.out::println);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Given a latch, wait until it is released.
+     *
+     * @param   latch   The latch to wait for.
+     */
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Given a student, the last versions seen of the enrolments of each student and the index of
+     * the student, check the enrolments currently seen against the maximum credit, their own total
+     * credit and the last version seen, and add any violation to the failures.
+     *
+     * @param   student         The student to be checked.
+     * @param   lastVersions    The last version seen of each student.
+     * @param   index           The index of the student.
+     * @param   failures        The violations found so far.
+     */
+    private static void checkEnrolments(Student student, long[] lastVersions, int index,
+                                        Queue<String> failures)
+    {
+        EnrolledSubjects enrolments = student.getSubjectsEnrolled();
+        int totalCredit = 0;
+        for (int subject = 0; subject < enrolments.getSize(); subject++)
+            totalCredit += enrolments.getSubject(subject).getCredit();
+        if (totalCredit > Student.MAXIMUM_CREDIT)
+            failures.add("Student " + index + " has " + totalCredit + " credits at version " +
+                    enrolments.getVersion());
+        if (totalCredit != enrolments.getTotalCredit())
+            failures.add("Student " + index + " version " + enrolments.getVersion() + " adds up " +
+                    "to " + totalCredit + " credits, not " + enrolments.getTotalCredit());
+        if (enrolments.getVersion() < lastVersions[index])
+            failures.add("Student " + index + " went back from version " + lastVersions[index] +
+                    " to " + enrolments.getVersion());
+        lastVersions[index] = enrolments.getVersion();
+    }
+
+    /**
+     * Given the subjects offered, a random number generator and a maximum number of subjects,
+     * return a random selection of up to that many subjects.
+     *
+     * @param   subjects    The subjects offered.
+     * @param   random      The random number generator of the thread.
+     * @param   maximum     The largest number of subjects to select.
+     * @return  The selected subjects.
+     */
+    private static SubjectDatabase randomSubjects(Subject[] subjects, Random random, int maximum)
+    {
+        SubjectDatabase selection = new SubjectDatabase();
+        int count = random.nextInt(maximum + 1);
+        for (int index = 0; index < count; index++)
+            selection.addSubject(subjects[random.nextInt(subjects.length)]);
+        return selection;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tzeloonneoh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The MetricsRegistryBenchmark class measures the cost that timing an operation adds to it, i.e.,
+ * a call of startTimer() followed by a call of record(). Comparing it with the latencies reported
+ * by StudentDatabaseBenchmark gives the overhead of the metrics on each operation; the overhead can
+ * also be measured end to end by running StudentDatabaseBenchmark with
+ * -jvmArgsAppend -Dmetrics.enabled=false.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsRegistryBenchmark
+{
+    @Benchmark
+    public long readClock()
+    {
+        return System.nanoTime() - System.nanoTime();
+    }
+
+    @Benchmark
+    public void timeOperation()
+    {
+        long startTime = MetricsRegistry.startTimer();
+        MetricsRegistry.record(Operation.LOOKUP_BY_IDENTITY_NUMBER, startTime);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timeOperationContended()
+    {
+        long startTime = MetricsRegistry.startTimer();
+        MetricsRegistry.record(Operation.LOOKUP_BY_IDENTITY_NUMBER, startTime);
+    }
+}
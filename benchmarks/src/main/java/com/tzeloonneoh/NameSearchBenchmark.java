@@ -0,0 +1,72 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The NameSearchBenchmark class measures searching a synthetic roster by an exact, a partial and
+ * a mistyped name through the name search index of a StudentDatabase object, against the exact
+ * full-name scan of filterStudentsByName().
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class NameSearchBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int rosterSize;
+
+    private StudentDatabase allStudents;
+    private String name;
+    private String prefix;
+    private String typo;
+
+    /**
+     * Load the synthetic roster, build the name search index and pick the names to search for.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(rosterSize);
+        allStudents = fixture.loadSchoolManager().getAllStudents();
+        fixture.delete();
+        name = allStudents.getStudent(rosterSize / 2).getName();
+        String[] words = name.split(" ");
+        prefix = words[0].substring(0, 2) + " " + words[1].substring(0, 3);
+        typo = words[0].charAt(1) + words[0].substring(0, 1) + words[0].substring(2) + " " +
+                words[1].substring(0, words[1].length() - 1);
+        allStudents.searchStudentsByName(name, 10);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsByName()
+    {
+        return allStudents.filterStudentsByName(name);
+    }
+
+    @Benchmark
+    public StudentDatabase searchExactName()
+    {
+        return allStudents.searchStudentsByName(name, 10);
+    }
+
+    @Benchmark
+    public StudentDatabase searchMistypedName()
+    {
+        return allStudents.searchStudentsByName(typo, 10);
+    }
+
+    @Benchmark
+    public StudentDatabase searchNamePrefixes()
+    {
+        return allStudents.searchStudentsByName(prefix, 10);
+    }
+}
@@ -0,0 +1,97 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The OutputSinkBenchmark class measures displaying a list of 100 students through the
+ * synchronous and the asynchronous output sink, both writing to /dev/null through an auto-flushing
+ * PrintStream object like System.out: as the displaying thread sees it, and including a flush of
+ * the sink, i.e., until the writer thread of the asynchronous sink has written the text. A slow
+ * console is simulated by spinning for the given number of microseconds on every flush of the
+ * stream, which the PrintStream object does after every line.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class OutputSinkBenchmark
+{
+    @Param({"sync", "async"})
+    public String sinkType;
+
+    @Param({"0", "20"})
+    public int flushMicros;
+
+    private StudentDatabase students;
+
+    /**
+     * Load 100 students and install the sink to be measured.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(100);
+        students = fixture.loadSchoolManager().getAllStudents();
+        fixture.delete();
+        PrintStream out = new PrintStream(new SlowConsole(new FileOutputStream("/dev/null"),
+                flushMicros), true);
+        Output.setSink(sinkType.equals("sync") ? new PrintStreamOutputSink(out) :
+                new AsyncOutputSink(out, 4096));
+    }
+
+    /**
+     * The SlowConsole class is an output stream that takes a given time to flush.
+     */
+    private static class SlowConsole extends FilterOutputStream
+    {
+        private long flushNanos;
+
+        /**
+         * Construct a stream writing to the given stream and taking the given time to flush.
+         *
+         * @param   out         The stream to write to.
+         * @param   flushMicros The time taken by a flush in microseconds.
+         */
+        private SlowConsole(OutputStream out, int flushMicros)
+        {
+            super(out);
+            flushNanos = flushMicros * 1000L;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException
+        {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < flushNanos)
+                Thread.onSpinWait();
+            out.flush();
+        }
+    }
+
+    @Benchmark
+    public void printStudentDatabase()
+    {
+        students.printStudentDatabase();
+    }
+
+    @Benchmark
+    public void printStudentDatabaseAndFlush()
+    {
+        students.printStudentDatabase();
+        Output.flush();
+    }
+}
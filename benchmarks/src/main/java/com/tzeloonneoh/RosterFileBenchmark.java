@@ -0,0 +1,83 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The RosterFileBenchmark class measures loading a synthetic "students.txt" of 1K, 100K and 1M
+ * students (reading the lines and creating the students from them, with the enrolled subjects
+ * looked up eagerly or left to be decoded lazily) and saving the roster back to a text file.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RosterFileBenchmark
+{
+    @Param({"1000", "100000", "1000000"})
+    public int rosterSize;
+
+    private RosterFixture fixture;
+    private SchoolManager schoolManager;
+    private ArrayList<String> textLines;
+
+    /**
+     * Generate the roster files and load them once so that every benchmark starts from the same
+     * School Management System.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        fixture = new RosterFixture(rosterSize);
+        schoolManager = fixture.loadSchoolManager();
+        textLines = schoolManager.readFile(fixture.getStudentsFilename());
+    }
+
+    /**
+     * Remove the generated files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public StudentDatabase createStudentListFromText()
+    {
+        return schoolManager.createStudentListFromText(textLines, false);
+    }
+
+    @Benchmark
+    public StudentDatabase createStudentListFromTextLazily()
+    {
+        return schoolManager.createStudentListFromText(textLines, true);
+    }
+
+    @Benchmark
+    public StudentDatabase loadStudentsFile()
+    {
+        return schoolManager.createStudentListFromText(
+                schoolManager.readFile(fixture.getStudentsFilename()));
+    }
+
+    @Benchmark
+    public ArrayList<String> readFile()
+    {
+        return schoolManager.readFile(fixture.getStudentsFilename());
+    }
+
+    @Benchmark
+    public void writeStudentsFile()
+    {
+        schoolManager.writeStudentsFile(fixture.getOutputFilename());
+    }
+}
@@ -0,0 +1,107 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The RosterFixture class writes a synthetic subjects file and students file of a given size to a
+ * temporary directory so that the benchmarks can load them through the same code path as the
+ * School Management System. The students are produced by a RosterGenerator object with a fixed
+ * seed and are therefore the same on every run.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterFixture
+{
+    private static final String[] SUBJECTS = {"Basket Weaving,3", "Social Media,3",
+            "Rocket Science,3", "English,4", "Maths,4", "Finance,4", "Operating Systems,5",
+            "Cyber Security,5", "Systems Design,5", "Programming,6"};
+
+    private Path directory;
+    private Path subjectsFile;
+    private Path studentsFile;
+
+    /**
+     * Create the subjects file and a students file with the given number of students.
+     *
+     * @param   rosterSize  The number of students to be written to the students file.
+     */
+    public RosterFixture(int rosterSize) throws IOException
+    {
+        directory = Files.createTempDirectory("roster");
+        subjectsFile = directory.resolve("subjects.txt");
+        studentsFile = directory.resolve("students.txt");
+        Files.write(subjectsFile, Arrays.asList(SUBJECTS));
+        writeStudents(rosterSize);
+    }
+
+    /**
+     * Delete the generated files.
+     */
+    public void delete() throws IOException
+    {
+        Files.deleteIfExists(subjectsFile);
+        Files.deleteIfExists(studentsFile);
+        Files.deleteIfExists(directory.resolve("output.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Return the name of the file in the fixture directory to which benchmarks may write.
+     *
+     * @return  The name of the output file.
+     */
+    public String getOutputFilename()
+    {
+        return directory.resolve("output.txt").toString();
+    }
+
+    /**
+     * Return the name of the generated students file.
+     *
+     * @return  The name of the students file.
+     */
+    public String getStudentsFilename()
+    {
+        return studentsFile.toString();
+    }
+
+    /**
+     * Return the name of the generated subjects file.
+     *
+     * @return  The name of the subjects file.
+     */
+    public String getSubjectsFilename()
+    {
+        return subjectsFile.toString();
+    }
+
+    /**
+     * Create a SchoolManager object that loads the generated files.
+     *
+     * @return  The School Management System holding the generated roster.
+     */
+    public SchoolManager loadSchoolManager()
+    {
+        return new SchoolManager(getSubjectsFilename(), getStudentsFilename());
+    }
+
+    /**
+     * Write the given number of students generated from the subjects of the fixture.
+     *
+     * @param   rosterSize  The number of students to be written.
+     */
+    private void writeStudents(int rosterSize) throws IOException
+    {
+        SubjectDatabase allSubjects = new SubjectDatabase();
+        for (String subject : SUBJECTS)
+        {
+            String[] splitSubject = subject.split(",");
+            allSubjects.addSubject(new Subject(splitSubject[0], Integer.parseInt(splitSubject[1])));
+        }
+        RosterGenerator generator = new RosterGenerator(allSubjects, 42);
+        generator.writeStudentsFile(rosterSize, studentsFile.toString());
+    }
+}
@@ -0,0 +1,87 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The RosterQueryBenchmark class measures compiling a query of the roster query language with
+ * and without the plan cache, and running compiled queries using each kind of execution plan
+ * against a synthetic roster.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RosterQueryBenchmark
+{
+    private static final String QUERY = "suspended = false AND enrolled CONTAINS " +
+            "(\"Maths\", \"English\") AND credits > 10 ORDER BY name LIMIT 50";
+
+    @Param({"100000"})
+    public int rosterSize;
+
+    private SubjectDatabase allSubjects;
+    private StudentDatabase allStudents;
+    private RosterQueryCompiler compiler;
+    private SubjectFilterCache subjectFilterCache;
+    private RosterQuery cachedSubjectQuery;
+    private RosterQuery identityNumberQuery;
+    private RosterQuery scanQuery;
+
+    /**
+     * Load the synthetic roster and compile the queries.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(rosterSize);
+        SchoolManager schoolManager = fixture.loadSchoolManager();
+        fixture.delete();
+        allSubjects = schoolManager.getAllSubjects();
+        allStudents = schoolManager.getAllStudents();
+        compiler = new RosterQueryCompiler(allSubjects);
+        subjectFilterCache = new SubjectFilterCache(64);
+        cachedSubjectQuery = compiler.compile(QUERY);
+        identityNumberQuery = compiler.compile("id = " +
+                allStudents.getStudent(rosterSize / 2).getIdentityNumber());
+        scanQuery = compiler.compile("credits > 10 AND NOT enrolled CONTAINS \"Maths\" " +
+                "ORDER BY credits DESC LIMIT 50");
+    }
+
+    @Benchmark
+    public RosterQuery compileCached()
+    {
+        return compiler.compile(QUERY);
+    }
+
+    @Benchmark
+    public RosterQuery compileUncached()
+    {
+        return new RosterQueryCompiler(allSubjects).compile(QUERY);
+    }
+
+    @Benchmark
+    public StudentDatabase executeCachedSubjectFilter()
+    {
+        return cachedSubjectQuery.execute(allStudents, subjectFilterCache);
+    }
+
+    @Benchmark
+    public StudentDatabase executeFullScan()
+    {
+        return scanQuery.execute(allStudents, subjectFilterCache);
+    }
+
+    @Benchmark
+    public StudentDatabase executeIdentityNumberLookup()
+    {
+        return identityNumberQuery.execute(allStudents, subjectFilterCache);
+    }
+}
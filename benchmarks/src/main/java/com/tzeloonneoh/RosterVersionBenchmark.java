@@ -0,0 +1,143 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The RosterVersionBenchmark class measures a listing of all students of a synthetic roster
+ * running at the same time as a thread changing the roster, in the way RosterFollower applies its
+ * batches: the writer removes and re-adds a number of students under a write lock and then prepares
+ * the list for reading. In the "locked" group the listing reads the list under the read lock, so
+ * the listing and the batches hold each other up; in the "versioned" group the writer also
+ * publishes a new version after each batch and the listing reads the latest version without any
+ * lock.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RosterVersionBenchmark
+{
+    @Param({"100000"})
+    public int rosterSize;
+
+    @Param({"100"})
+    public int changesPerBatch;
+
+    private StudentDatabase students;
+    private Student[] changedStudents;
+    private ReentrantReadWriteLock lock;
+    private int nextChange;
+
+    /**
+     * Load the synthetic roster and pick the students to be removed and re-added.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(rosterSize);
+        students = fixture.loadSchoolManager().getAllStudents();
+        fixture.delete();
+        students.prepareForReading();
+        students.publishVersion();
+        changedStudents = new Student[changesPerBatch * 16];
+        for (int index = 0; index < changedStudents.length; index++)
+            changedStudents[index] = students.getStudent(index * (rosterSize /
+                    changedStudents.length));
+        lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Remove and re-add the next students to be changed and prepare the list for reading. Must be
+     * called while holding the write lock.
+     */
+    private void changeBatch()
+    {
+        for (int change = 0; change < changesPerBatch; change++)
+        {
+            Student student = changedStudents[nextChange];
+            nextChange = (nextChange + 1) % changedStudents.length;
+            students.removeStudent(student);
+            students.addStudent(student);
+        }
+        students.prepareForReading();
+    }
+
+    /**
+     * Given a list of students, return the total credit of its students.
+     *
+     * @param   version The list to be read.
+     * @return  The total credit.
+     */
+    private static long listing(RosterVersion version)
+    {
+        long totalCredit = 0;
+        for (int index = 0; index < version.getSize(); index++)
+            totalCredit += version.getStudent(index).getTotalCredit();
+        return totalCredit;
+    }
+
+    @Benchmark
+    @Group("locked")
+    public void lockedBatch()
+    {
+        lock.writeLock().lock();
+        try
+        {
+            changeBatch();
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    public long lockedListing()
+    {
+        lock.readLock().lock();
+        try
+        {
+            long totalCredit = 0;
+            for (int index = 0; index < students.getSize(); index++)
+                totalCredit += students.getStudent(index).getTotalCredit();
+            return totalCredit;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("versioned")
+    public RosterVersion versionedBatch()
+    {
+        lock.writeLock().lock();
+        try
+        {
+            changeBatch();
+            return students.publishVersion();
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("versioned")
+    public long versionedListing()
+    {
+        return listing(students.getPublishedVersion());
+    }
+}
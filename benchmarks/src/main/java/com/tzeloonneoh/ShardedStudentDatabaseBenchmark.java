@@ -0,0 +1,96 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The ShardedStudentDatabaseBenchmark class measures the scan and lookup throughput of a
+ * ShardedStudentDatabase object holding a synthetic roster, for various numbers of shards and of
+ * threads scanning the shards in parallel. One shard scanned by one thread is the baseline of an
+ * unsharded StudentDatabase; the speed-up for a given number of threads is bounded by the number
+ * of cores, so run with -p parallelism=<cores> on the machine being sized.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ShardedStudentDatabaseBenchmark
+{
+    @Param({"1000000"})
+    public int rosterSize;
+
+    @Param({"1", "4", "16"})
+    public int shardCount;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private ShardedStudentDatabase students;
+    private SubjectDatabase subjectFilters;
+    private String lookupName;
+    private int lookupIdentityNumber;
+
+    /**
+     * Load the synthetic roster into a sharded list scanned by a pool of the given size.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(rosterSize);
+        SchoolManager schoolManager = fixture.loadSchoolManager();
+        fixture.delete();
+        StudentDatabase allStudents = schoolManager.getAllStudents();
+        pool = new ForkJoinPool(parallelism);
+        students = new ShardedStudentDatabase(shardCount, pool);
+        for (int index = 0; index < allStudents.getSize(); index++)
+            students.addStudent(allStudents.getStudent(index));
+        Student student = allStudents.getStudent(rosterSize / 2);
+        lookupName = student.getName();
+        lookupIdentityNumber = student.getIdentityNumber();
+        SubjectDatabase allSubjects = schoolManager.getAllSubjects();
+        subjectFilters = new SubjectDatabase();
+        subjectFilters.addSubject(allSubjects.getSubject(0));
+        subjectFilters.addSubject(allSubjects.getSubject(1));
+    }
+
+    /**
+     * Shut down the pool scanning the shards.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Student filterStudentByIdentityNumber()
+    {
+        return students.filterStudentByIdentityNumber(lookupIdentityNumber);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsByName()
+    {
+        return students.filterStudentsByName(lookupName);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsBySubjects()
+    {
+        return students.filterStudentsBySubjects(subjectFilters);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsBySuspension()
+    {
+        return students.filterStudentsBySuspension(1);
+    }
+}
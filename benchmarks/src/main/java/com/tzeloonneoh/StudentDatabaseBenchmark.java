@@ -0,0 +1,104 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The StudentDatabaseBenchmark class measures the lookups and filters of a StudentDatabase object
+ * holding a synthetic roster of 1K, 100K and 1M students. Each benchmark reports its throughput
+ * and its sampled latency; the allocation rate is reported by the GC profiler that the "jmh" task
+ * enables.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StudentDatabaseBenchmark
+{
+    @Param({"1000", "100000", "1000000"})
+    public int rosterSize;
+
+    private StudentDatabase allStudents;
+    private SubjectDatabase subjectFilters;
+    private SubjectDatabase subjectsEnrolled;
+    private String lookupName;
+    private int lookupIdentityNumber;
+
+    /**
+     * Load the synthetic roster and pick the query inputs from a student in the middle of it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(rosterSize);
+        SchoolManager schoolManager = fixture.loadSchoolManager();
+        fixture.delete();
+        allStudents = schoolManager.getAllStudents();
+        Student student = allStudents.getStudent(rosterSize / 2);
+        lookupName = student.getName();
+        lookupIdentityNumber = student.getIdentityNumber();
+        SubjectDatabase allSubjects = schoolManager.getAllSubjects();
+        subjectFilters = new SubjectDatabase();
+        subjectFilters.addSubject(allSubjects.getSubject(4));
+        subjectFilters.addSubject(allSubjects.getSubject(7));
+        subjectsEnrolled = new SubjectDatabase();
+        for (int index = 0; index < allSubjects.getSize(); index += 2)
+            subjectsEnrolled.addSubject(allSubjects.getSubject(index));
+    }
+
+    @Benchmark
+    public Student filterStudentByIdentityNumber()
+    {
+        return allStudents.filterStudentByIdentityNumber(lookupIdentityNumber);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsByName()
+    {
+        return allStudents.filterStudentsByName(lookupName);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsBySubjects()
+    {
+        return allStudents.filterStudentsBySubjects(subjectFilters);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsBySuspension()
+    {
+        return allStudents.filterStudentsBySuspension(2);
+    }
+
+    @Benchmark
+    public StudentDatabase filterStudentsNotEnrolled()
+    {
+        return allStudents.filterStudentsNotEnrolled();
+    }
+
+    @Benchmark
+    public boolean identityNumberInUse()
+    {
+        return allStudents.identityNumberInUse(lookupIdentityNumber);
+    }
+
+    @Benchmark
+    public boolean isSubset()
+    {
+        return allStudents.isSubset(subjectsEnrolled, subjectFilters);
+    }
+
+    @Benchmark
+    public boolean studentOnDatabase()
+    {
+        return allStudents.studentOnDatabase(lookupName, lookupIdentityNumber);
+    }
+}
@@ -0,0 +1,50 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * The StudentDatabaseFootprint class prints the bytes of heap used per student by the
+ * StudentDatabase class and by the ColumnarStudentDatabase class holding the same synthetic
+ * roster. The Subject objects offered at the school are shared by all students and are left out;
+ * the dictionary of name tokens shared by all Student objects is counted with the StudentDatabase
+ * object.
+ * Run it with "gradle :benchmarks:footprint".
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class StudentDatabaseFootprint
+{
+    /**
+     * Print the footprint of both backends for each roster size given on the command line.
+     *
+     * @param   args    The roster sizes, 1000 and 100000 if none are given.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String[] rosterSizes = (args.length > 0 ? args : new String[] {"1000", "100000"});
+        System.out.println(String.format("%12s %20s %20s", "Students", "Object (bytes/student)",
+                "Columnar (bytes/student)"));
+        for (String rosterSize : rosterSizes)
+        {
+            RosterFixture fixture = new RosterFixture(Integer.parseInt(rosterSize));
+            SchoolManager schoolManager = fixture.loadSchoolManager();
+            fixture.delete();
+            SubjectDatabase allSubjects = schoolManager.getAllSubjects();
+            StudentDatabase objectStudents = schoolManager.getAllStudents();
+            ColumnarStudentDatabase columnarStudents = new ColumnarStudentDatabase(allSubjects);
+            for (int index = 0; index < objectStudents.getSize(); index++)
+                columnarStudents.addStudent(objectStudents.getStudent(index));
+            GraphLayout subjects = GraphLayout.parseInstance(allSubjects);
+            long objectBytes = GraphLayout.parseInstance(objectStudents, Student.NAMES).
+                    subtract(subjects).totalSize();
+            long columnarBytes =
+                    GraphLayout.parseInstance(columnarStudents).subtract(subjects).totalSize();
+            System.out.println(String.format("%12s %20.1f %20.1f", rosterSize,
+                    (double) objectBytes / objectStudents.getSize(),
+                    (double) columnarBytes / columnarStudents.getSize()));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The StudentRemovalBenchmark class measures removing a tenth of the students, in random order,
+ * from a StudentDatabase object holding a synthetic roster, both by identity number and by Student
+ * object. Each invocation starts from a fresh copy of the roster.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StudentRemovalBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int rosterSize;
+
+    private StudentDatabase allStudents;
+    private StudentDatabase students;
+    private Student[] studentsToRemove;
+
+    /**
+     * Load the synthetic roster and pick the students to be removed.
+     */
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException
+    {
+        RosterFixture fixture = new RosterFixture(rosterSize);
+        allStudents = fixture.loadSchoolManager().getAllStudents();
+        fixture.delete();
+        ArrayList<Student> shuffled = new ArrayList<>();
+        for (int index = 0; index < allStudents.getSize(); index++)
+            shuffled.add(allStudents.getStudent(index));
+        Collections.shuffle(shuffled, new Random(42));
+        studentsToRemove = shuffled.subList(0, rosterSize / 10).toArray(new Student[0]);
+    }
+
+    /**
+     * Copy the roster and build its index of identity numbers before each invocation.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation()
+    {
+        students = new StudentDatabase();
+        for (int index = 0; index < allStudents.getSize(); index++)
+            students.addStudent(allStudents.getStudent(index));
+        students.identityNumberInUse(0);
+    }
+
+    @Benchmark
+    public StudentDatabase removeStudent()
+    {
+        for (Student student : studentsToRemove)
+            students.removeStudent(student);
+        return students;
+    }
+
+    @Benchmark
+    public StudentDatabase removeStudentByIdentityNumber()
+    {
+        for (Student student : studentsToRemove)
+            students.removeStudentByIdentityNumber(student.getIdentityNumber());
+        return students;
+    }
+}
@@ -0,0 +1,101 @@
+package com.tzeloonneoh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The SubjectCapacityBenchmark class measures 4 threads enrolling different students in, and
+ * unenrolling them from, a single hot subject at once: without a capacity (no seats counted), with
+ * more seats than students and with fewer seats than students (so that half of the enrolments are
+ * rejected as the subject is full). It also measures taking and giving back a seat of the hot
+ * subject on its own, with the lock-free counter of the Subject class against a counter guarded by
+ * a lock.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SubjectCapacityBenchmark
+{
+    @Param({"0", "1000000", "2"})
+    public int capacity;
+
+    private Subject hotSubject;
+    private SubjectDatabase hotSubjectOnly;
+    private SubjectDatabase noSubjects;
+    private Object seatLock;
+    private int lockedSeatsTaken;
+
+    /**
+     * The StudentState class holds the student enrolled by one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class StudentState
+    {
+        private Student student;
+
+        /**
+         * Create a student holding seats.
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            student = new Student();
+            student.claimSeats();
+        }
+    }
+
+    /**
+     * Create the hot subject with the capacity to be measured.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        hotSubject = new Subject("Programming", 6, capacity);
+        hotSubjectOnly = new SubjectDatabase();
+        hotSubjectOnly.addSubject(hotSubject);
+        noSubjects = new SubjectDatabase();
+        seatLock = new Object();
+    }
+
+    @Benchmark
+    public EnrolmentResult enrolAndUnenrol(StudentState state)
+    {
+        state.student.updateEnrolments(hotSubjectOnly, noSubjects);
+        return state.student.updateEnrolments(noSubjects, hotSubjectOnly);
+    }
+
+    @Benchmark
+    public boolean takeAndGiveBackSeat()
+    {
+        boolean taken = hotSubject.tryTakeSeat();
+        if (taken)
+            hotSubject.releaseSeat();
+        return taken;
+    }
+
+    @Benchmark
+    public boolean takeAndGiveBackSeatLocked()
+    {
+        boolean taken;
+        synchronized (seatLock)
+        {
+            taken = (lockedSeatsTaken < capacity);
+            if (taken)
+                lockedSeatsTaken++;
+        }
+        if (taken)
+            synchronized (seatLock)
+            {
+                lockedSeatsTaken--;
+            }
+        return taken;
+    }
+}
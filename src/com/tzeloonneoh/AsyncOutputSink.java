@@ -0,0 +1,230 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The AsyncOutputSink class is an OutputSink that hands the printed text to a writer thread
+ * through a ring buffer, so that printing costs a slot in the buffer rather than a write to the
+ * console. The writer thread collects whatever text is waiting into a single batch and writes and
+ * flushes the batch to a PrintStream object in one go.
+ *
+ * Any number of threads may print. Each piece of text claims the next sequence number, which
+ * fixes its position in the output, is stored in the slot of that sequence number, and is then
+ * published by recording the sequence number of the slot. The writer thread writes the slots in
+ * sequence, so a thread that has claimed a slot but not yet published it holds back the text
+ * after it. A thread printing into a full buffer waits for the writer thread to free a slot:
+ * console output is never dropped. The writer thread parks when the buffer is empty and is
+ * unparked by the next print; a thread flushing the sink waits until the writer thread has
+ * written its text and notifies it.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class AsyncOutputSink implements OutputSink
+{
+    private static final int MAXIMUM_BATCH_LENGTH = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+    private static final long WAIT_PARK_NANOS = 50_000;
+    private static final long FLUSH_WAIT_MILLIS = 10;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    private PrintStream out;
+    private String[] slots;
+    private AtomicLongArray published;
+    private int mask;
+    private AtomicLong claimed;
+    private volatile long consumed;
+    private volatile long flushed;
+    private volatile boolean writerIdle;
+    private volatile int flushWaiters;
+    private Object flushLock;
+    private volatile boolean closed;
+    private Thread writer;
+    private LongAdder batches;
+    private LongAdder fullBufferWaits;
+
+    /**
+     * Construct a sink writing to the given stream through a ring buffer of the given number of
+     * slots, and start its writer thread.
+     *
+     * @param   out         The stream to write to.
+     * @param   capacity    The number of slots, rounded up to a power of two.
+     */
+    public AsyncOutputSink(PrintStream out, int capacity)
+    {
+        this.out = out;
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        slots = new String[size];
+        published = new AtomicLongArray(size);
+        for (int index = 0; index < size; index++)
+            published.set(index, -1);
+        mask = size - 1;
+        claimed = new AtomicLong();
+        flushLock = new Object();
+        batches = new LongAdder();
+        fullBufferWaits = new LongAdder();
+        writer = new Thread(this::writeBatches, "output-sink-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Write the text still in the buffer, stop the writer thread and flush the stream. Text
+     * printed afterwards is written to the stream straight away, in the thread that prints it.
+     */
+    public void close()
+    {
+        if (closed)
+            return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try
+        {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        for (long next = consumed; published.get((int) next & mask) == next; next++)
+            out.print(slots[(int) next & mask]);
+        out.flush();
+    }
+
+    /**
+     * Return once the writer thread has written and flushed all the text printed so far.
+     */
+    public void flush()
+    {
+        long target = claimed.get();
+        if (flushed < target)
+            synchronized (flushLock)
+            {
+                flushWaiters++;
+                try
+                {
+                    while (flushed < target && writer.isAlive())
+                    {
+                        LockSupport.unpark(writer);
+                        flushLock.wait(FLUSH_WAIT_MILLIS);
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                finally
+                {
+                    flushWaiters--;
+                }
+            }
+        if (closed)
+            out.flush();
+    }
+
+    /**
+     * Return the number of pieces of text printed, the number of batches written and the number
+     * of times a thread had to wait for a full buffer, as a string.
+     *
+     * @return  The statistics of the sink.
+     */
+    public String getStatistics()
+    {
+        return ("Output sink: " + claimed.get() + " prints in " + batches.sum() +
+                " batches, " + (slots.length - (claimed.get() - consumed)) + "/" + slots.length +
+                " slots free, " + fullBufferWaits.sum() + " waits for a full buffer");
+    }
+
+    /**
+     * Wake up the threads waiting in flush() for the text to be written, if there are any.
+     */
+    private void notifyFlushWaiters()
+    {
+        if (flushWaiters > 0)
+            synchronized (flushLock)
+            {
+                flushLock.notifyAll();
+            }
+    }
+
+    /**
+     * Given a string, store it in the next slot of the buffer for the writer thread to write,
+     * waiting for a free slot if the buffer is full.
+     *
+     * @param   text    The text to be printed.
+     */
+    public void print(String text)
+    {
+        if (closed)
+        {
+            out.print(text);
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        if (sequence - consumed >= slots.length)
+        {
+            fullBufferWaits.increment();
+            while (sequence - consumed >= slots.length && writer.isAlive())
+            {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+            }
+        }
+        int index = (int) sequence & mask;
+        slots[index] = text;
+        published.set(index, sequence);
+        if (writerIdle)
+            LockSupport.unpark(writer);
+    }
+
+    /**
+     * Given a string, print it followed by a line separator.
+     *
+     * @param   line    The line to be printed.
+     */
+    public void println(String line)
+    {
+        print(line + System.lineSeparator());
+    }
+
+    /**
+     * Write the published text in sequence, in batches, until the sink is closed and every claimed
+     * slot has been written. Runs on the writer thread.
+     */
+    private void writeBatches()
+    {
+        StringBuilder batch = new StringBuilder();
+        long next = 0;
+        while (true)
+        {
+            int index = (int) next & mask;
+            if (published.get(index) == next)
+            {
+                batch.append(slots[index]);
+                slots[index] = null;
+                consumed = ++next;
+                if (batch.length() < MAXIMUM_BATCH_LENGTH)
+                    continue;
+            }
+            if (batch.length() > 0)
+            {
+                out.print(batch);
+                out.flush();
+                batch.setLength(0);
+                batches.increment();
+                flushed = next;
+                notifyFlushWaiters();
+                continue;
+            }
+            flushed = next;
+            if (closed && next == claimed.get())
+                return;
+            writerIdle = true;
+            if (published.get(index) != next && !closed)
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            writerIdle = false;
+        }
+    }
+}
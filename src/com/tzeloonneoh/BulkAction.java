@@ -0,0 +1,38 @@
+package com.tzeloonneoh;
+
+/**
+ * The BulkAction enumeration lists the changes that can be applied to every student matching a
+ * StudentQuery object in a single pass over the list of students.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public enum BulkAction
+{
+    SUSPEND("suspended"),
+    UNSUSPEND("unsuspended"),
+    ENROL("enrolled"),
+    UNENROL("unenrolled");
+
+    private final String pastTense;
+
+    /**
+     * Construct a bulk action with the word used to report its result.
+     *
+     * @param   pastTense   The past tense of the action.
+     */
+    BulkAction(String pastTense)
+    {
+        this.pastTense = pastTense;
+    }
+
+    /**
+     * Return the past tense of the action, e.g., "suspended".
+     *
+     * @return  The past tense of the action.
+     */
+    public String getPastTense()
+    {
+        return pastTense;
+    }
+}
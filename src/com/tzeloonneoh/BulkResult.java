@@ -0,0 +1,103 @@
+package com.tzeloonneoh;
+
+/**
+ * The BulkResult class counts the outcome of a bulk action over the students matching a query:
+ * the students that were changed, the students whose change was rejected (the maximum credit
+ * would be exceeded, or a suspended student was to be enrolled/unenrolled) and the students that
+ * already were in the requested state.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class BulkResult
+{
+    private BulkAction action;
+    private int applied;
+    private int rejected;
+    private int unchanged;
+
+    /**
+     * Construct the (empty) result of a bulk action.
+     *
+     * @param   action  The bulk action.
+     */
+    public BulkResult(BulkAction action)
+    {
+        this.action = action;
+    }
+
+    /**
+     * Return the number of students that were changed.
+     *
+     * @return  The number of changed students.
+     */
+    public int getApplied()
+    {
+        return applied;
+    }
+
+    /**
+     * Return the number of students that matched the query.
+     *
+     * @return  The number of matching students.
+     */
+    public int getMatched()
+    {
+        return applied + rejected + unchanged;
+    }
+
+    /**
+     * Return the number of students whose change was rejected.
+     *
+     * @return  The number of rejected students.
+     */
+    public int getRejected()
+    {
+        return rejected;
+    }
+
+    /**
+     * Return the number of students that already were in the requested state.
+     *
+     * @return  The number of unchanged students.
+     */
+    public int getUnchanged()
+    {
+        return unchanged;
+    }
+
+    /**
+     * Count a student that was changed.
+     */
+    void recordApplied()
+    {
+        applied++;
+    }
+
+    /**
+     * Count a student whose change was rejected.
+     */
+    void recordRejected()
+    {
+        rejected++;
+    }
+
+    /**
+     * Count a student that already was in the requested state.
+     */
+    void recordUnchanged()
+    {
+        unchanged++;
+    }
+
+    /**
+     * Return the counts of the result as a string.
+     *
+     * @return  The result of the bulk action.
+     */
+    public String toString()
+    {
+        return (getMatched() + " student(s) matched: " + applied + " " + action.getPastTense() +
+                ", " + rejected + " rejected, " + unchanged + " unchanged");
+    }
+}
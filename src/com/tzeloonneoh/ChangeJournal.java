@@ -0,0 +1,289 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+/**
+ * The ChangeJournal class writes the change events of a list of students to a text file, so that
+ * RosterFollower processes on the same machine can replay them on top of the students file that
+ * the list was loaded from. The journal starts with a header naming that file, followed by one
+ * line per event:
+ *
+ *     sequence,timestamp,ADDED,name,identity number,suspension,subject,credit,...
+ *     sequence,timestamp,type,identity number,name[,subject]
+ *     sequence,timestamp,BULK_BEGIN|BULK_END,bulk action
+ *
+ * The events of a bulk action are written between a BULK_BEGIN and a BULK_END line, so that the
+ * action is recorded as one grouped entry; followers apply a group only once its BULK_END line
+ * has been written, so they never show a bulk action half applied.
+ *
+ * Each batch of events is flushed to the file as soon as it has been written. A journal cannot miss
+ * events, so the change publisher waits for the journal to catch up rather than drop events. If
+ * events are missing all the same (e.g., the publishing thread was interrupted), a line
+ * "GAP,first,last" records the missing sequence numbers and followers know that they have fallen
+ * out of step.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class ChangeJournal implements StudentChangeListener
+{
+    static final String SNAPSHOT_HEADER = "# snapshot ";
+    static final String GAP = "GAP";
+
+    private String filename;
+    private Writer writer;
+    private long lastSequenceNumber;
+
+    /**
+     * Create the journal file, replacing any existing one, and write its header.
+     *
+     * @param   filename            The name of the journal file.
+     * @param   snapshotFilename    The name of the students file the list was loaded from.
+     */
+    public ChangeJournal(String filename, String snapshotFilename)
+    {
+        this.filename = filename;
+        try
+        {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename),
+                    StandardCharsets.UTF_8));
+            writer.write(SNAPSHOT_HEADER + new File(snapshotFilename).getAbsolutePath() + "\n");
+            writer.flush();
+        }
+        catch (IOException e)
+        {
+            Output.println(filename + " could not be created!");
+            writer = null;
+        }
+    }
+
+    /**
+     * Given a line of a journal (or of a change batch written by RosterDiff), a list of students,
+     * the School Management System to create added students with and the subjects offered by
+     * name, apply the event on the line to the list. Added students hold no seats. The lines
+     * marking the beginning and end of a bulk action change nothing. The change has already been
+     * allowed by the primary, so enrolments are applied without checking the maximum credit or
+     * the capacity of the subject. An event that cannot be applied exactly as it was made (the
+     * student or a subject is unknown, the student is already in the new state, or the student
+     * cannot be told apart from another with the same identity number and name) means that the
+     * list is no longer in step with the primary.
+     *
+     * @param   line            The line of the journal.
+     * @param   students        The list of students to be changed.
+     * @param   schoolManager   The School Management System creating the added students.
+     * @param   subjectsByName  The subjects offered, by name.
+     * @return  The time at which the event was made.
+     * @throws  IllegalStateException   If the line records dropped events or the event cannot be
+     *                                  applied to the list as it was made.
+     */
+    static long applyEvent(String line, StudentDatabase students, SchoolManager schoolManager,
+                           Map<String, Subject> subjectsByName)
+    {
+        String[] fields = line.split(",", 4);
+        if (fields[0].equals(GAP))
+            throw new IllegalStateException("Events " + fields[1] + " to " + fields[2] +
+                    " were dropped by the primary!");
+        StudentChangeEvent.Type type = StudentChangeEvent.Type.valueOf(fields[2]);
+        if (type == StudentChangeEvent.Type.BULK_BEGIN || type == StudentChangeEvent.Type.BULK_END)
+            return Long.parseLong(fields[1]);
+        if (type == StudentChangeEvent.Type.ADDED)
+        {
+            students.addStudent(loadStudent(fields[0], fields[3], schoolManager, subjectsByName));
+            return Long.parseLong(fields[1]);
+        }
+        String[] details = fields[3].split(",");
+        Student student = findStudent(fields[0], Integer.parseInt(details[0]), details[1],
+                students);
+        switch (type)
+        {
+            case REMOVED:
+                students.removeStudent(student);
+                break;
+
+            case SUSPENDED:
+            case UNSUSPENDED:
+                boolean unsuspended = (type == StudentChangeEvent.Type.UNSUSPENDED);
+                if (student.getSuspension() == unsuspended)
+                    throw new IllegalStateException("Event " + fields[0] + " finds student " +
+                            details[0] + " already " + type.toString().toLowerCase() + "!");
+                student.updateSuspension(Boolean.toString(unsuspended));
+                break;
+
+            case ENROLLED:
+            case UNENROLLED:
+                Subject subject = subjectsByName.get(details[2]);
+                if (subject == null)
+                    throw new IllegalStateException("Event " + fields[0] +
+                            " is for unknown subject " + details[2] + "!");
+                EnrolmentResult result = student.replayEnrolment(subject,
+                        type == StudentChangeEvent.Type.ENROLLED);
+                if (!result.isCommitted())
+                    throw new IllegalStateException("Event " + fields[0] +
+                            " could not be applied to student " + details[0] + " (" +
+                            result.getStatus() + ")!");
+                break;
+
+            default:
+                break;
+        }
+        return Long.parseLong(fields[1]);
+    }
+
+    /**
+     * Check if the journal can miss events, which it cannot, as followers must be able to replay
+     * every change.
+     *
+     * @return  false   As no event may be dropped.
+     */
+    public boolean canMissEvents()
+    {
+        return false;
+    }
+
+    /**
+     * Close the journal file.
+     */
+    public synchronized void close()
+    {
+        if (writer == null)
+            return;
+        try
+        {
+            writer.close();
+        }
+        catch (IOException e)
+        {
+            Output.println("I/O error!");
+        }
+        writer = null;
+    }
+
+    /**
+     * Given the sequence number of an event, an identity number, a name and a list of students,
+     * return the student on the list the event is for: the only student with the identity number
+     * or, if the number is shared, the only one of them with the name.
+     *
+     * @param   sequenceNumber  The sequence number of the event.
+     * @param   identityNumber  The identity number of the student.
+     * @param   name            The name of the student.
+     * @param   students        The list of students.
+     * @return  The student the event is for.
+     * @throws  IllegalStateException   If no student, or more than one, matches.
+     */
+    private static Student findStudent(String sequenceNumber, int identityNumber, String name,
+                                       StudentDatabase students)
+    {
+        StudentDatabase candidates = students.filterStudentsByIdentityNumber(identityNumber);
+        if (candidates.getSize() == 1)
+            return candidates.getStudent(0);
+        Student student = null;
+        for (int index = 0; index < candidates.getSize(); index++)
+            if (candidates.getStudent(index).compareStudentNames(name))
+            {
+                if (student != null)
+                    throw new IllegalStateException("Event " + sequenceNumber +
+                            " is for identity number " + identityNumber +
+                            ", which is shared by several students named " + name + "!");
+                student = candidates.getStudent(index);
+            }
+        if (student == null)
+            throw new IllegalStateException("Event " + sequenceNumber + " is for unknown student " +
+                    identityNumber + "!");
+        return student;
+    }
+
+    /**
+     * Check if the journal file is open for writing.
+     *
+     * @return  true    If the journal file is open, false otherwise.
+     */
+    public synchronized boolean isOpen()
+    {
+        return (writer != null);
+    }
+
+    /**
+     * Given the sequence number of an ADDED event, the record of the added student, the School
+     * Management System to create the student with and the subjects offered by name, create the
+     * added student.
+     *
+     * @param   sequenceNumber  The sequence number of the event.
+     * @param   record          The record of the student in the format of "students.txt".
+     * @param   schoolManager   The School Management System creating the student.
+     * @param   subjectsByName  The subjects offered, by name.
+     * @return  The added student.
+     * @throws  IllegalStateException   If the record is rejected or names an unknown subject.
+     */
+    private static Student loadStudent(String sequenceNumber, String record,
+                                       SchoolManager schoolManager,
+                                       Map<String, Subject> subjectsByName)
+    {
+        String[] recordFields = record.split(",");
+        for (int index = 3; index < recordFields.length; index += 2)
+            if (!subjectsByName.containsKey(recordFields[index]))
+                throw new IllegalStateException("Event " + sequenceNumber +
+                        " adds a student enrolled in unknown subject " + recordFields[index] + "!");
+        ArrayList<String> textLines = new ArrayList<>();
+        textLines.add(record);
+        StudentDatabase addedStudents = schoolManager.createStudentListFromText(textLines);
+        if (addedStudents.getSize() == 0)
+            throw new IllegalStateException("Event " + sequenceNumber +
+                    " adds a student that could not be loaded (" + record + ")!");
+        return addedStudents.getStudent(0);
+    }
+
+    /**
+     * Given a batch of change events, append them to the journal file and flush it.
+     *
+     * @param   events  The events in order of their sequence numbers.
+     */
+    public synchronized void studentsChanged(List<StudentChangeEvent> events)
+    {
+        if (writer == null)
+            return;
+        try
+        {
+            for (StudentChangeEvent event : events)
+            {
+                if (event.getSequenceNumber() != lastSequenceNumber + 1)
+                    writer.write(GAP + "," + (lastSequenceNumber + 1) + "," +
+                            (event.getSequenceNumber() - 1) + "\n");
+                lastSequenceNumber = event.getSequenceNumber();
+                writer.write(toJournalLine(event));
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+        catch (IOException e)
+        {
+            Output.println("Journal " + filename + " could not be written!");
+            close();
+        }
+    }
+
+    /**
+     * Given a change event, return its line in the journal (without the line separator).
+     *
+     * @param   event   The change event.
+     * @return  The line of text representing the event.
+     */
+    static String toJournalLine(StudentChangeEvent event)
+    {
+        StringBuilder line = new StringBuilder();
+        line.append(event.getSequenceNumber()).append(',').append(event.getTimestamp()).
+                append(',').append(event.getType()).append(',');
+        if (event.getType() == StudentChangeEvent.Type.ADDED)
+            line.append(event.getRecord());
+        else if (event.isBulkMarker())
+            line.append(event.getName());
+        else
+        {
+            line.append(event.getIdentityNumber()).append(',').append(event.getName());
+            if (event.getSubjectName() != null)
+                line.append(',').append(event.getSubjectName());
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,758 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The ColumnarStudentDatabase class represents a list of students stored column by column
+ * (struct-of-arrays) rather than as a list of Student objects. Identity numbers are kept in an
+ * int array, suspension statuses in a packed bit array, the enrolled subjects as a bit matrix with
+ * one row of bits per student and one column per subject, and all names in a single shared char
+ * array. Scans therefore read a few contiguous arrays instead of following references across the
+ * heap, and a student takes a few dozen bytes instead of several objects. A filtered list shares
+ * the char array of names with the list it was filtered from and only copies it before storing a
+ * name of its own. Identity numbers are looked up through an open-addressing hash table of row
+ * serial numbers, so lookups and removals do not scan the list.
+ *
+ * It offers the same public methods as the StudentDatabase class. The Student objects it returns
+ * are created on request and are copies: changes made to them are only stored by passing them to
+ * updateStudent(). As enrolments are stored as a set of bits, the enrolled subjects of a returned
+ * student are in the order of the subjects offered rather than the order of enrolment.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class ColumnarStudentDatabase
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private SubjectColumns subjectColumns;
+    private int size;
+    private int[] identityNumbers;
+    private int[] serials;
+    private int nextSerial;
+    private int[] indexKeys;
+    private int[] indexSerials;
+    private int indexUsed;
+    private long[] suspensions;
+    private int wordsPerStudent;
+    private long[] enrolments;
+    private char[] names;
+    private boolean namesShared;
+    private int namesUsed;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+
+    /**
+     * The SubjectColumns class assigns each subject a column of the enrolment bit matrix. It is
+     * shared by a list of students and all the lists filtered from it.
+     */
+    private static class SubjectColumns
+    {
+        private ArrayList<Subject> subjects = new ArrayList<>();
+        private IdentityHashMap<Subject, Integer> columns = new IdentityHashMap<>();
+
+        /**
+         * Given a subject, return its column, assigning a new column to a subject not seen before.
+         *
+         * @param   subject The subject.
+         * @return  The column of the subject.
+         */
+        private int columnOf(Subject subject)
+        {
+            Integer column = columns.get(subject);
+            if (column == null)
+            {
+                column = subjects.size();
+                subjects.add(subject);
+                columns.put(subject, column);
+            }
+            return column;
+        }
+    }
+
+    /**
+     * Construct an empty list of students enrolling in the given subjects.
+     *
+     * @param   allSubjects The list of subjects offered at the school.
+     */
+    public ColumnarStudentDatabase(SubjectDatabase allSubjects)
+    {
+        this(new SubjectColumns());
+        for (int index = 0; index < allSubjects.getSize(); index++)
+            subjectColumns.columnOf(allSubjects.getSubject(index));
+        wordsPerStudent = wordsFor(subjectColumns.subjects.size());
+    }
+
+    /**
+     * Construct an empty list of students sharing the subject columns of another list.
+     *
+     * @param   subjectColumns  The subject columns to be shared.
+     */
+    private ColumnarStudentDatabase(SubjectColumns subjectColumns)
+    {
+        this.subjectColumns = subjectColumns;
+        wordsPerStudent = wordsFor(subjectColumns.subjects.size());
+        identityNumbers = new int[INITIAL_CAPACITY];
+        serials = new int[INITIAL_CAPACITY];
+        indexKeys = new int[INITIAL_CAPACITY * 2];
+        indexSerials = new int[INITIAL_CAPACITY * 2];
+        suspensions = new long[wordsFor(INITIAL_CAPACITY)];
+        enrolments = new long[INITIAL_CAPACITY * wordsPerStudent];
+        names = new char[INITIAL_CAPACITY * 16];
+        nameOffsets = new int[INITIAL_CAPACITY];
+        nameLengths = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add a Student object to a ColumnarStudentDatabase object to be processed.
+     *
+     * @param   newStudent  The Student object to be added.
+     */
+    public void addStudent(Student newStudent)
+    {
+        SubjectDatabase subjectsEnrolled = newStudent.getSubjectsEnrolled();
+        int[] columns = new int[subjectsEnrolled.getSize()];
+        for (int index = 0; index < columns.length; index++)
+            columns[index] = subjectColumns.columnOf(subjectsEnrolled.getSubject(index));
+        ensureCapacity(size + 1, newStudent.getName().length());
+        int row = size++;
+        identityNumbers[row] = newStudent.getIdentityNumber();
+        indexRow(row);
+        setSuspension(row, newStudent.getSuspension());
+        setEnrolments(row, columns);
+        setName(row, newStudent.getName());
+    }
+
+    /**
+     * Given a row of another list sharing the same subject columns, copy the row to the end of a
+     * ColumnarStudentDatabase object to be processed.
+     *
+     * @param   other   The list from which the row is to be copied.
+     * @param   row     The row to be copied.
+     */
+    private void appendRow(ColumnarStudentDatabase other, int row)
+    {
+        boolean sameNames = (names == other.names);
+        ensureCapacity(size + 1, (sameNames ? 0 : other.nameLengths[row]));
+        int newRow = size++;
+        identityNumbers[newRow] = other.identityNumbers[row];
+        indexRow(newRow);
+        setSuspension(newRow, other.getSuspension(row));
+        System.arraycopy(other.enrolments, row * other.wordsPerStudent, enrolments,
+                newRow * wordsPerStudent, Math.min(wordsPerStudent, other.wordsPerStudent));
+        nameLengths[newRow] = other.nameLengths[row];
+        if (sameNames)
+            nameOffsets[newRow] = other.nameOffsets[row];
+        else
+        {
+            nameOffsets[newRow] = namesUsed;
+            System.arraycopy(other.names, other.nameOffsets[row], names, namesUsed,
+                    other.nameLengths[row]);
+            namesUsed += other.nameLengths[row];
+        }
+    }
+
+    /**
+     * Create an empty list sharing the subject columns and the char array of names of a
+     * ColumnarStudentDatabase object to be processed, to hold the rows of a filter.
+     *
+     * @return  The empty list.
+     */
+    private ColumnarStudentDatabase createFilteredList()
+    {
+        ColumnarStudentDatabase filteredList = new ColumnarStudentDatabase(subjectColumns);
+        filteredList.names = names;
+        filteredList.namesUsed = namesUsed;
+        filteredList.namesShared = true;
+        return filteredList;
+    }
+
+    /**
+     * Given the size a ColumnarStudentDatabase object to be processed is about to reach and the
+     * length of a name about to be stored, grow the columns if they cannot hold them.
+     *
+     * @param   newSize     The number of students to be held.
+     * @param   nameLength  The number of characters to be added to the names.
+     */
+    private void ensureCapacity(int newSize, int nameLength)
+    {
+        if (newSize > identityNumbers.length)
+        {
+            int capacity = Math.max(newSize, identityNumbers.length * 2);
+            identityNumbers = Arrays.copyOf(identityNumbers, capacity);
+            serials = Arrays.copyOf(serials, capacity);
+            suspensions = Arrays.copyOf(suspensions, wordsFor(capacity));
+            enrolments = Arrays.copyOf(enrolments, capacity * wordsPerStudent);
+            nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+        }
+        if (nameLength > 0 && namesShared)
+        {
+            compactNames();
+            namesShared = false;
+        }
+        if (namesUsed + nameLength > names.length)
+        {
+            if (namesUsed - liveNameLength() > names.length / 2)
+                compactNames();
+            if (namesUsed + nameLength > names.length)
+                names = Arrays.copyOf(names, Math.max(namesUsed + nameLength, names.length * 2));
+        }
+        int requiredWords = wordsFor(subjectColumns.subjects.size());
+        if (requiredWords > wordsPerStudent)
+            widenEnrolments(requiredWords);
+    }
+
+    /**
+     * Copy the names of the students on the list to a new char array, leaving out the names of
+     * removed students and the names held only by other lists.
+     */
+    private void compactNames()
+    {
+        char[] compacted = new char[Math.max(liveNameLength() * 2, INITIAL_CAPACITY)];
+        int used = 0;
+        for (int row = 0; row < size; row++)
+        {
+            System.arraycopy(names, nameOffsets[row], compacted, used, nameLengths[row]);
+            nameOffsets[row] = used;
+            used += nameLengths[row];
+        }
+        names = compacted;
+        namesUsed = used;
+    }
+
+    /**
+     * Given a row and a name, check if the name stored in the row matches the name, ignoring case.
+     *
+     * @param   row         The row to be processed.
+     * @param   inputName   The name to be compared with.
+     * @return  true    If the names match, false otherwise.
+     */
+    private boolean compareStudentNames(int row, String inputName)
+    {
+        int length = nameLengths[row];
+        if (length != inputName.length())
+            return false;
+        int offset = nameOffsets[row];
+        for (int index = 0; index < length; index++)
+        {
+            char stored = names[offset + index];
+            char input = inputName.charAt(index);
+            if (stored != input && Character.toLowerCase(stored) != Character.toLowerCase(input))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Given an identity number (an integer), return, if there is, a copy of the last Student
+     * object on the list with the same identity number, otherwise a new Student object.
+     *
+     * @param   inputIdentityNumber    The user input of student identity number.
+     * @return  The Student object with the same identity numbers the user input.
+     */
+    public Student filterStudentByIdentityNumber(int inputIdentityNumber)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        int found = rowOf(inputIdentityNumber, null, true);
+        event.complete(Operation.LOOKUP_BY_IDENTITY_NUMBER, 1, (found < 0 ? 0 : 1));
+        MetricsRegistry.record(Operation.LOOKUP_BY_IDENTITY_NUMBER, startTime);
+        return (found < 0 ? new Student() : getStudent(found));
+    }
+
+    /**
+     * Given a name (a string of words), return a new ColumnarStudentDatabase object holding the
+     * students with the same name, ignoring case.
+     *
+     * @param   inputName    The user input of student name.
+     * @return  The list of student(s) with the same name as the user input.
+     */
+    public ColumnarStudentDatabase filterStudentsByName(String inputName)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        ColumnarStudentDatabase studentsByName = createFilteredList();
+        for (int row = 0; row < size; row++)
+            if (compareStudentNames(row, inputName))
+                studentsByName.appendRow(this, row);
+        event.complete(Operation.LOOKUP_BY_NAME, size, studentsByName.getSize());
+        MetricsRegistry.record(Operation.LOOKUP_BY_NAME, startTime);
+        return studentsByName;
+    }
+
+    /**
+     * Given a SubjectDatabase object, return a new ColumnarStudentDatabase object holding the
+     * students enrolled in all the subjects in the SubjectDatabase object.
+     *
+     * @param   subjectFilters  The list of subjects to be processed.
+     * @return  The list of student(s) enrolled in all the subjects in the given list of subjects.
+     */
+    public ColumnarStudentDatabase filterStudentsBySubjects(SubjectDatabase subjectFilters)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        ColumnarStudentDatabase studentsBySubjects = createFilteredList();
+        long[] mask = new long[wordsPerStudent];
+        boolean satisfiable = true;
+        for (int index = 0; index < subjectFilters.getSize(); index++)
+        {
+            Integer column = subjectColumns.columns.get(subjectFilters.getSubject(index));
+            if (column == null || column >= wordsPerStudent * 64)
+                satisfiable = false;
+            else
+                mask[column >>> 6] |= 1L << column;
+        }
+        for (int row = 0; row < size && satisfiable; row++)
+        {
+            int base = row * wordsPerStudent;
+            boolean matches = true;
+            for (int word = 0; word < wordsPerStudent && matches; word++)
+                matches = (enrolments[base + word] & mask[word]) == mask[word];
+            if (matches)
+                studentsBySubjects.appendRow(this, row);
+        }
+        event.complete(Operation.FILTER_BY_SUBJECTS, size, studentsBySubjects.getSize());
+        MetricsRegistry.record(Operation.FILTER_BY_SUBJECTS, startTime);
+        return studentsBySubjects;
+    }
+
+    /**
+     * Given an actual parameter (1: suspended or 2: unsuspended), return a new
+     * ColumnarStudentDatabase object holding the students with that suspension status.
+     *
+     * @param   integerInput    The user option to list (1: suspended or 2: unsuspended) students.
+     * @return  The list of students based on suspension status of user's choice.
+     */
+    public ColumnarStudentDatabase filterStudentsBySuspension(int integerInput)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        ColumnarStudentDatabase studentsBySuspension = createFilteredList();
+        for (int word = 0; word < wordsFor(size); word++)
+        {
+            long bits = (integerInput == 1 ? ~suspensions[word] : suspensions[word]);
+            if (word == size >>> 6)
+                bits &= (1L << size) - 1;
+            while (bits != 0)
+            {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                studentsBySuspension.appendRow(this, row);
+                bits &= bits - 1;
+            }
+        }
+        event.complete(Operation.FILTER_BY_SUSPENSION, size, studentsBySuspension.getSize());
+        MetricsRegistry.record(Operation.FILTER_BY_SUSPENSION, startTime);
+        return studentsBySuspension;
+    }
+
+    /**
+     * Return a new ColumnarStudentDatabase object holding the students not enrolled in any
+     * subjects.
+     *
+     * @return  The list of students who are not at all enrolled in any subjects.
+     */
+    public ColumnarStudentDatabase filterStudentsNotEnrolled()
+    {
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        ColumnarStudentDatabase studentsNotEnrolled = createFilteredList();
+        for (int row = 0; row < size; row++)
+        {
+            int base = row * wordsPerStudent;
+            boolean enrolled = false;
+            for (int word = 0; word < wordsPerStudent && !enrolled; word++)
+                enrolled = enrolments[base + word] != 0;
+            if (!enrolled)
+                studentsNotEnrolled.appendRow(this, row);
+        }
+        event.complete(Operation.FILTER_NOT_ENROLLED, size, studentsNotEnrolled.getSize());
+        MetricsRegistry.record(Operation.FILTER_NOT_ENROLLED, startTime);
+        return studentsNotEnrolled;
+    }
+
+    /**
+     * Return the number of students in a ColumnarStudentDatabase object to be processed.
+     *
+     * @return  The number of students recorded on the list.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Given an integer, return a copy of the student at the (integer)th index in a
+     * ColumnarStudentDatabase object to be processed.
+     *
+     * @return  The student at the given index on the list.
+     */
+    public Student getStudent(int index)
+    {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " +
+                    size);
+        Student student = new Student();
+        student.setName(getName(index));
+        student.setIdentityNumber(identityNumbers[index]);
+        student.setSuspension(Boolean.toString(getSuspension(index)));
+        int base = index * wordsPerStudent;
+        for (int word = 0; word < wordsPerStudent; word++)
+        {
+            long bits = enrolments[base + word];
+            while (bits != 0)
+            {
+                int column = (word << 6) + Long.numberOfTrailingZeros(bits);
+                student.enrolSubject(subjectColumns.subjects.get(column));
+                bits &= bits - 1;
+            }
+        }
+        return student;
+    }
+
+    /**
+     * Given a row, return the name stored in the row.
+     *
+     * @param   row The row to be processed.
+     * @return  The name of the student.
+     */
+    private String getName(int row)
+    {
+        return new String(names, nameOffsets[row], nameLengths[row]);
+    }
+
+    /**
+     * Given a row, return the suspension status stored in the row.
+     *
+     * @param   row The row to be processed.
+     * @return  true    If the student is being unsuspended, false otherwise.
+     */
+    private boolean getSuspension(int row)
+    {
+        return (suspensions[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Given an identity number, return the slot of the hash table of identity numbers at which
+     * probing for it starts.
+     *
+     * @param   identityNumber  The identity number.
+     * @return  The first slot to be probed.
+     */
+    private int hashSlot(int identityNumber)
+    {
+        int hash = identityNumber * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (indexKeys.length - 1);
+    }
+
+    /**
+     * Given an identity number, check if the identity number already exists in a
+     * ColumnarStudentDatabase object to be processed.
+     *
+     * @param   inputIdentityNumber The student identity number to be processed.
+     * @return  true    If the identity number has already been used for a student on the list,
+     *                  false otherwise.
+     */
+    public boolean identityNumberInUse(int inputIdentityNumber)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        boolean found = rowOf(inputIdentityNumber, null, false) >= 0;
+        MetricsRegistry.record(Operation.IDENTITY_NUMBER_IN_USE, startTime);
+        return found;
+    }
+
+    /**
+     * Given a new row, give it the next serial number and add it to the hash table of identity
+     * numbers. Once the table is half full it is rebuilt instead, with room to spare, from all
+     * the rows including the new one.
+     *
+     * @param   row The row to be indexed.
+     */
+    private void indexRow(int row)
+    {
+        serials[row] = nextSerial++;
+        if ((indexUsed + 1) * 2 > indexKeys.length)
+        {
+            rebuildIndex();
+            return;
+        }
+        int slot = hashSlot(identityNumbers[row]);
+        while (indexSerials[slot] > 0)
+            slot = (slot + 1) & (indexKeys.length - 1);
+        if (indexSerials[slot] == 0)
+            indexUsed++;
+        indexKeys[slot] = identityNumbers[row];
+        indexSerials[slot] = serials[row] + 1;
+    }
+
+    /**
+     * Return the number of characters of the shared char array that hold the names of the
+     * students currently on the list.
+     *
+     * @return  The number of characters in use.
+     */
+    private int liveNameLength()
+    {
+        int length = 0;
+        for (int row = 0; row < size; row++)
+            length += nameLengths[row];
+        return length;
+    }
+
+    /**
+     * Print out all students on the list.
+     */
+    public void printStudentDatabase()
+    {
+        for (int row = 0; row < size; row++)
+            Output.println((row + 1) + ". " + getName(row) + " (ID: " + identityNumbers[row] +
+                    ", " + (getSuspension(row) ? "Unsuspended" : "Suspended") + ")");
+        Output.println("");
+    }
+
+    /**
+     * Rebuild the hash table of identity numbers from the rows on the list, dropping the slots of
+     * removed rows, with at least four slots for every row.
+     */
+    private void rebuildIndex()
+    {
+        int length = INITIAL_CAPACITY * 2;
+        while (length < (size + 1) * 4)
+            length <<= 1;
+        indexKeys = new int[length];
+        indexSerials = new int[length];
+        indexUsed = 0;
+        for (int row = 0; row < size; row++)
+        {
+            int slot = hashSlot(identityNumbers[row]);
+            while (indexSerials[slot] != 0)
+                slot = (slot + 1) & (length - 1);
+            indexKeys[slot] = identityNumbers[row];
+            indexSerials[slot] = serials[row] + 1;
+            indexUsed++;
+        }
+    }
+
+    /**
+     * Remove the student with the same name and identity number as the given Student object from
+     * a ColumnarStudentDatabase object to be processed.
+     *
+     * @param   newStudent  The Student object to be removed.
+     */
+    public void removeStudent(Student newStudent)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        int row = rowOf(newStudent.getIdentityNumber(), newStudent.getName(), false);
+        if (row >= 0)
+        {
+            unindexRow(row);
+            int following = size - row - 1;
+            System.arraycopy(identityNumbers, row + 1, identityNumbers, row, following);
+            System.arraycopy(serials, row + 1, serials, row, following);
+            System.arraycopy(enrolments, (row + 1) * wordsPerStudent, enrolments,
+                    row * wordsPerStudent, following * wordsPerStudent);
+            System.arraycopy(nameOffsets, row + 1, nameOffsets, row, following);
+            System.arraycopy(nameLengths, row + 1, nameLengths, row, following);
+            shiftSuspensions(row);
+            size--;
+            setSuspension(size, false);
+            nameOffsets[size] = 0;
+            nameLengths[size] = 0;
+            Arrays.fill(enrolments, size * wordsPerStudent, (size + 1) * wordsPerStudent, 0);
+        }
+        MetricsRegistry.record(Operation.REMOVE_STUDENT, startTime);
+    }
+
+    /**
+     * Given an identity number, (optionally) a name and whether the last or the first match is
+     * wanted, look up the rows holding a student with that identity number in the hash table of
+     * identity numbers and return the last or first of them that also matches the name.
+     *
+     * @param   inputIdentityNumber The identity number to be found.
+     * @param   inputName           The name to be matched, ignoring case, or null for any name.
+     * @param   last                true for the last matching row, false for the first.
+     * @return  The row of the student, or -1 if there is no such student.
+     */
+    private int rowOf(int inputIdentityNumber, String inputName, boolean last)
+    {
+        int found = -1;
+        for (int slot = hashSlot(inputIdentityNumber); indexSerials[slot] != 0;
+             slot = (slot + 1) & (indexKeys.length - 1))
+        {
+            if (indexSerials[slot] < 0 || indexKeys[slot] != inputIdentityNumber)
+                continue;
+            int row = rowOfSerial(indexSerials[slot] - 1);
+            if ((inputName == null || compareStudentNames(row, inputName)) &&
+                    (found < 0 || (last ? row > found : row < found)))
+                found = row;
+        }
+        return found;
+    }
+
+    /**
+     * Given the serial number of a row on the list, return the row. The serial numbers increase
+     * with the rows, so the row is found by a binary search.
+     *
+     * @param   serial  The serial number of the row.
+     * @return  The row.
+     */
+    private int rowOfSerial(int serial)
+    {
+        return Arrays.binarySearch(serials, 0, size, serial);
+    }
+
+    /**
+     * Given a row and the columns of the subjects a student is enrolled in, set the row of the
+     * enrolment bit matrix.
+     *
+     * @param   row     The row to be set.
+     * @param   columns The columns of the enrolled subjects.
+     */
+    private void setEnrolments(int row, int[] columns)
+    {
+        int base = row * wordsPerStudent;
+        Arrays.fill(enrolments, base, base + wordsPerStudent, 0);
+        for (int column : columns)
+            enrolments[base + (column >>> 6)] |= 1L << column;
+    }
+
+    /**
+     * Given a row and a name, store the name in the shared char array and point the row at it.
+     *
+     * @param   row     The row to be set.
+     * @param   name    The name of the student.
+     */
+    private void setName(int row, String name)
+    {
+        nameOffsets[row] = 0;
+        nameLengths[row] = 0;
+        ensureCapacity(size, name.length());
+        name.getChars(0, name.length(), names, namesUsed);
+        nameOffsets[row] = namesUsed;
+        nameLengths[row] = name.length();
+        namesUsed += name.length();
+    }
+
+    /**
+     * Given a row and a suspension status, set the bit of the row in the packed suspension array.
+     *
+     * @param   row         The row to be set.
+     * @param   suspension  true if the student is being unsuspended, false otherwise.
+     */
+    private void setSuspension(int row, boolean suspension)
+    {
+        if (suspension)
+            suspensions[row >>> 6] |= 1L << row;
+        else
+            suspensions[row >>> 6] &= ~(1L << row);
+    }
+
+    /**
+     * Given a row being removed, move the suspension bits of the rows after it down by one a word
+     * at a time, carrying the lowest bit of each word into the top of the word before it.
+     *
+     * @param   row The row being removed.
+     */
+    private void shiftSuspensions(int row)
+    {
+        int first = row >>> 6;
+        int last = (size - 1) >>> 6;
+        long lowBits = (1L << row) - 1;
+        suspensions[first] = (suspensions[first] & lowBits) |
+                ((suspensions[first] >>> 1) & ~lowBits);
+        for (int word = first + 1; word <= last; word++)
+        {
+            suspensions[word - 1] |= suspensions[word] << 63;
+            suspensions[word] >>>= 1;
+        }
+    }
+
+    /**
+     * Given a student name and an identity number, check if there is a student on the list that
+     * matches the name and identity number.
+     *
+     * @param   inputStudentName  The student name against which comparison is to be made.
+     * @param   inputIdentityNumber The student identity number against which comparison is to be
+     *                              made
+     * @return  true    If a student of the same name and identity number is found, false
+     *                  otherwise.
+     */
+    public boolean studentOnDatabase(String inputStudentName, int inputIdentityNumber)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        boolean found = rowOf(inputIdentityNumber, inputStudentName, false) >= 0;
+        MetricsRegistry.record(Operation.STUDENT_ON_DATABASE, startTime);
+        return found;
+    }
+
+    /**
+     * Given a row about to be removed, mark its slot in the hash table of identity numbers as
+     * removed, so that probing for other identity numbers carries on past it.
+     *
+     * @param   row The row to be removed from the table.
+     */
+    private void unindexRow(int row)
+    {
+        int slot = hashSlot(identityNumbers[row]);
+        while (indexSerials[slot] != serials[row] + 1)
+            slot = (slot + 1) & (indexKeys.length - 1);
+        indexSerials[slot] = -1;
+    }
+
+    /**
+     * Given a Student object, store its name, suspension status and enrolled subjects in the row
+     * of the first student with the same identity number.
+     *
+     * @param   changedStudent  The changed copy of a student on the list.
+     * @return  true    If a student with the same identity number was found and updated, false
+     *                  otherwise.
+     */
+    public boolean updateStudent(Student changedStudent)
+    {
+        int row = rowOf(changedStudent.getIdentityNumber(), null, false);
+        if (row < 0)
+            return false;
+        SubjectDatabase subjectsEnrolled = changedStudent.getSubjectsEnrolled();
+        int[] columns = new int[subjectsEnrolled.getSize()];
+        for (int index = 0; index < columns.length; index++)
+            columns[index] = subjectColumns.columnOf(subjectsEnrolled.getSubject(index));
+        ensureCapacity(size, changedStudent.getName().length());
+        setSuspension(row, changedStudent.getSuspension());
+        setEnrolments(row, columns);
+        if (!getName(row).equals(changedStudent.getName()))
+            setName(row, changedStudent.getName());
+        return true;
+    }
+
+    /**
+     * Given a number of subject columns, rebuild the enrolment bit matrix with enough words per
+     * row to hold them.
+     *
+     * @param   requiredWords   The number of words each row must hold.
+     */
+    private void widenEnrolments(int requiredWords)
+    {
+        long[] widened = new long[identityNumbers.length * requiredWords];
+        for (int row = 0; row < size; row++)
+            System.arraycopy(enrolments, row * wordsPerStudent, widened, row * requiredWords,
+                    wordsPerStudent);
+        enrolments = widened;
+        wordsPerStudent = requiredWords;
+    }
+
+    /**
+     * Given a number of bits, return the number of 64-bit words needed to hold them.
+     *
+     * @param   bits    The number of bits.
+     * @return  The number of words, at least 1.
+     */
+    private static int wordsFor(int bits)
+    {
+        return Math.max(1, (bits + 63) >>> 6);
+    }
+}
@@ -0,0 +1,97 @@
+package com.tzeloonneoh;
+
+/**
+ * The EnrolledSubjects class is an immutable list of the subjects a student is enrolled in,
+ * together with their total credit points and the version of the enrolments. A Student object
+ * never changes its EnrolledSubjects object: every change to the enrolments replaces it with a new
+ * one of the next version, so that a list obtained from a student stays the same however the
+ * student is changed afterwards, and a change can be committed by comparing and setting the
+ * reference (see Student.updateEnrolments()).
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class EnrolledSubjects extends SubjectDatabase
+{
+    static final EnrolledSubjects NONE = new EnrolledSubjects(new SubjectDatabase(), 0);
+
+    private long version;
+    private int totalCredit;
+    private boolean frozen;
+
+    /**
+     * Construct the given version of the enrolments, holding the given subjects.
+     *
+     * @param   subjects    The enrolled subjects.
+     * @param   version     The version of the enrolments.
+     */
+    EnrolledSubjects(SubjectDatabase subjects, long version)
+    {
+        super(subjects.getSize());
+        for (int index = 0; index < subjects.getSize(); index++)
+        {
+            super.addSubject(subjects.getSubject(index));
+            totalCredit += subjects.getSubject(index).getCredit();
+        }
+        this.version = version;
+        frozen = true;
+    }
+
+    /**
+     * Refuse to add a subject, as the list cannot be changed.
+     *
+     * @param   newSubject  The Subject object to be added.
+     */
+    @Override
+    public void addSubject(Subject newSubject)
+    {
+        if (frozen)
+            throw new UnsupportedOperationException("Enrolments can only be changed through " +
+                    "the Student object");
+        super.addSubject(newSubject);
+    }
+
+    /**
+     * Refuse to empty the list, as the list cannot be changed.
+     */
+    @Override
+    public void clearSubjectDatabase()
+    {
+        throw new UnsupportedOperationException("Enrolments can only be changed through the " +
+                "Student object");
+    }
+
+    /**
+     * Return the total credit points of the enrolled subjects.
+     *
+     * @return  The total credit points.
+     */
+    public int getTotalCredit()
+    {
+        return totalCredit;
+    }
+
+    /**
+     * Return the version of the enrolments, i.e., the number of changes committed to the
+     * enrolments of the student since it was loaded or created.
+     *
+     * @return  The version of the enrolments.
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Refuse to remove a subject, as the list cannot be changed.
+     *
+     * @param   newSubject  The Subject object to be removed.
+     * @return  Never returns.
+     */
+    @Override
+    public boolean removeSubject(Subject newSubject)
+    {
+        throw new UnsupportedOperationException("Enrolments can only be changed through the " +
+                "Student object");
+    }
+}
@@ -0,0 +1,118 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The EnrolmentPlan class holds the combinations of wished-for subjects that a student can enrol
+ * in without exceeding the maximum credit, as worked out by an EnrolmentPlanner object: the best
+ * few combinations, best first, and the number of feasible combinations there are in total.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class EnrolmentPlan
+{
+    private int availableCredit;
+    private long feasibleCount;
+    private ArrayList<SubjectDatabase> options;
+    private ArrayList<Integer> optionCredits;
+
+    /**
+     * Construct an empty plan for a student with the given credit points left.
+     *
+     * @param   availableCredit The credit points the student can still enrol in.
+     * @param   feasibleCount   The number of feasible combinations.
+     */
+    EnrolmentPlan(int availableCredit, long feasibleCount)
+    {
+        this.availableCredit = availableCredit;
+        this.feasibleCount = feasibleCount;
+        options = new ArrayList<>();
+        optionCredits = new ArrayList<>();
+    }
+
+    /**
+     * Given a combination of subjects and its total credit, add it as the next best option.
+     *
+     * @param   subjects    The subjects of the combination.
+     * @param   totalCredit The total credit points of the combination.
+     */
+    void addOption(SubjectDatabase subjects, int totalCredit)
+    {
+        options.add(subjects);
+        optionCredits.add(totalCredit);
+    }
+
+    /**
+     * Print out the options of the plan, numbered from 1, best first.
+     */
+    public void displayEnrolmentPlanAsOptions()
+    {
+        for (int index = 0; index < options.size(); index++)
+        {
+            SubjectDatabase option = options.get(index);
+            StringBuilder line = new StringBuilder("(" + (index + 1) + ") ");
+            for (int subject = 0; subject < option.getSize(); subject++)
+            {
+                if (subject > 0)
+                    line.append(" + ");
+                line.append(option.getSubject(subject).getName());
+            }
+            line.append(" (").append(optionCredits.get(index)).append(" credits)");
+            Output.println(line.toString());
+        }
+    }
+
+    /**
+     * Return the credit points the student can still enrol in.
+     *
+     * @return  The remaining credit points.
+     */
+    public int getAvailableCredit()
+    {
+        return availableCredit;
+    }
+
+    /**
+     * Return the number of non-empty combinations of the wished-for subjects that stay within the
+     * maximum credit, including those that are not among the options.
+     *
+     * @return  The number of feasible combinations.
+     */
+    public long getFeasibleCount()
+    {
+        return feasibleCount;
+    }
+
+    /**
+     * Given an index, return the subjects of the option at that index (0 being the best).
+     *
+     * @param   index   The index of the option.
+     * @return  The subjects of the option.
+     */
+    public SubjectDatabase getOption(int index)
+    {
+        return options.get(index);
+    }
+
+    /**
+     * Given an index, return the total credit points of the option at that index.
+     *
+     * @param   index   The index of the option.
+     * @return  The total credit points of the option.
+     */
+    public int getOptionCredit(int index)
+    {
+        return optionCredits.get(index);
+    }
+
+    /**
+     * Return the number of options in the plan.
+     *
+     * @return  The number of options.
+     */
+    public int getSize()
+    {
+        return options.size();
+    }
+}
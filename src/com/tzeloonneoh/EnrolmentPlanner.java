@@ -0,0 +1,172 @@
+package com.tzeloonneoh;
+
+/**
+ * The EnrolmentPlanner class works out which combinations of a wish list of subjects a student can
+ * enrol in without exceeding the maximum credit, and ranks them, so that the user can pick one
+ * instead of guessing.
+ *
+ * The wished-for subjects the student is not enrolled in yet are numbered in wish-list order and
+ * each combination of them is a bitmask. The total credit of a combination is worked out from the
+ * combination it extends (the total of the combination plus the credit of the added subject), a
+ * dynamic programme over the bitmasks that is walked depth first with the subjects in ascending
+ * order of credit: as soon as a subject no longer fits into the remaining credit, neither does any
+ * subject after it, so only the feasible combinations are ever visited rather than all 2^n of
+ * them. Only the combinations to which no further wished-for subject can be added are offered,
+ * ranked by the total credit used and then by how early in the wish list their subjects are.
+ *
+ * An EnrolmentPlanner object keeps the state of the plan being worked out in its fields and must
+ * only be used by one thread at a time.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class EnrolmentPlanner
+{
+    /**
+     * The largest number of wished-for subjects considered; further subjects on the wish list are
+     * left out.
+     */
+    public static final int MAXIMUM_WISHES = 20;
+
+    private int maximumCredit;
+    private int[] sortedCredits;
+    private int[] sortedMasks;
+    private int candidateCount;
+    private int availableCredit;
+    private long feasibleCount;
+    private long[] best;
+    private int bestCount;
+
+    /**
+     * Construct a planner for the given maximum credit.
+     *
+     * @param   maximumCredit   The total credit points a student may be enrolled in.
+     */
+    public EnrolmentPlanner(int maximumCredit)
+    {
+        this.maximumCredit = maximumCredit;
+        sortedCredits = new int[MAXIMUM_WISHES];
+        sortedMasks = new int[MAXIMUM_WISHES];
+    }
+
+    /**
+     * Given a combination, its total credit, the position (in ascending order of credit) of the
+     * first subject that may still be added and the credit of the cheapest subject left out
+     * before that position, record the combinations extending it with subjects from that position
+     * onwards that fit into the available credit, and whether each of them can be extended any
+     * further.
+     *
+     * @param   mask            The combination, as a bitmask of wish-list indexes.
+     * @param   totalCredit     The total credit of the combination.
+     * @param   start           The position of the first subject that may be added.
+     * @param   cheapestSkipped The credit of the cheapest subject left out, or Integer.MAX_VALUE.
+     */
+    private void extend(int mask, int totalCredit, int start, int cheapestSkipped)
+    {
+        for (int position = start; position < candidateCount; position++)
+        {
+            int extendedCredit = totalCredit + sortedCredits[position];
+            if (extendedCredit > availableCredit)
+                return;
+            int extendedMask = mask | sortedMasks[position];
+            int skipped = (position > start ? Math.min(cheapestSkipped, sortedCredits[start]) :
+                    cheapestSkipped);
+            feasibleCount++;
+            int cheapestLeft = (position + 1 < candidateCount ?
+                    Math.min(skipped, sortedCredits[position + 1]) : skipped);
+            if (cheapestLeft > availableCredit - extendedCredit)
+                record(((long) extendedCredit << 32) |
+                        (Integer.reverse(extendedMask) & 0xffffffffL));
+            else
+                extend(extendedMask, extendedCredit, position + 1, skipped);
+        }
+    }
+
+    /**
+     * Given the subjects a student is enrolled in, a wish list of subjects in order of preference
+     * and a number of options, return a plan holding up to that number of the best combinations of
+     * wished-for subjects the student can enrol in, together with the number of feasible
+     * combinations. Subjects the student is already enrolled in, subjects whose credit alone
+     * exceeds the remaining credit and subjects with no free seat are left out of the wish list.
+     *
+     * @param   subjectsEnrolled    The subjects the student is enrolled in.
+     * @param   wishList            The subjects wished for, most wanted first.
+     * @param   limit               The largest number of options to return.
+     * @return  The plan.
+     */
+    public EnrolmentPlan plan(SubjectDatabase subjectsEnrolled, SubjectDatabase wishList,
+                              int limit)
+    {
+        int availableCredit = maximumCredit;
+        for (int index = 0; index < subjectsEnrolled.getSize(); index++)
+            availableCredit -= subjectsEnrolled.getSubject(index).getCredit();
+        SubjectDatabase wishes = new SubjectDatabase().union(wishList).difference(subjectsEnrolled);
+        Subject[] candidates = new Subject[Math.min(wishes.getSize(), MAXIMUM_WISHES)];
+        int[] credits = new int[candidates.length];
+        int candidateCount = 0;
+        for (int index = 0; index < wishes.getSize() && candidateCount < candidates.length;
+             index++)
+        {
+            Subject subject = wishes.getSubject(index);
+            if (subject.getCredit() <= availableCredit &&
+                    !(subject.hasCapacity() && subject.getSeatsTaken() >= subject.getCapacity()))
+            {
+                candidates[candidateCount] = subject;
+                credits[candidateCount++] = subject.getCredit();
+            }
+        }
+        if (candidateCount == 0)
+            return new EnrolmentPlan(availableCredit, 0);
+
+        for (int index = 0; index < candidateCount; index++)
+        {
+            int position = index;
+            while (position > 0 && sortedCredits[position - 1] > credits[index])
+            {
+                sortedCredits[position] = sortedCredits[position - 1];
+                sortedMasks[position] = sortedMasks[position - 1];
+                position--;
+            }
+            sortedCredits[position] = credits[index];
+            sortedMasks[position] = 1 << index;
+        }
+        this.candidateCount = candidateCount;
+        this.availableCredit = availableCredit;
+        feasibleCount = 0;
+        best = new long[Math.max(limit, 0)];
+        bestCount = 0;
+        extend(0, 0, 0, Integer.MAX_VALUE);
+
+        EnrolmentPlan plan = new EnrolmentPlan(availableCredit, feasibleCount);
+        for (int index = 0; index < bestCount; index++)
+        {
+            int mask = Integer.reverse((int) best[index]);
+            SubjectDatabase option = new SubjectDatabase(Integer.bitCount(mask));
+            for (int candidate = 0; candidate < candidateCount; candidate++)
+                if ((mask & (1 << candidate)) != 0)
+                    option.addSubject(candidates[candidate]);
+            plan.addOption(option, (int) (best[index] >>> 32));
+        }
+        return plan;
+    }
+
+    /**
+     * Given the rank of a combination that cannot be extended (its total credit in the upper 32
+     * bits and its bitmask reversed in the lower 32 bits, so that a higher rank is a better
+     * combination), keep it if it is among the best combinations found so far.
+     *
+     * @param   rank    The rank of the combination.
+     */
+    private void record(long rank)
+    {
+        if (bestCount == best.length && (bestCount == 0 || rank <= best[bestCount - 1]))
+            return;
+        int position = (bestCount < best.length ? bestCount++ : bestCount - 1);
+        while (position > 0 && best[position - 1] < rank)
+        {
+            best[position] = best[position - 1];
+            position--;
+        }
+        best[position] = rank;
+    }
+}
@@ -0,0 +1,155 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The EnrolmentResult class describes the outcome of an enrolment transaction on a student (see
+ * Student.updateEnrolments()): whether it was committed, left the enrolments unchanged or was
+ * rejected because the total credit would exceed the maximum or a subject has no free seat, the
+ * subjects actually enrolled in and unenrolled from (or found full), the enrolments it was decided
+ * on, how many times it had to be retried because another change to the student was committed
+ * first, and the students enrolled from waitlists in the seats it gave back.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class EnrolmentResult
+{
+    /**
+     * The Status enumeration lists the outcomes of an enrolment transaction.
+     */
+    public enum Status
+    {
+        COMMITTED,
+        UNCHANGED,
+        CREDIT_EXCEEDED,
+        SUBJECT_FULL
+    }
+
+    private Status status;
+    private SubjectDatabase subjectsEnrolled;
+    private SubjectDatabase subjectsUnenrolled;
+    private SubjectDatabase subjectsFull;
+    private EnrolledSubjects enrolments;
+    private int retries;
+    private ArrayList<Student> studentsPromoted;
+
+    /**
+     * Construct the outcome of an enrolment transaction.
+     *
+     * @param   status              The outcome.
+     * @param   subjectsEnrolled    The subjects enrolled in (empty unless committed).
+     * @param   subjectsUnenrolled  The subjects unenrolled from (empty unless committed).
+     * @param   subjectsFull        The subjects without a free seat (empty unless SUBJECT_FULL).
+     * @param   enrolments          The enrolments after the transaction if it was committed,
+     *                              otherwise the enrolments it was rejected on.
+     * @param   retries             The number of times the transaction was retried.
+     * @param   studentsPromoted    The students enrolled from waitlists.
+     */
+    EnrolmentResult(Status status, SubjectDatabase subjectsEnrolled,
+                    SubjectDatabase subjectsUnenrolled, SubjectDatabase subjectsFull,
+                    EnrolledSubjects enrolments, int retries, ArrayList<Student> studentsPromoted)
+    {
+        this.status = status;
+        this.subjectsEnrolled = subjectsEnrolled;
+        this.subjectsUnenrolled = subjectsUnenrolled;
+        this.subjectsFull = subjectsFull;
+        this.enrolments = enrolments;
+        this.retries = retries;
+        this.studentsPromoted = studentsPromoted;
+    }
+
+    /**
+     * Return the credit points the student could still enrol in, according to the enrolments the
+     * transaction was committed or rejected on.
+     *
+     * @return  The remaining credit points.
+     */
+    public int getAvailableCredit()
+    {
+        return Student.MAXIMUM_CREDIT - enrolments.getTotalCredit();
+    }
+
+    /**
+     * Return the enrolments after the transaction if it was committed, otherwise the enrolments
+     * it was rejected on or found unchanged.
+     *
+     * @return  The enrolments.
+     */
+    public EnrolledSubjects getEnrolments()
+    {
+        return enrolments;
+    }
+
+    /**
+     * Return the number of times the transaction was retried because another change to the
+     * student was committed first.
+     *
+     * @return  The number of retries.
+     */
+    public int getRetries()
+    {
+        return retries;
+    }
+
+    /**
+     * Return the outcome of the transaction.
+     *
+     * @return  The outcome.
+     */
+    public Status getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * Return the students who were enrolled from the waitlists of the subjects whose seats the
+     * transaction gave back (or took and gave back again before retrying).
+     *
+     * @return  The students enrolled from waitlists.
+     */
+    public ArrayList<Student> getStudentsPromoted()
+    {
+        return studentsPromoted;
+    }
+
+    /**
+     * Return the subjects the transaction enrolled the student in.
+     *
+     * @return  The subjects enrolled in, empty unless the transaction was committed.
+     */
+    public SubjectDatabase getSubjectsEnrolled()
+    {
+        return subjectsEnrolled;
+    }
+
+    /**
+     * Return the subjects that had no free seat when the transaction was rejected.
+     *
+     * @return  The full subjects, empty unless the transaction was rejected for them.
+     */
+    public SubjectDatabase getSubjectsFull()
+    {
+        return subjectsFull;
+    }
+
+    /**
+     * Return the subjects the transaction unenrolled the student from.
+     *
+     * @return  The subjects unenrolled from, empty unless the transaction was committed.
+     */
+    public SubjectDatabase getSubjectsUnenrolled()
+    {
+        return subjectsUnenrolled;
+    }
+
+    /**
+     * Check if the transaction was committed.
+     *
+     * @return  true    If the enrolments were changed, false otherwise.
+     */
+    public boolean isCommitted()
+    {
+        return status == Status.COMMITTED;
+    }
+}
@@ -0,0 +1,159 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The LoadReport class collects the errors found while loading a text file, so that a file with
+ * many malformed lines is reported once at the end rather than line by line. The report counts
+ * the lines read and rejected and the errors by type, and keeps the first few rejected lines as
+ * examples; the number of examples is bounded so that the report stays small however dirty the
+ * file is. The number of examples can be changed with the system property "loadReport.examples".
+ * The rejected lines themselves are all kept, unchanged, so that a file that is saved again can
+ * write them back rather than lose them; a note saying what becomes of them can be added to the
+ * report.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class LoadReport
+{
+    private static final int MAXIMUM_EXAMPLES = Integer.getInteger("loadReport.examples", 10);
+    private static final int MAXIMUM_EXAMPLE_LENGTH = 80;
+
+    private String textFilename;
+    private long linesRead;
+    private long linesRejected;
+    private EnumMap<ValidationResult, Long> errorCounts;
+    private ArrayList<String> examples;
+    private ArrayList<String> rejectedLines;
+    private String rejectedLinesNote;
+
+    /**
+     * Construct an empty report of loading the given file.
+     *
+     * @param   textFilename    The name of the file being loaded.
+     */
+    public LoadReport(String textFilename)
+    {
+        this.textFilename = textFilename;
+        errorCounts = new EnumMap<>(ValidationResult.class);
+        examples = new ArrayList<>();
+        rejectedLines = new ArrayList<>();
+    }
+
+    /**
+     * Given the errors found in a line, count the line as read and, if there is any error, as
+     * rejected.
+     *
+     * @param   lineNumber  The number of the line in the file, starting from 1.
+     * @param   line        The line of text.
+     * @param   errors      The errors found in the line, empty if the line is valid.
+     * @return  true    If the line is valid, false if it is rejected.
+     */
+    public boolean checkLine(int lineNumber, String line, EnumSet<ValidationResult> errors)
+    {
+        linesRead++;
+        if (errors.isEmpty())
+            return true;
+        linesRejected++;
+        rejectedLines.add(line);
+        StringBuilder example = new StringBuilder();
+        for (ValidationResult error : errors)
+        {
+            errorCounts.merge(error, 1L, Long::sum);
+            if (examples.size() < MAXIMUM_EXAMPLES)
+                example.append(example.length() == 0 ? "" : "; ").append(error.getDescription());
+        }
+        if (examples.size() < MAXIMUM_EXAMPLES)
+            examples.add("Line " + lineNumber + ": " + example + ": \"" +
+                    (line.length() > MAXIMUM_EXAMPLE_LENGTH ?
+                            line.substring(0, MAXIMUM_EXAMPLE_LENGTH) + "..." : line) + "\"");
+        return false;
+    }
+
+    /**
+     * Given a result code, return the number of rejected lines with that error.
+     *
+     * @param   error   The result code.
+     * @return  The number of lines with the error.
+     */
+    public long getErrorCount(ValidationResult error)
+    {
+        return errorCounts.getOrDefault(error, 0L);
+    }
+
+    /**
+     * Return the number of lines read.
+     *
+     * @return  The number of lines read.
+     */
+    public long getLinesRead()
+    {
+        return linesRead;
+    }
+
+    /**
+     * Return the number of lines rejected because of an error.
+     *
+     * @return  The number of lines rejected.
+     */
+    public long getLinesRejected()
+    {
+        return linesRejected;
+    }
+
+    /**
+     * Return the rejected lines, unchanged and in the order they were read.
+     *
+     * @return  The rejected lines.
+     */
+    public ArrayList<String> getRejectedLines()
+    {
+        return rejectedLines;
+    }
+
+    /**
+     * Check if any line has been rejected.
+     *
+     * @return  true    If at least one line has an error, false otherwise.
+     */
+    public boolean hasErrors()
+    {
+        return linesRejected > 0;
+    }
+
+    /**
+     * Given a note saying what becomes of the rejected lines, add it to the end of the report.
+     *
+     * @param   note    The note on the rejected lines.
+     */
+    public void setRejectedLinesNote(String note)
+    {
+        rejectedLinesNote = note;
+    }
+
+    /**
+     * Return the report as a string: the numbers of lines read and rejected, the number of lines
+     * with each error, the first rejected lines and the note on the rejected lines, if any.
+     *
+     * @return  The report.
+     */
+    public String toString()
+    {
+        StringBuilder report = new StringBuilder();
+        report.append(textFilename).append(": ").append(linesRead).append(" lines read, ").
+                append(linesRejected).append(" rejected");
+        for (Map.Entry<ValidationResult, Long> errorCount : errorCounts.entrySet())
+            report.append("\n  ").append(errorCount.getKey().getDescription()).append(": ").
+                    append(errorCount.getValue());
+        if (!examples.isEmpty())
+        {
+            report.append("\nFirst rejected lines:");
+            for (String example : examples)
+                report.append("\n  ").append(example);
+        }
+        if (rejectedLinesNote != null)
+            report.append("\n").append(rejectedLinesNote);
+        return report.toString();
+    }
+}
@@ -0,0 +1,180 @@
+package com.tzeloonneoh;
+
+import java.lang.management.*;
+import java.util.*;
+import javax.management.*;
+
+/**
+ * The MetricsRegistry class keeps the call counts and latency histograms of the operations of the
+ * School Management System. An operation is timed by taking a start time from startTimer() and
+ * passing it to record() once the operation completes. Recording can be switched off with the
+ * system property "metrics.enabled=false", in which case the timer calls cost nothing.
+ *
+ * The metrics are exposed as the JMX MBean "com.tzeloonneoh:type=SchoolMetrics" and can be
+ * printed from the main menu.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class MetricsRegistry implements SchoolMetricsMXBean
+{
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("metrics.enabled", "true"));
+    private static final String OBJECT_NAME = "com.tzeloonneoh:type=SchoolMetrics";
+    private static final EnumMap<Operation, OperationMetrics> METRICS = createMetrics();
+
+    /**
+     * Create the (empty) metrics of every operation.
+     *
+     * @return  The metrics by operation.
+     */
+    private static EnumMap<Operation, OperationMetrics> createMetrics()
+    {
+        EnumMap<Operation, OperationMetrics> metrics = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values())
+            metrics.put(operation, new OperationMetrics());
+        return metrics;
+    }
+
+    /**
+     * Return the number of calls of each operation.
+     *
+     * @return  The number of calls by operation.
+     */
+    public Map<String, Long> getCounts()
+    {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Operation operation : Operation.values())
+            counts.put(operation.name(), METRICS.get(operation).getCount());
+        return counts;
+    }
+
+    /**
+     * Return the mean latency of each operation.
+     *
+     * @return  The mean latency in microseconds by operation.
+     */
+    public Map<String, Double> getMeanLatencies()
+    {
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        for (Operation operation : Operation.values())
+            latencies.put(operation.name(), METRICS.get(operation).getMeanNanos() / 1000);
+        return latencies;
+    }
+
+    /**
+     * Given an operation, return its metrics.
+     *
+     * @param   operation   The operation.
+     * @return  The metrics of the operation.
+     */
+    public static OperationMetrics getMetrics(Operation operation)
+    {
+        return METRICS.get(operation);
+    }
+
+    /**
+     * Return the 99th percentile latency of each operation.
+     *
+     * @return  The 99th percentile latency in microseconds by operation.
+     */
+    public Map<String, Double> getP99Latencies()
+    {
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        for (Operation operation : Operation.values())
+            latencies.put(operation.name(),
+                    METRICS.get(operation).getPercentileNanos(99) / 1000.0);
+        return latencies;
+    }
+
+    /**
+     * Return the metrics of all operations that have been called as a printable report.
+     *
+     * @return  The metrics report.
+     */
+    public String getReport()
+    {
+        return report();
+    }
+
+    /**
+     * Record a completed call of an operation.
+     *
+     * @param   operation   The operation that has completed.
+     * @param   startTime   The time returned by startTimer() when the operation started.
+     */
+    public static void record(Operation operation, long startTime)
+    {
+        if (ENABLED)
+            METRICS.get(operation).record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Register the metrics as a JMX MBean of the platform MBean server, unless it has already
+     * been registered.
+     */
+    public static void registerMBean()
+    {
+        if (!ENABLED)
+            return;
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name))
+                server.registerMBean(new MetricsRegistry(), name);
+        }
+        catch (InstanceAlreadyExistsException e)
+        {
+            // Registered concurrently by another School Management System in this process.
+        }
+        catch (JMException e)
+        {
+            Output.println("Metrics could not be registered with JMX!");
+        }
+    }
+
+    /**
+     * Return the metrics of all operations that have been called as a printable report.
+     *
+     * @return  The metrics report.
+     */
+    public static String report()
+    {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-26s %10s %12s %12s %12s %12s%n", "Operation", "Count",
+                "Mean (us)", "p50 (us)", "p99 (us)", "Max (us)"));
+        for (Operation operation : Operation.values())
+        {
+            OperationMetrics metrics = METRICS.get(operation);
+            if (metrics.getCount() > 0)
+                report.append(String.format("%-26s %10d %12.1f %12.1f %12.1f %12.1f%n",
+                        operation.getDescription(),
+                        metrics.getCount(),
+                        metrics.getMeanNanos() / 1000,
+                        metrics.getPercentileNanos(50) / 1000.0,
+                        metrics.getPercentileNanos(99) / 1000.0,
+                        metrics.getMaxNanos() / 1000.0));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Discard all the recorded metrics.
+     */
+    public void reset()
+    {
+        for (OperationMetrics metrics : METRICS.values())
+            metrics.reset();
+    }
+
+    /**
+     * Return the current time to be passed to record() when the timed operation completes.
+     *
+     * @return  The start time of the operation, or 0 if metrics are switched off.
+     */
+    public static long startTimer()
+    {
+        return (ENABLED ? System.nanoTime() : 0);
+    }
+}
@@ -0,0 +1,143 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The NameDictionary class stores each distinct word (token) of the student names once and
+ * represents a name as a short array of token IDs, so that students sharing common first and
+ * family names share the same String objects. Tokens are never removed, since a token is only
+ * added once per distinct word and is likely to be used again.
+ *
+ * Encoding and looking up a name are synchronized, but decoding a name takes no lock: the array of
+ * tokens is replaced by a larger copy when it is full and published through a volatile field, and
+ * the token of an ID is written before encode() returns the ID, so that a thread that can see the
+ * token IDs of a student can also see their tokens.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class NameDictionary
+{
+    private HashMap<String, Integer> tokenIds;
+    private volatile String[] tokens;
+    private int size;
+
+    /**
+     * Construct an empty dictionary.
+     */
+    public NameDictionary()
+    {
+        tokenIds = new HashMap<>();
+        tokens = new String[256];
+    }
+
+    /**
+     * Given the token IDs of a name and a StringBuilder object, append the name to it without
+     * creating a String object for the name.
+     *
+     * @param   tokenIds    The token IDs of the name.
+     * @param   name        The StringBuilder object the name is appended to.
+     */
+    public void appendName(int[] tokenIds, StringBuilder name)
+    {
+        String[] currentTokens = tokens;
+        for (int index = 0; index < tokenIds.length; index++)
+        {
+            if (index > 0)
+                name.append(' ');
+            name.append(currentTokens[tokenIds[index]]);
+        }
+    }
+
+    /**
+     * Given the token IDs of a name, return the name, i.e., the tokens separated by single spaces.
+     *
+     * @param   tokenIds    The token IDs of the name.
+     * @return  The name.
+     */
+    public String decode(int[] tokenIds)
+    {
+        String[] currentTokens = tokens;
+        if (tokenIds.length == 1)
+            return currentTokens[tokenIds[0]];
+        int length = tokenIds.length - 1;
+        for (int tokenId : tokenIds)
+            length += currentTokens[tokenId].length();
+        StringBuilder name = new StringBuilder(length);
+        for (int index = 0; index < tokenIds.length; index++)
+        {
+            if (index > 0)
+                name.append(' ');
+            name.append(currentTokens[tokenIds[index]]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Given a formatted name (words separated by single spaces), add the words not yet in the
+     * dictionary and return the token IDs of the name.
+     *
+     * @param   name    The formatted name.
+     * @return  The token IDs of the name.
+     */
+    public synchronized int[] encode(String name)
+    {
+        String[] words = name.split(" ");
+        int[] nameTokenIds = new int[words.length];
+        for (int index = 0; index < words.length; index++)
+        {
+            Integer tokenId = tokenIds.get(words[index]);
+            if (tokenId == null)
+            {
+                if (size == tokens.length)
+                    tokens = Arrays.copyOf(tokens, size * 2);
+                String token = words[index];
+                tokens[size] = token;
+                tokenId = size++;
+                tokenIds.put(token, tokenId);
+            }
+            nameTokenIds[index] = tokenId;
+        }
+        return nameTokenIds;
+    }
+
+    /**
+     * Return the number of distinct tokens in the dictionary.
+     *
+     * @return  The number of tokens.
+     */
+    public synchronized int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Given a name typed by the user, return the token IDs that a student with the same name
+     * (ignoring case) has, without adding any token to the dictionary. Each word of the name is
+     * formatted the way Student.setName() formats it before it is looked up.
+     *
+     * @param   inputName   The name to be looked up.
+     * @return  The token IDs of the name, or null if no student can have the name.
+     */
+    public int[] lookup(String inputName)
+    {
+        String[] words = inputName.split(" ", -1);
+        int[] nameTokenIds = new int[words.length];
+        for (int index = 0; index < words.length; index++)
+        {
+            String word = words[index];
+            if (word.isEmpty())
+                return null;
+            Integer tokenId;
+            synchronized (this)
+            {
+                tokenId = tokenIds.get(word.substring(0, 1).toUpperCase() +
+                        word.substring(1).toLowerCase());
+            }
+            if (tokenId == null)
+                return null;
+            nameTokenIds[index] = tokenId;
+        }
+        return nameTokenIds;
+    }
+}
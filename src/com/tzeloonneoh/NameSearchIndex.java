@@ -0,0 +1,287 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * The NameSearchIndex class finds students by a possibly partial or mistyped name. Each distinct
+ * name is stored once with the students who have it, and each distinct word of the names is kept
+ * in a sorted map (for prefix search) and in an index of the trigrams (three-letter sequences) of
+ * the words (for fuzzy search). A search word matches a word of a name exactly, as a prefix, or
+ * within an edit distance of 1 (words of up to 4 letters) or 2 (longer words), counting a swap of
+ * two adjacent letters as one edit. Only the words sharing enough trigrams with the search word
+ * are compared letter by letter, so a search looks at the vocabulary of names rather than at the
+ * students.
+ *
+ * A name matches a search if every search word matches one of its words. Matching names are
+ * ranked by the sum of the costs of their matches (exact 0, prefix 1, fuzzy 1 + the edit
+ * distance), then by name. The names must not be changed while the students are indexed.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class NameSearchIndex
+{
+    private static final int PREFIX_COST = 1;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private HashMap<String, NameEntry> names;
+    private TreeMap<String, ArrayList<NameEntry>> words;
+    private HashMap<String, List<String>> trigrams;
+
+    /**
+     * The NameEntry class holds a distinct name and the students who have it.
+     */
+    private static class NameEntry
+    {
+        private String name;
+        private ArrayList<Student> students = new ArrayList<>(1);
+
+        /**
+         * Construct the entry of a name.
+         *
+         * @param   name    The name as shown.
+         */
+        private NameEntry(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Construct an empty index.
+     */
+    public NameSearchIndex()
+    {
+        names = new HashMap<>();
+        words = new TreeMap<>();
+        trigrams = new HashMap<>();
+    }
+
+    /**
+     * Add a student to the index.
+     *
+     * @param   student The student to be added.
+     */
+    public void addStudent(Student student)
+    {
+        String key = student.getName().toLowerCase();
+        NameEntry entry = names.get(key);
+        if (entry == null)
+        {
+            entry = new NameEntry(student.getName());
+            names.put(key, entry);
+            for (String word : splitWords(key))
+            {
+                ArrayList<NameEntry> entries = words.get(word);
+                if (entries == null)
+                {
+                    entries = new ArrayList<>(1);
+                    words.put(word, entries);
+                    for (String trigram : trigramsOf(word))
+                        trigrams.computeIfAbsent(trigram, t -> new ArrayList<>()).add(word);
+                }
+                if (!entries.contains(entry))
+                    entries.add(entry);
+            }
+        }
+        entry.students.add(student);
+    }
+
+    /**
+     * Given two words and the largest distance of interest, return the edit distance between
+     * them, counting an insertion, deletion, substitution or swap of adjacent letters as one edit.
+     *
+     * @param   first       The first word.
+     * @param   second      The second word.
+     * @param   maxDistance The largest distance of interest.
+     * @return  The edit distance, or maxDistance + 1 if it is larger than maxDistance.
+     */
+    static int editDistance(String first, String second, int maxDistance)
+    {
+        if (Math.abs(first.length() - second.length()) > maxDistance)
+            return maxDistance + 1;
+        int[] previousRow = new int[second.length() + 1];
+        int[] row = new int[second.length() + 1];
+        int[] nextRow = new int[second.length() + 1];
+        for (int column = 0; column <= second.length(); column++)
+            row[column] = column;
+        for (int line = 1; line <= first.length(); line++)
+        {
+            nextRow[0] = line;
+            int rowMinimum = line;
+            for (int column = 1; column <= second.length(); column++)
+            {
+                int cost = (first.charAt(line - 1) == second.charAt(column - 1) ? 0 : 1);
+                int distance = Math.min(Math.min(nextRow[column - 1] + 1, row[column] + 1),
+                        row[column - 1] + cost);
+                if (line > 1 && column > 1 &&
+                        first.charAt(line - 1) == second.charAt(column - 2) &&
+                        first.charAt(line - 2) == second.charAt(column - 1))
+                    distance = Math.min(distance, previousRow[column - 2] + 1);
+                nextRow[column] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > maxDistance)
+                return maxDistance + 1;
+            int[] oldest = previousRow;
+            previousRow = row;
+            row = nextRow;
+            nextRow = oldest;
+        }
+        return Math.min(row[second.length()], maxDistance + 1);
+    }
+
+    /**
+     * Given a search word, return the indexed words it matches with the cost of each match.
+     *
+     * @param   searchWord  The search word in lower case.
+     * @return  The matching words and their costs.
+     */
+    private HashMap<String, Integer> matchWord(String searchWord)
+    {
+        HashMap<String, Integer> matches = new HashMap<>();
+        for (String word : words.subMap(searchWord, searchWord + Character.MAX_VALUE).keySet())
+            matches.put(word, (word.length() == searchWord.length() ? 0 : PREFIX_COST));
+
+        int maxDistance = (searchWord.length() <= 4 ? 1 : 2);
+        List<String> searchTrigrams = trigramsOf(searchWord);
+        int minimumShared = Math.max(1, searchTrigrams.size() - 3 * maxDistance);
+        HashMap<String, Integer> shared = new HashMap<>();
+        for (String trigram : searchTrigrams)
+            for (String word : trigrams.getOrDefault(trigram, Collections.emptyList()))
+                shared.merge(word, 1, Integer::sum);
+        for (Map.Entry<String, Integer> candidate : shared.entrySet())
+        {
+            String word = candidate.getKey();
+            if (candidate.getValue() < minimumShared || matches.containsKey(word))
+                continue;
+            int distance = editDistance(searchWord, word, maxDistance);
+            if (distance <= maxDistance)
+                matches.put(word, PREFIX_COST + distance);
+        }
+        return matches;
+    }
+
+    /**
+     * Remove a student from the index.
+     *
+     * @param   student The student to be removed.
+     */
+    public void removeStudent(Student student)
+    {
+        NameEntry entry = names.get(student.getName().toLowerCase());
+        if (entry != null)
+            entry.students.remove(student);
+    }
+
+    /**
+     * Given a (partial or mistyped) name and a limit, return the students whose names match best.
+     *
+     * @param   searchName  The name to search for.
+     * @param   limit       The maximum number of students to be returned.
+     * @return  The matching students, best match first.
+     */
+    public StudentDatabase search(String searchName, int limit)
+    {
+        StudentDatabase results = new StudentDatabase();
+        List<String> searchWords = splitWords(searchName.toLowerCase());
+        if (searchWords.isEmpty() || limit < 1)
+            return results;
+
+        List<HashMap<String, Integer>> wordMatches = new ArrayList<>();
+        for (String searchWord : searchWords)
+            wordMatches.add(matchWord(searchWord));
+        wordMatches.sort(Comparator.comparingInt(this::countNames));
+
+        HashMap<NameEntry, Integer> costs = new HashMap<>();
+        for (Map.Entry<String, Integer> match : wordMatches.get(0).entrySet())
+            for (NameEntry entry : words.get(match.getKey()))
+                costs.merge(entry, match.getValue(), Math::min);
+        for (int index = 1; index < wordMatches.size() && !costs.isEmpty(); index++)
+        {
+            HashMap<NameEntry, Integer> nextCosts = new HashMap<>();
+            for (Map.Entry<String, Integer> match : wordMatches.get(index).entrySet())
+                for (NameEntry entry : words.get(match.getKey()))
+                {
+                    Integer cost = costs.get(entry);
+                    if (cost != null)
+                        nextCosts.merge(entry, cost + match.getValue(), Math::min);
+                }
+            costs = nextCosts;
+        }
+
+        Comparator<Map.Entry<NameEntry, Integer>> rank = Comparator.comparing(
+                (Map.Entry<NameEntry, Integer> ranking) -> ranking.getValue()).
+                thenComparing(ranking -> ranking.getKey().name);
+        PriorityQueue<Map.Entry<NameEntry, Integer>> best =
+                new PriorityQueue<>(limit + 1, rank.reversed());
+        for (Map.Entry<NameEntry, Integer> ranking : costs.entrySet())
+        {
+            if (ranking.getKey().students.isEmpty())
+                continue;
+            if (best.size() < limit)
+                best.add(ranking);
+            else if (rank.compare(ranking, best.peek()) < 0)
+            {
+                best.poll();
+                best.add(ranking);
+            }
+        }
+        ArrayList<Map.Entry<NameEntry, Integer>> ranked = new ArrayList<>(best);
+        ranked.sort(rank);
+        for (Map.Entry<NameEntry, Integer> ranking : ranked)
+            for (Student student : ranking.getKey().students)
+            {
+                if (results.getSize() >= limit)
+                    return results;
+                results.addStudent(student);
+            }
+        return results;
+    }
+
+    /**
+     * Given the matches of a search word, return the number of names containing any of the
+     * matching words.
+     *
+     * @param   matches The matching words.
+     * @return  The number of names to be considered.
+     */
+    private int countNames(HashMap<String, Integer> matches)
+    {
+        int count = 0;
+        for (String word : matches.keySet())
+            count += words.get(word).size();
+        return count;
+    }
+
+    /**
+     * Given a name in lower case, return its words.
+     *
+     * @param   name    The name.
+     * @return  The words of the name.
+     */
+    private static List<String> splitWords(String name)
+    {
+        List<String> nameWords = new ArrayList<>();
+        for (String word : WHITESPACE.split(name.trim()))
+            if (!word.isEmpty())
+                nameWords.add(word);
+        return nameWords;
+    }
+
+    /**
+     * Given a word, return its trigrams, with the word padded with '$' at both ends.
+     *
+     * @param   word    The word.
+     * @return  The trigrams of the word.
+     */
+    private static List<String> trigramsOf(String word)
+    {
+        String padded = "$" + word + "$";
+        List<String> wordTrigrams = new ArrayList<>();
+        for (int index = 0; index + 3 <= padded.length(); index++)
+            wordTrigrams.add(padded.substring(index, index + 3));
+        return wordTrigrams;
+    }
+}
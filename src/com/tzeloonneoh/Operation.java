@@ -0,0 +1,55 @@
+package com.tzeloonneoh;
+
+/**
+ * The Operation enumeration lists the operations of the School Management System that are timed
+ * by the MetricsRegistry class.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public enum Operation
+{
+    LOOKUP_BY_IDENTITY_NUMBER("Lookup by identity number"),
+    LOOKUP_BY_NAME("Lookup by name"),
+    SEARCH_BY_NAME("Search by name"),
+    IDENTITY_NUMBER_IN_USE("Identity number in use"),
+    STUDENT_ON_DATABASE("Student on database"),
+    FILTER_BY_SUBJECTS("Filter by subjects"),
+    FILTER_BY_SUSPENSION("Filter by suspension"),
+    FILTER_NOT_ENROLLED("Filter not enrolled"),
+    ADD_STUDENT("Add student"),
+    REMOVE_STUDENT("Remove student"),
+    SUSPEND("Suspend/unsuspend"),
+    ENROL("Enrol"),
+    UNENROL("Unenrol"),
+    BULK_UPDATE("Bulk update"),
+    RUN_QUERY("Run query"),
+    LOAD_SUBJECTS("Load subjects"),
+    RELOAD_SUBJECTS("Reload subjects"),
+    LOAD_STUDENTS("Load students"),
+    SAVE_STUDENTS("Save students"),
+    EXPORT_STUDENTS("Export students"),
+    APPLY_JOURNAL("Apply journal batch");
+
+    private final String description;
+
+    /**
+     * Construct an operation with the description shown in the metrics report.
+     *
+     * @param   description The description of the operation.
+     */
+    Operation(String description)
+    {
+        this.description = description;
+    }
+
+    /**
+     * Return the description of the operation.
+     *
+     * @return  The description of the operation.
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tzeloonneoh;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * The OperationMetrics class counts the calls of a single operation and keeps a histogram of their
+ * latencies. The histogram has one bucket per power of two nanoseconds, so recording a latency is
+ * two striped (LongAdder) increments and percentiles are accurate to within a factor of two.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class OperationMetrics
+{
+    private static final int BUCKETS = 64;
+
+    private LongAdder totalNanos;
+    private LongAccumulator maxNanos;
+    private LongAdder[] histogram;
+
+    /**
+     * Construct the metrics of an operation that has not been called yet.
+     */
+    public OperationMetrics()
+    {
+        totalNanos = new LongAdder();
+        maxNanos = new LongAccumulator(Math::max, 0);
+        histogram = new LongAdder[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+            histogram[bucket] = new LongAdder();
+    }
+
+    /**
+     * Return the number of recorded calls.
+     *
+     * @return  The number of calls.
+     */
+    public long getCount()
+    {
+        long calls = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+            calls += histogram[bucket].sum();
+        return calls;
+    }
+
+    /**
+     * Return the longest recorded latency.
+     *
+     * @return  The maximum latency in nanoseconds.
+     */
+    public long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    /**
+     * Return the average of the recorded latencies.
+     *
+     * @return  The mean latency in nanoseconds, or 0 if no call has been recorded.
+     */
+    public double getMeanNanos()
+    {
+        long calls = getCount();
+        return (calls == 0 ? 0 : (double) totalNanos.sum() / calls);
+    }
+
+    /**
+     * Given a percentile, return the upper bound of the histogram bucket in which that percentile
+     * of the recorded latencies falls.
+     *
+     * @param   percentile  The percentile between 0 and 100.
+     * @return  The latency in nanoseconds at the percentile, or 0 if no call has been recorded.
+     */
+    public long getPercentileNanos(double percentile)
+    {
+        long rank = (long) Math.ceil(getCount() * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            seen += histogram[bucket].sum();
+            if (seen >= rank && seen > 0)
+                return Math.min((bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket),
+                        getMaxNanos());
+        }
+        return 0;
+    }
+
+    /**
+     * Record a call of the operation.
+     *
+     * @param   nanos   The latency of the call in nanoseconds.
+     */
+    public void record(long nanos)
+    {
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram[64 - Long.numberOfLeadingZeros(Math.max(nanos, 0))].increment();
+    }
+
+    /**
+     * Discard all the recorded calls.
+     */
+    public void reset()
+    {
+        totalNanos.reset();
+        maxNanos.reset();
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+            histogram[bucket].reset();
+    }
+}
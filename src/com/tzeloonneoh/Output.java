@@ -0,0 +1,89 @@
+package com.tzeloonneoh;
+
+/**
+ * The Output class is the single OutputSink object through which all the text displayed by the
+ * School Management System is printed, so that the text of every class comes out in the order in
+ * which it was printed. By default the text is printed to System.out by an AsyncOutputSink object
+ * with a buffer of 4096 slots; the system property "output.async=false" prints to System.out
+ * synchronously instead and "output.bufferSize" changes the size of the buffer. Another sink,
+ * e.g., one collecting the text of a batch job, can be installed with setSink().
+ *
+ * The sink must be flushed before waiting for user input, so that the prompt is displayed, and is
+ * closed when the JVM shuts down so that no text is lost.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class Output
+{
+    private static volatile OutputSink sink = createSink();
+
+    static
+    {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> sink.close(),
+                "output-sink-shutdown"));
+    }
+
+    /**
+     * Create the sink selected by the system properties.
+     *
+     * @return  The sink printing to System.out.
+     */
+    private static OutputSink createSink()
+    {
+        if (!Boolean.parseBoolean(System.getProperty("output.async", "true")))
+            return new PrintStreamOutputSink(System.out);
+        return new AsyncOutputSink(System.out, Integer.getInteger("output.bufferSize", 4096));
+    }
+
+    /**
+     * Return once all the text printed so far has been written.
+     */
+    public static void flush()
+    {
+        sink.flush();
+    }
+
+    /**
+     * Return the sink through which the text is printed.
+     *
+     * @return  The current sink.
+     */
+    public static OutputSink getSink()
+    {
+        return sink;
+    }
+
+    /**
+     * Given a string, print it.
+     *
+     * @param   text    The text to be printed.
+     */
+    public static void print(String text)
+    {
+        sink.print(text);
+    }
+
+    /**
+     * Given a string, print it followed by a line separator.
+     *
+     * @param   line    The line to be printed.
+     */
+    public static void println(String line)
+    {
+        sink.println(line);
+    }
+
+    /**
+     * Given a sink, print all text through it from now on. The text printed through the previous
+     * sink is written first and the previous sink is closed.
+     *
+     * @param   newSink The sink through which the text is to be printed.
+     */
+    public static void setSink(OutputSink newSink)
+    {
+        OutputSink previousSink = sink;
+        sink = newSink;
+        previousSink.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.tzeloonneoh;
+
+/**
+ * The OutputSink interface is implemented by the destinations of the text displayed by the School
+ * Management System, so that the domain classes do not depend on how, or how fast, the text
+ * reaches the console (or anywhere else). Text printed by one thread is written in the order in
+ * which it was printed.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public interface OutputSink
+{
+    /**
+     * Write any text still held by the sink and release its resources. Text printed afterwards is
+     * written straight away.
+     */
+    void close();
+
+    /**
+     * Return once all the text printed so far has been written to its destination, e.g., before
+     * waiting for user input after a prompt.
+     */
+    void flush();
+
+    /**
+     * Given a string, print it.
+     *
+     * @param   text    The text to be printed.
+     */
+    void print(String text);
+
+    /**
+     * Given a string, print it followed by a line separator.
+     *
+     * @param   line    The line to be printed.
+     */
+    void println(String line);
+}
@@ -0,0 +1,145 @@
+package com.tzeloonneoh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The PendingEnrolments class keeps the raw enrolment fields (the comma-separated names and credit
+ * points of the enrolled subjects) of the students loaded from a "students.txt" file until they
+ * are first needed. The fields of all the students are packed one after another into a single
+ * array of bytes, so that a student only holds its offset into the array instead of a list of
+ * subjects, and no subject is looked up while the file is being loaded. A field is decoded against
+ * the list of all subjects offered at the school at the time of loading; the list is copied, so
+ * that subjects added when the subjects file is reloaded later are not looked up, just as they are
+ * not for students loaded eagerly.
+ *
+ * Fields are appended while a file is loaded by a single thread; once loaded, fields can be
+ * decoded by any number of threads.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class PendingEnrolments
+{
+    private static final byte END_OF_FIELD = '\n';
+
+    private SubjectDatabase allSubjects;
+    private boolean subjectsWithCapacity;
+    private byte[] fields;
+    private int size;
+
+    /**
+     * Construct an empty store of enrolment fields, to be decoded against the given subjects.
+     *
+     * @param   allSubjects The list of all subjects offered at the school.
+     */
+    public PendingEnrolments(SubjectDatabase allSubjects)
+    {
+        this.allSubjects = new SubjectDatabase(allSubjects.getSize());
+        fields = new byte[1024];
+        for (int index = 0; index < allSubjects.getSize(); index++)
+        {
+            this.allSubjects.addSubject(allSubjects.getSubject(index));
+            if (allSubjects.getSubject(index).hasCapacity())
+                subjectsWithCapacity = true;
+        }
+    }
+
+    /**
+     * Given a line of "students.txt" and the position at which its enrolment field starts, append
+     * the field to the store and return its offset.
+     *
+     * @param   line        The line of text representing a student.
+     * @param   beginIndex  The index of the first character of the enrolment field in the line.
+     * @return  The offset of the field, to be passed to decode().
+     */
+    public int append(String line, int beginIndex)
+    {
+        int offset = size;
+        int length = line.length() - beginIndex;
+        ensureCapacity(length + 1);
+        for (int index = beginIndex; index < line.length(); index++)
+        {
+            char character = line.charAt(index);
+            if (character >= 0x80)
+            {
+                size = offset;
+                byte[] encoded = line.substring(beginIndex).getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(encoded.length + 1);
+                System.arraycopy(encoded, 0, fields, size, encoded.length);
+                size += encoded.length;
+                break;
+            }
+            fields[size++] = (byte) character;
+        }
+        fields[size++] = END_OF_FIELD;
+        return offset;
+    }
+
+    /**
+     * Given the offset of an enrolment field, look up each subject name in the field among the
+     * subjects offered at the school and return the list of the subjects found. Subjects no longer
+     * offered are left out.
+     *
+     * @param   offset  The offset of the field returned by append().
+     * @return  The list of enrolled subjects.
+     */
+    public SubjectDatabase decode(int offset)
+    {
+        int end = offset;
+        while (fields[end] != END_OF_FIELD)
+            end++;
+        String[] splitField = new String(fields, offset, end - offset, StandardCharsets.UTF_8).
+                split(",");
+        SubjectDatabase subjectsEnrolled = new SubjectDatabase();
+        for (int index1 = 0; index1 < splitField.length; index1+=2)
+        {
+            for (int index2 = 0; index2 < allSubjects.getSize(); index2++)
+                if (splitField[index1].equals(allSubjects.getSubject(index2).getName()))
+                    subjectsEnrolled.addSubject(allSubjects.getSubject(index2));
+        }
+        return subjectsEnrolled;
+    }
+
+    /**
+     * Given a number of bytes to be appended, grow the array of fields if it cannot hold them.
+     *
+     * @param   length  The number of bytes to be appended.
+     */
+    private void ensureCapacity(int length)
+    {
+        if (size + length > fields.length)
+            fields = Arrays.copyOf(fields, Math.max(fields.length * 2, size + length));
+    }
+
+    /**
+     * Return the number of bytes held by the store.
+     *
+     * @return  The total length of the stored fields.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Check if any of the subjects offered at the school has a capacity, in which case the
+     * enrolments must be decoded when a student is put on the list of all students so that the
+     * seats taken can be counted.
+     *
+     * @return  true    If a subject has a capacity, false otherwise.
+     */
+    public boolean hasSubjectsWithCapacity()
+    {
+        return subjectsWithCapacity;
+    }
+
+    /**
+     * Release the unused part of the array of fields once the file has been loaded.
+     */
+    public void trimToSize()
+    {
+        if (size < fields.length)
+            fields = Arrays.copyOf(fields, size);
+    }
+}
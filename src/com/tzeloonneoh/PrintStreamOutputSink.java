@@ -0,0 +1,61 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+
+/**
+ * The PrintStreamOutputSink class is an OutputSink that writes the text to a PrintStream object
+ * (e.g., System.out) as soon as it is printed, in the thread that prints it.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class PrintStreamOutputSink implements OutputSink
+{
+    private PrintStream out;
+
+    /**
+     * Construct a sink writing to the given stream.
+     *
+     * @param   out The stream to write to.
+     */
+    public PrintStreamOutputSink(PrintStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Flush the stream. The stream itself is left open.
+     */
+    public void close()
+    {
+        out.flush();
+    }
+
+    /**
+     * Flush the stream.
+     */
+    public void flush()
+    {
+        out.flush();
+    }
+
+    /**
+     * Given a string, write it to the stream.
+     *
+     * @param   text    The text to be printed.
+     */
+    public void print(String text)
+    {
+        out.print(text);
+    }
+
+    /**
+     * Given a string, write it to the stream followed by a line separator.
+     *
+     * @param   line    The line to be printed.
+     */
+    public void println(String line)
+    {
+        out.println(line);
+    }
+}
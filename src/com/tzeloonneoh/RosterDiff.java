@@ -0,0 +1,587 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The RosterDiff class works out what has changed between two students files, e.g. the rosters of
+ * two terms: the students added and removed and, for the students in both files, the changes to
+ * their suspension status and enrolled subjects. Students are matched by identity number; students
+ * sharing an identity number are matched in the order in which they appear in each file.
+ *
+ * Both files are sorted by identity number with an external merge sort and then compared in a
+ * single pass, like a merge join, so the comparison takes O(n log n) time and only a bounded
+ * number of lines is ever held in memory. A file is read in runs of "rosterDiff.runLines" lines
+ * (default 100000); each run is sorted in memory and written to a temporary file, and the sorted
+ * runs are merged, at most "rosterDiff.mergeWidth" (default 64) at a time, while the files are
+ * compared. Files larger than memory can therefore be compared, given enough temporary disk
+ * space. Lines without a numeric identity number are skipped.
+ *
+ * The difference is written as a change batch in the format of a ChangeJournal file: a header
+ * naming the old file, followed by one ADDED, REMOVED, SUSPENDED, UNSUSPENDED, ENROLLED or
+ * UNENROLLED event per line. A student whose name has changed is removed and added again.
+ * Applying the batch to a list of students loaded from the old file with applyChanges() (or
+ * following it with a RosterFollower object) gives the students of the new file, although the
+ * subjects of a changed student may be listed in a different order.
+ *
+ * The tool can be run from the command line with the arguments: old students file, new students
+ * file and change batch file; or, to apply a change batch, "--apply", subjects file, students
+ * file, change batch file and output file.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterDiff
+{
+    private static final int RUN_LINES = Integer.getInteger("rosterDiff.runLines", 100_000);
+    private static final int MERGE_WIDTH = Math.max(2, Integer.getInteger("rosterDiff.mergeWidth",
+            64));
+    private static final long NO_IDENTITY_NUMBER = Long.MIN_VALUE;
+
+    private int runLines;
+    private int mergeWidth;
+    private Path temporaryDirectory;
+    private int runCount;
+    private Writer batch;
+    private long sequenceNumber;
+    private long timestamp;
+    private long oldCount;
+    private long newCount;
+    private long addedCount;
+    private long removedCount;
+    private long changedCount;
+    private long unchangedCount;
+    private long skippedCount;
+    private long elapsedNanos;
+
+    /**
+     * The RunMerger class reads a number of files sorted by identity number as one sorted
+     * sequence of lines, taking the next line from the file whose current line has the lowest
+     * identity number (and, among those, from the earliest file). The files are deleted when the
+     * merger is closed.
+     */
+    private static final class RunMerger implements Closeable
+    {
+        private List<Path> runs;
+        private BufferedReader[] readers;
+        private String[] lines;
+        private long[] identityNumbers;
+        private PriorityQueue<Integer> queue;
+
+        /**
+         * Open the given sorted files and read their first lines.
+         *
+         * @param   runs    The sorted files, in the order of the lines they were sorted from.
+         * @throws  IOException If a file cannot be read.
+         */
+        RunMerger(List<Path> runs) throws IOException
+        {
+            this.runs = runs;
+            readers = new BufferedReader[runs.size()];
+            lines = new String[runs.size()];
+            identityNumbers = new long[runs.size()];
+            queue = new PriorityQueue<>(Math.max(runs.size(), 1), (first, second) ->
+            {
+                int order = Long.compare(identityNumbers[first], identityNumbers[second]);
+                return (order != 0 ? order : Integer.compare(first, second));
+            });
+            for (int run = 0; run < runs.size(); run++)
+            {
+                readers[run] = Files.newBufferedReader(runs.get(run), StandardCharsets.UTF_8);
+                advance(run);
+            }
+        }
+
+        /**
+         * Given the index of a file, read its next line and queue the file if there is one.
+         *
+         * @param   run The index of the file.
+         * @throws  IOException If the file cannot be read.
+         */
+        private void advance(int run) throws IOException
+        {
+            lines[run] = readers[run].readLine();
+            if (lines[run] != null)
+            {
+                identityNumbers[run] = identityNumberOf(lines[run]);
+                queue.add(run);
+            }
+        }
+
+        /**
+         * Close and delete the files.
+         *
+         * @throws  IOException If a file cannot be closed or deleted.
+         */
+        public void close() throws IOException
+        {
+            for (int run = 0; run < readers.length; run++)
+            {
+                if (readers[run] != null)
+                    readers[run].close();
+                Files.deleteIfExists(runs.get(run));
+            }
+        }
+
+        /**
+         * Return the next line in order of identity number.
+         *
+         * @return  The next line, or null if all the files have been read.
+         * @throws  IOException If a file cannot be read.
+         */
+        String next() throws IOException
+        {
+            Integer run = queue.poll();
+            if (run == null)
+                return null;
+            String line = lines[run];
+            advance(run);
+            return line;
+        }
+    }
+
+    /**
+     * Construct a diff tool with the run length and merge width set by the system properties
+     * "rosterDiff.runLines" and "rosterDiff.mergeWidth".
+     */
+    public RosterDiff()
+    {
+        this(RUN_LINES, MERGE_WIDTH);
+    }
+
+    /**
+     * Construct a diff tool sorting runs of the given number of lines in memory and merging the
+     * given number of runs at a time.
+     *
+     * @param   runLines    The number of lines sorted in memory at a time.
+     * @param   mergeWidth  The largest number of runs merged at a time (at least 2).
+     */
+    public RosterDiff(int runLines, int mergeWidth)
+    {
+        if (runLines < 1 || mergeWidth < 2)
+            throw new IllegalArgumentException("A run must hold at least 1 line and at least 2 " +
+                    "runs must be merged at a time.");
+        this.runLines = runLines;
+        this.mergeWidth = mergeWidth;
+    }
+
+    /**
+     * Given the name of a change batch, a list of students and the School Management System the
+     * list belongs to, apply the events of the batch to the list in order.
+     *
+     * @param   batchFilename   The name of the change batch file.
+     * @param   students        The list of students to be changed.
+     * @param   schoolManager   The School Management System creating the added students.
+     * @return  The number of events applied.
+     * @throws  IOException             If the batch cannot be read.
+     * @throws  IllegalStateException   If an event is for a student not on the list.
+     */
+    public static long applyChanges(String batchFilename, StudentDatabase students,
+                                    SchoolManager schoolManager) throws IOException
+    {
+        HashMap<String, Subject> subjectsByName = new HashMap<>();
+        SubjectDatabase allSubjects = schoolManager.getAllSubjects();
+        for (int index = 0; index < allSubjects.getSize(); index++)
+            subjectsByName.put(allSubjects.getSubject(index).getName(),
+                    allSubjects.getSubject(index));
+        long applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(batchFilename),
+                StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                ChangeJournal.applyEvent(line, students, schoolManager, subjectsByName);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Given a line of the old file and a line of the new file with the same identity number,
+     * write the events that turn the old student into the new one.
+     *
+     * @param   oldLine The line of the old file.
+     * @param   newLine The line of the new file.
+     * @throws  IOException If the batch cannot be written.
+     */
+    private void compareStudents(String oldLine, String newLine) throws IOException
+    {
+        if (oldLine.equals(newLine))
+        {
+            unchangedCount++;
+            return;
+        }
+        String[] oldFields = oldLine.split(",");
+        String[] newFields = newLine.split(",");
+        String name = oldFields[0].trim();
+        if (!name.equals(newFields[0].trim()))
+        {
+            writeEvent(StudentChangeEvent.Type.REMOVED, oldFields, null);
+            writeEvent(StudentChangeEvent.Type.ADDED, newFields, newLine);
+            changedCount++;
+            return;
+        }
+        long eventsBefore = sequenceNumber;
+        boolean oldSuspension = oldFields.length > 2 && oldFields[2].trim().equals("true");
+        boolean newSuspension = newFields.length > 2 && newFields[2].trim().equals("true");
+        if (oldSuspension != newSuspension)
+            writeEvent(newSuspension ? StudentChangeEvent.Type.UNSUSPENDED :
+                    StudentChangeEvent.Type.SUSPENDED, oldFields, null);
+        LinkedHashSet<String> oldSubjects = subjectNamesOf(oldFields);
+        LinkedHashSet<String> newSubjects = subjectNamesOf(newFields);
+        for (String subjectName : oldSubjects)
+            if (!newSubjects.contains(subjectName))
+                writeEvent(StudentChangeEvent.Type.UNENROLLED, oldFields, subjectName);
+        for (String subjectName : newSubjects)
+            if (!oldSubjects.contains(subjectName))
+                writeEvent(StudentChangeEvent.Type.ENROLLED, oldFields, subjectName);
+        if (sequenceNumber > eventsBefore)
+            changedCount++;
+        else
+            unchangedCount++;
+    }
+
+    /**
+     * Given the names of an old and a new students file and of a change batch file, compare the
+     * students of the two files and write the events that turn the old file into the new one to
+     * the change batch file.
+     *
+     * @param   oldFilename     The name of the old students file.
+     * @param   newFilename     The name of the new students file.
+     * @param   batchFilename   The name of the change batch file to be written.
+     * @throws  IOException     If a file cannot be read or written.
+     */
+    public void diff(String oldFilename, String newFilename, String batchFilename)
+            throws IOException
+    {
+        long startTime = System.nanoTime();
+        sequenceNumber = 0;
+        timestamp = System.currentTimeMillis();
+        runCount = 0;
+        oldCount = newCount = addedCount = removedCount = changedCount = unchangedCount =
+                skippedCount = 0;
+        temporaryDirectory = Files.createTempDirectory("rosterDiff");
+        try (RunMerger oldStudents = new RunMerger(sortByIdentityNumber(oldFilename));
+             RunMerger newStudents = new RunMerger(sortByIdentityNumber(newFilename));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new FileOutputStream(batchFilename), StandardCharsets.UTF_8)))
+        {
+            batch = writer;
+            batch.write(ChangeJournal.SNAPSHOT_HEADER + new File(oldFilename).getAbsolutePath() +
+                    "\n");
+            String oldLine = oldStudents.next();
+            String newLine = newStudents.next();
+            while (oldLine != null || newLine != null)
+            {
+                int order = (oldLine == null ? 1 : newLine == null ? -1 :
+                        Long.compare(identityNumberOf(oldLine), identityNumberOf(newLine)));
+                if (order < 0)
+                {
+                    writeEvent(StudentChangeEvent.Type.REMOVED, oldLine.split(","), null);
+                    removedCount++;
+                }
+                else if (order > 0)
+                {
+                    writeEvent(StudentChangeEvent.Type.ADDED, null, newLine);
+                    addedCount++;
+                }
+                else
+                    compareStudents(oldLine, newLine);
+                if (order <= 0)
+                {
+                    oldLine = oldStudents.next();
+                    oldCount++;
+                }
+                if (order >= 0)
+                {
+                    newLine = newStudents.next();
+                    newCount++;
+                }
+            }
+        }
+        finally
+        {
+            batch = null;
+            File[] leftoverRuns = temporaryDirectory.toFile().listFiles();
+            if (leftoverRuns != null)
+                for (File run : leftoverRuns)
+                    run.delete();
+            Files.deleteIfExists(temporaryDirectory);
+            elapsedNanos = System.nanoTime() - startTime;
+        }
+    }
+
+    /**
+     * Return the number of students in the new file but not in the old one.
+     *
+     * @return  The number of students added.
+     */
+    public long getAddedCount()
+    {
+        return addedCount;
+    }
+
+    /**
+     * Return the number of students in both files whose name, suspension status or enrolled
+     * subjects have changed.
+     *
+     * @return  The number of students changed.
+     */
+    public long getChangedCount()
+    {
+        return changedCount;
+    }
+
+    /**
+     * Return the number of events written to the change batch.
+     *
+     * @return  The number of events.
+     */
+    public long getEventCount()
+    {
+        return sequenceNumber;
+    }
+
+    /**
+     * Return the number of students in the old file but not in the new one.
+     *
+     * @return  The number of students removed.
+     */
+    public long getRemovedCount()
+    {
+        return removedCount;
+    }
+
+    /**
+     * Return the counts of the last comparison, the number of sorted runs and the time taken as a
+     * string.
+     *
+     * @return  The statistics of the last comparison.
+     */
+    public String getStatistics()
+    {
+        return String.format("Compared %d old and %d new students in %.1f ms: %d added, %d " +
+                "removed, %d changed, %d unchanged; %d events written (%d sorted runs, %d " +
+                "lines skipped)", oldCount, newCount, elapsedNanos / 1e6, addedCount,
+                removedCount, changedCount, unchangedCount, sequenceNumber, runCount,
+                skippedCount);
+    }
+
+    /**
+     * Return the number of students in both files that have not changed.
+     *
+     * @return  The number of students unchanged.
+     */
+    public long getUnchangedCount()
+    {
+        return unchangedCount;
+    }
+
+    /**
+     * Given a line of a students file, return the identity number in its second field.
+     *
+     * @param   line    The line of the students file.
+     * @return  The identity number, or NO_IDENTITY_NUMBER if there is no numeric one.
+     */
+    private static long identityNumberOf(String line)
+    {
+        int start = line.indexOf(',') + 1;
+        if (start == 0)
+            return NO_IDENTITY_NUMBER;
+        int end = line.indexOf(',', start);
+        try
+        {
+            return Integer.parseInt(line.substring(start, (end < 0 ? line.length() : end)).
+                    trim());
+        }
+        catch (NumberFormatException e)
+        {
+            return NO_IDENTITY_NUMBER;
+        }
+    }
+
+    /**
+     * Compare two students files or apply a change batch, as given on the command line.
+     *
+     * @param   args    The old students file, the new students file and the change batch file;
+     *                  or "--apply", the subjects file, the students file, the change batch file
+     *                  and the output file.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length == 3)
+        {
+            RosterDiff rosterDiff = new RosterDiff();
+            rosterDiff.diff(args[0], args[1], args[2]);
+            Output.println(rosterDiff.getStatistics());
+        }
+        else if (args.length == 5 && args[0].equals("--apply"))
+        {
+            SchoolManager schoolManager = new SchoolManager(args[1], args[2]);
+            long applied = applyChanges(args[3], schoolManager.getAllStudents(), schoolManager);
+            schoolManager.writeStudentsFile(args[4]);
+            Output.println(applied + " events applied; " +
+                    schoolManager.getAllStudents().getSize() + " students written to " + args[4]);
+        }
+        else
+            Output.println("Usage: RosterDiff <old students file> <new students file> " +
+                    "<change batch file>\n       RosterDiff --apply <subjects file> <students " +
+                    "file> <change batch file> <output file>");
+        Output.flush();
+    }
+
+    /**
+     * Given a list of sorted runs, merge them into a single sorted run.
+     *
+     * @param   runs    The sorted runs, in the order of the lines they were sorted from.
+     * @return  The merged run.
+     * @throws  IOException If a run cannot be read or written.
+     */
+    private Path mergeRuns(List<Path> runs) throws IOException
+    {
+        Path merged = temporaryDirectory.resolve("run" + (runCount++));
+        try (RunMerger merger = new RunMerger(runs);
+             BufferedWriter writer = Files.newBufferedWriter(merged, StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = merger.next()) != null)
+            {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Given the name of a students file, sort it by identity number into runs of up to the run
+     * length, and merge the runs until there are no more than the merge width of them.
+     *
+     * @param   filename    The name of the students file.
+     * @return  The sorted runs, in the order of the lines they were sorted from.
+     * @throws  IOException If the file or a run cannot be read or written.
+     */
+    private List<Path> sortByIdentityNumber(String filename) throws IOException
+    {
+        List<Path> runs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filename),
+                StandardCharsets.UTF_8))
+        {
+            String[] lines = new String[runLines];
+            long[] keys = new long[runLines];
+            int count = 0;
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                long identityNumber = identityNumberOf(line);
+                if (identityNumber == NO_IDENTITY_NUMBER)
+                {
+                    if (!line.trim().isEmpty())
+                        skippedCount++;
+                    continue;
+                }
+                keys[count] = (identityNumber << 32) | count;
+                lines[count++] = line;
+                if (count == runLines)
+                {
+                    runs.add(writeRun(lines, keys, count));
+                    count = 0;
+                }
+            }
+            if (count > 0)
+                runs.add(writeRun(lines, keys, count));
+        }
+        while (runs.size() > mergeWidth)
+        {
+            List<Path> mergedRuns = new ArrayList<>();
+            for (int first = 0; first < runs.size(); first += mergeWidth)
+                mergedRuns.add(mergeRuns(runs.subList(first, Math.min(first + mergeWidth,
+                        runs.size()))));
+            runs = mergedRuns;
+        }
+        return runs;
+    }
+
+    /**
+     * Given the fields of a line of a students file, return the names of the enrolled subjects.
+     *
+     * @param   fields  The fields of the line.
+     * @return  The names of the subjects, in the order of the line.
+     */
+    private static LinkedHashSet<String> subjectNamesOf(String[] fields)
+    {
+        LinkedHashSet<String> subjectNames = new LinkedHashSet<>();
+        for (int index = 3; index < fields.length; index += 2)
+            subjectNames.add(fields[index].trim());
+        return subjectNames;
+    }
+
+    /**
+     * Given the type of an event, the fields of the line of the student it is about and either
+     * the subject it is about or (for an added student) the whole line of the student, write the
+     * event to the change batch as the next event.
+     *
+     * @param   type    The type of the event.
+     * @param   fields  The fields of the line of the student.
+     * @param   detail  The name of the subject, the line of an added student, or null.
+     * @throws  IOException If the batch cannot be written.
+     */
+    private void writeEvent(StudentChangeEvent.Type type, String[] fields, String detail)
+            throws IOException
+    {
+        batch.write(Long.toString(++sequenceNumber));
+        batch.write(',');
+        batch.write(Long.toString(timestamp));
+        batch.write(',');
+        batch.write(type.name());
+        batch.write(',');
+        if (type == StudentChangeEvent.Type.ADDED)
+            batch.write(detail);
+        else
+        {
+            batch.write(fields[1].trim());
+            batch.write(',');
+            batch.write(fields[0].trim());
+            if (detail != null)
+            {
+                batch.write(',');
+                batch.write(detail);
+            }
+        }
+        batch.write('\n');
+    }
+
+    /**
+     * Given the lines of a run and their keys (the identity number in the upper 32 bits and the
+     * index of the line in the lower 32 bits), sort the lines by their keys and write them to a
+     * new temporary file.
+     *
+     * @param   lines   The lines of the run.
+     * @param   keys    The keys of the lines.
+     * @param   count   The number of lines in the run.
+     * @return  The sorted run.
+     * @throws  IOException If the run cannot be written.
+     */
+    private Path writeRun(String[] lines, long[] keys, int count) throws IOException
+    {
+        Arrays.sort(keys, 0, count);
+        Path run = temporaryDirectory.resolve("run" + (runCount++));
+        try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8))
+        {
+            for (int index = 0; index < count; index++)
+            {
+                int line = (int) keys[index];
+                writer.write(lines[line]);
+                writer.newLine();
+                lines[line] = null;
+            }
+        }
+        return run;
+    }
+}
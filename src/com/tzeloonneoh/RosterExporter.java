@@ -0,0 +1,311 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.function.*;
+
+/**
+ * The RosterExporter class writes students to a CSV or JSON Lines file as they are passed to it,
+ * so that the results of a query (see RosterQuery.stream()) can be exported without first being
+ * collected into a list of students. Each student is formatted into reused StringBuilder objects
+ * (its name decoded straight into them), encoded as UTF-8 into a fixed direct buffer and written
+ * to a FileChannel object whenever the buffer is full, so the memory used is the same however
+ * many students are exported. The size of the buffer can be changed with the system property
+ * "export.bufferSize" (default 64 KB).
+ *
+ * A CSV file starts with the header "name,id,suspended,credits,subjects", the enrolled subjects
+ * being separated by semicolons; fields are quoted as in RFC 4180 when needed. A JSON Lines file
+ * holds one object per student with the same fields, the subjects as an array. Lines end with a
+ * line feed in both formats.
+ *
+ * An IOException raised while writing a student stops the export and is thrown by close(). The
+ * number of students and bytes written and the throughput are reported by getStatistics() once the
+ * exporter is closed.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterExporter implements Consumer<Student>, Closeable
+{
+    /**
+     * The formats a roster can be exported in.
+     */
+    public enum Format
+    {
+        CSV,
+        JSON_LINES
+    }
+
+    private static final int BUFFER_SIZE = Integer.getInteger("export.bufferSize", 64 * 1024);
+    private static final String CSV_HEADER = "name,id,suspended,credits,subjects";
+
+    private String filename;
+    private Format format;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private CharsetEncoder encoder;
+    private StringBuilder record;
+    private StringBuilder field;
+    private CharBuffer characters;
+    private int studentCount;
+    private long byteCount;
+    private long startNanos;
+    private long elapsedNanos;
+    private long metricsStartTime;
+    private RosterFileEvent event;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Create (or truncate) the given file and get it ready for students to be written in the given
+     * format.
+     *
+     * @param   filename    The name of the file to be written.
+     * @param   format      The format of the file.
+     * @throws  IOException If the file cannot be created or written.
+     */
+    public RosterExporter(String filename, Format format) throws IOException
+    {
+        this.filename = filename;
+        this.format = format;
+        metricsStartTime = MetricsRegistry.startTimer();
+        event = new RosterFileEvent();
+        event.begin();
+        startNanos = System.nanoTime();
+        channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        encoder = StandardCharsets.UTF_8.newEncoder().
+                onMalformedInput(CodingErrorAction.REPLACE).
+                onUnmappableCharacter(CodingErrorAction.REPLACE);
+        record = new StringBuilder(256);
+        field = new StringBuilder(128);
+        characters = CharBuffer.allocate(256);
+        if (format == Format.CSV)
+        {
+            record.append(CSV_HEADER).append('\n');
+            writeRecord();
+        }
+    }
+
+    /**
+     * Given a student, write it to the file as the next record. Does nothing once writing has
+     * failed or the exporter has been closed.
+     *
+     * @param   student The student to be written.
+     */
+    public void accept(Student student)
+    {
+        if (failure != null || closed)
+            return;
+        record.setLength(0);
+        SubjectDatabase subjectsEnrolled = student.getSubjectsEnrolled();
+        if (format == Format.CSV)
+        {
+            field.setLength(0);
+            student.appendName(field);
+            appendCsvField(field);
+            record.append(',').append(student.getIdentityNumber()).append(',').
+                    append(!student.getSuspension()).append(',').
+                    append(student.getTotalCredit()).append(',');
+            field.setLength(0);
+            for (int index = 0; index < subjectsEnrolled.getSize(); index++)
+                field.append(index == 0 ? "" : ";").
+                        append(subjectsEnrolled.getSubject(index).getName());
+            appendCsvField(field);
+        }
+        else
+        {
+            record.append("{\"name\":");
+            field.setLength(0);
+            student.appendName(field);
+            appendJsonString(field);
+            record.append(",\"id\":").append(student.getIdentityNumber()).
+                    append(",\"suspended\":").append(!student.getSuspension()).
+                    append(",\"credits\":").append(student.getTotalCredit()).
+                    append(",\"subjects\":[");
+            for (int index = 0; index < subjectsEnrolled.getSize(); index++)
+            {
+                if (index > 0)
+                    record.append(',');
+                appendJsonString(subjectsEnrolled.getSubject(index).getName());
+            }
+            record.append("]}");
+        }
+        record.append('\n');
+        try
+        {
+            writeRecord();
+            studentCount++;
+        }
+        catch (IOException e)
+        {
+            failure = e;
+        }
+    }
+
+    /**
+     * Given a field, append it to the record being formatted as a CSV field, quoted (with its
+     * quotes doubled) if it holds a comma, a quote or a line break.
+     *
+     * @param   field   The field to be appended.
+     */
+    private void appendCsvField(CharSequence field)
+    {
+        boolean quoted = false;
+        for (int index = 0; index < field.length() && !quoted; index++)
+        {
+            char character = field.charAt(index);
+            quoted = (character == ',' || character == '"' || character == '\n' ||
+                    character == '\r');
+        }
+        if (!quoted)
+        {
+            record.append(field);
+            return;
+        }
+        record.append('"');
+        for (int index = 0; index < field.length(); index++)
+        {
+            char character = field.charAt(index);
+            if (character == '"')
+                record.append('"');
+            record.append(character);
+        }
+        record.append('"');
+    }
+
+    /**
+     * Given a string, append it to the record being formatted as a JSON string, escaping quotes,
+     * backslashes and control characters.
+     *
+     * @param   text    The string to be appended.
+     */
+    private void appendJsonString(CharSequence text)
+    {
+        record.append('"');
+        for (int index = 0; index < text.length(); index++)
+        {
+            char character = text.charAt(index);
+            if (character == '"' || character == '\\')
+                record.append('\\').append(character);
+            else if (character < 0x20)
+                record.append(String.format("\\u%04x", (int) character));
+            else
+                record.append(character);
+        }
+        record.append('"');
+    }
+
+    /**
+     * Write the records still in the buffer, close the file and record the time taken. Throws the
+     * IOException that stopped the export, if any.
+     *
+     * @throws  IOException If writing or closing the file failed.
+     */
+    public void close() throws IOException
+    {
+        if (closed)
+            return;
+        closed = true;
+        try
+        {
+            if (failure == null)
+                drainBuffer();
+        }
+        catch (IOException e)
+        {
+            failure = e;
+        }
+        finally
+        {
+            channel.close();
+            elapsedNanos = System.nanoTime() - startNanos;
+            event.complete(Operation.EXPORT_STUDENTS, filename, studentCount, byteCount);
+            MetricsRegistry.record(Operation.EXPORT_STUDENTS, metricsStartTime);
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Write the bytes in the buffer to the file and empty the buffer.
+     *
+     * @throws  IOException If the bytes cannot be written.
+     */
+    private void drainBuffer() throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            byteCount += channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Return the number of bytes written to the file so far.
+     *
+     * @return  The number of bytes written.
+     */
+    public long getByteCount()
+    {
+        return byteCount;
+    }
+
+    /**
+     * Return the number of students and bytes written, the time taken and the throughput of the
+     * export as a string.
+     *
+     * @return  The statistics of the export.
+     */
+    public String getStatistics()
+    {
+        long nanos = (closed ? elapsedNanos : System.nanoTime() - startNanos);
+        return String.format("%d student(s) exported to %s: %d bytes in %.1f ms (%.1f MB/s)",
+                studentCount, filename, byteCount, nanos / 1e6, getThroughput());
+    }
+
+    /**
+     * Return the number of students written to the file so far.
+     *
+     * @return  The number of students written.
+     */
+    public int getStudentCount()
+    {
+        return studentCount;
+    }
+
+    /**
+     * Return the number of megabytes (of 1,000,000 bytes) written per second since the exporter
+     * was created, up to the time it was closed.
+     *
+     * @return  The throughput in MB/s.
+     */
+    public double getThroughput()
+    {
+        long nanos = (closed ? elapsedNanos : System.nanoTime() - startNanos);
+        return (nanos == 0 ? 0 : byteCount * 1e3 / nanos);
+    }
+
+    /**
+     * Encode the record being formatted into the buffer, writing the buffer to the file whenever
+     * it is full.
+     *
+     * @throws  IOException If the buffer cannot be written.
+     */
+    private void writeRecord() throws IOException
+    {
+        if (characters.capacity() < record.length())
+            characters = CharBuffer.allocate(Math.max(record.length(), characters.capacity() * 2));
+        characters.clear();
+        record.getChars(0, record.length(), characters.array(), 0);
+        characters.limit(record.length());
+        while (encoder.encode(characters, buffer, true).isOverflow())
+            drainBuffer();
+        while (encoder.flush(buffer).isOverflow())
+            drainBuffer();
+        encoder.reset();
+    }
+}
@@ -0,0 +1,53 @@
+package com.tzeloonneoh;
+
+import jdk.jfr.*;
+
+/**
+ * The RosterFileEvent class is a Java Flight Recorder event emitted when the subjects file or the
+ * students file is loaded, or when the students file is saved. It records how many records and
+ * bytes were read or written.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@Name("com.tzeloonneoh.RosterFile")
+@Label("Roster File")
+@Category("School Manager")
+@Description("Loading or saving of the subjects or students file")
+@StackTrace(false)
+public class RosterFileEvent extends Event
+{
+    @Label("Operation")
+    String operation;
+
+    @Label("File")
+    String filename;
+
+    @Label("Records")
+    int recordCount;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * End the event and commit it with the given details if it is being recorded.
+     *
+     * @param   operation   The operation that read or wrote the file.
+     * @param   filename    The name of the file.
+     * @param   recordCount The number of records read or written.
+     * @param   bytes       The number of bytes read or written.
+     */
+    public void complete(Operation operation, String filename, int recordCount, long bytes)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.operation = operation.getDescription();
+            this.filename = filename;
+            this.recordCount = recordCount;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
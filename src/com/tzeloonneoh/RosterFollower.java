@@ -0,0 +1,591 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import javax.management.*;
+
+/**
+ * The RosterFollower class keeps a read-only copy of the list of students of a School Management
+ * System running on the same machine, to serve listings without loading the primary. It loads the
+ * students file named in the header of the primary's ChangeJournal and then tails the journal,
+ * applying new events every "journal.pollMillis" milliseconds (default 50), which bounds the
+ * replication lag while the follower keeps up. Queries see the list as of the last applied batch
+ * and return copies of the students. The snapshot file must not be changed while the journal is
+ * in use. The events of a bulk action are only applied once the whole group (up to its BULK_END
+ * line) has been written, so that a bulk action is never seen half applied, unless the group is
+ * too large to be read at once.
+ *
+ * A new version of the list (a RosterVersion object) is published after each batch. Listings of
+ * all students and the number of students are read from the latest version without taking the
+ * lock, so that a long listing never holds up the batches being applied; lookups and filters still
+ * read the list under the read lock.
+ *
+ * The lag, throughput and consistency of the follower are exposed as the JMX MBean
+ * "com.tzeloonneoh:type=RosterFollower" and the time taken to apply each batch is recorded by
+ * the MetricsRegistry class.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterFollower implements RosterFollowerMXBean
+{
+    private static final long POLL_MILLIS = Long.getLong("journal.pollMillis", 50);
+    private static final int MAXIMUM_READ = 1 << 24;
+    private static final String OBJECT_NAME = "com.tzeloonneoh:type=RosterFollower";
+
+    private String journalFilename;
+    private SchoolManager snapshot;
+    private StudentDatabase allStudents;
+    private HashMap<String, Subject> subjectsByName;
+    private ReentrantReadWriteLock lock;
+    private RandomAccessFile journal;
+    private volatile long journalPosition;
+    private long lastSequenceNumber;
+    private AtomicLong appliedEvents;
+    private AtomicLong applyNanos;
+    private volatile long lagMillis;
+    private volatile boolean consistent;
+    private volatile boolean closed;
+    private Thread tailThread;
+
+    /**
+     * Load the snapshot named in the header of the journal and start tailing the journal.
+     *
+     * @param   subjectsFilename    The name of the text file from which the subject data are to be
+     *                              read.
+     * @param   journalFilename     The name of the journal file of the primary.
+     * @throws  IOException         If the journal cannot be read or has no header.
+     */
+    public RosterFollower(String subjectsFilename, String journalFilename) throws IOException
+    {
+        this.journalFilename = journalFilename;
+        journal = new RandomAccessFile(journalFilename, "r");
+        String header = journal.readLine();
+        if (header == null || !header.startsWith(ChangeJournal.SNAPSHOT_HEADER))
+        {
+            journal.close();
+            throw new IOException(journalFilename + " is not a roster journal!");
+        }
+        journalPosition = journal.getFilePointer();
+        snapshot = new SchoolManager(subjectsFilename,
+                header.substring(ChangeJournal.SNAPSHOT_HEADER.length()));
+        allStudents = snapshot.getAllStudents();
+        allStudents.prepareForReading();
+        allStudents.publishVersion();
+        subjectsByName = new HashMap<>();
+        SubjectDatabase allSubjects = snapshot.getAllSubjects();
+        for (int index = 0; index < allSubjects.getSize(); index++)
+            subjectsByName.put(allSubjects.getSubject(index).getName(),
+                    allSubjects.getSubject(index));
+        lock = new ReentrantReadWriteLock();
+        appliedEvents = new AtomicLong();
+        applyNanos = new AtomicLong();
+        consistent = true;
+        registerMBean();
+        tailThread = new Thread(this::tailJournal, "roster-follower");
+        tailThread.setDaemon(true);
+        tailThread.start();
+    }
+
+    /**
+     * Given a line of the journal, apply the event to the list of students. Must be called while
+     * holding the write lock.
+     *
+     * @param   line    The line of the journal.
+     * @return  The time at which the event was made, or 0 if the line is not an event.
+     */
+    private long applyEvent(String line)
+    {
+        String[] fields = line.split(",", 2);
+        if (!fields[0].equals(ChangeJournal.GAP))
+            lastSequenceNumber = Long.parseLong(fields[0]);
+        try
+        {
+            return ChangeJournal.applyEvent(line, allStudents, snapshot, subjectsByName);
+        }
+        catch (IllegalStateException e)
+        {
+            markInconsistent(e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Read the complete lines written to the journal since the last call and apply them as one
+     * batch. The lines from a BULK_BEGIN line without its BULK_END line are left to a later batch,
+     * unless they fill a whole read.
+     *
+     * @return  The number of lines applied.
+     * @throws  IOException If the journal cannot be read.
+     */
+    private int applyNewEntries() throws IOException
+    {
+        long length = journal.length();
+        if (length < journalPosition)
+        {
+            markInconsistent(journalFilename + " has been replaced by a new journal!");
+            closed = true;
+            return 0;
+        }
+        if (length == journalPosition)
+            return 0;
+        byte[] bytes = new byte[(int) Math.min(length - journalPosition, MAXIMUM_READ)];
+        journal.seek(journalPosition);
+        journal.readFully(bytes);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n')
+            end--;
+        if (end == 0)
+            return 0;
+        String[] lines = new String(bytes, 0, end - 1, StandardCharsets.UTF_8).split("\n");
+        int openGroup = -1;
+        for (int index = 0; index < lines.length; index++)
+            if (lines[index].contains(",BULK_BEGIN,"))
+                openGroup = index;
+            else if (lines[index].contains(",BULK_END,"))
+                openGroup = -1;
+        if (openGroup == 0 && bytes.length < MAXIMUM_READ)
+            return 0;
+        if (openGroup > 0)
+        {
+            end = 0;
+            for (int index = 0; index < openGroup; index++)
+                end += lines[index].getBytes(StandardCharsets.UTF_8).length + 1;
+            lines = Arrays.copyOf(lines, openGroup);
+        }
+        long startTime = System.nanoTime();
+        long metricsStartTime = MetricsRegistry.startTimer();
+        long eventTime = 0;
+        lock.writeLock().lock();
+        try
+        {
+            for (String line : lines)
+            {
+                try
+                {
+                    eventTime = Math.max(eventTime, applyEvent(line));
+                }
+                catch (RuntimeException e)
+                {
+                    markInconsistent("\"" + line + "\" could not be applied (" + e + ")!");
+                }
+            }
+            allStudents.prepareForReading();
+            allStudents.publishVersion();
+            journalPosition += end;
+            applyNanos.addAndGet(System.nanoTime() - startTime);
+            appliedEvents.addAndGet(lines.length);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+        MetricsRegistry.record(Operation.APPLY_JOURNAL, metricsStartTime);
+        if (eventTime > 0)
+            lagMillis = Math.max(0, System.currentTimeMillis() - eventTime);
+        return lines.length;
+    }
+
+    /**
+     * Stop tailing the journal.
+     */
+    public void close()
+    {
+        closed = true;
+        try
+        {
+            tailThread.join();
+            journal.close();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException e)
+        {
+            Output.println("I/O error!");
+        }
+    }
+
+    /**
+     * Given a list of students, return a list of copies of them, so that the copies can be read
+     * while later events are applied.
+     *
+     * @param   students    The list of students to be copied.
+     * @return  The list of copies.
+     */
+    private static StudentDatabase copyOf(StudentDatabase students)
+    {
+        StudentDatabase copies = new StudentDatabase();
+        for (int index = 0; index < students.getSize(); index++)
+            copies.addStudent(copyOf(students.getStudent(index)));
+        return copies;
+    }
+
+    /**
+     * Given a version of a list of students, return a list of copies of its students.
+     *
+     * @param   version The version to be copied.
+     * @return  The copies.
+     */
+    private static StudentDatabase copyOf(RosterVersion version)
+    {
+        StudentDatabase copies = new StudentDatabase();
+        for (int index = 0; index < version.getSize(); index++)
+            copies.addStudent(copyOf(version.getStudent(index)));
+        return copies;
+    }
+
+    /**
+     * Given a student, return a copy of the student.
+     *
+     * @param   student The student to be copied.
+     * @return  The copy.
+     */
+    private static Student copyOf(Student student)
+    {
+        Student copy = new Student();
+        copy.setName(student.getName());
+        copy.setIdentityNumber(student.getIdentityNumber());
+        copy.setSuspension(String.valueOf(student.getSuspension()));
+        SubjectDatabase subjectsEnrolled = student.getSubjectsEnrolled();
+        for (int index = 0; index < subjectsEnrolled.getSize(); index++)
+            copy.enrolSubject(subjectsEnrolled.getSubject(index));
+        return copy;
+    }
+
+    /**
+     * Given an identity number, return a copy of the (last added) student with that identity
+     * number.
+     *
+     * @param   inputIdentityNumber The student identity number.
+     * @return  The student, or a new Student object if there is none.
+     */
+    public Student filterStudentByIdentityNumber(int inputIdentityNumber)
+    {
+        lock.readLock().lock();
+        try
+        {
+            return copyOf(allStudents.filterStudentByIdentityNumber(inputIdentityNumber));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Given a name, return the list of students with that name.
+     *
+     * @param   inputName   The student name.
+     * @return  The list of student(s) with the same name.
+     */
+    public StudentDatabase filterStudentsByName(String inputName)
+    {
+        lock.readLock().lock();
+        try
+        {
+            return copyOf(allStudents.filterStudentsByName(inputName));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Given a list of subjects, return the list of students enrolled in all of them.
+     *
+     * @param   subjectFilters  The list of subjects.
+     * @return  The list of student(s) enrolled in all the given subjects.
+     */
+    public StudentDatabase filterStudentsBySubjects(SubjectDatabase subjectFilters)
+    {
+        lock.readLock().lock();
+        try
+        {
+            return copyOf(allStudents.filterStudentsBySubjects(subjectFilters));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Given a suspension status (1: suspended or 2: unsuspended), return the list of students
+     * with that suspension status.
+     *
+     * @param   integerInput    The suspension status (1: suspended or 2: unsuspended).
+     * @return  The list of students with the suspension status.
+     */
+    public StudentDatabase filterStudentsBySuspension(int integerInput)
+    {
+        lock.readLock().lock();
+        try
+        {
+            return copyOf(allStudents.filterStudentsBySuspension(integerInput));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the list of all students as of the last applied batch, without taking the lock.
+     *
+     * @return  The copies of all students.
+     */
+    public StudentDatabase getAllStudents()
+    {
+        return copyOf(allStudents.getPublishedVersion());
+    }
+
+    /**
+     * Return the list of all subjects offered at the school.
+     *
+     * @return  The list of all subjects.
+     */
+    public SubjectDatabase getAllSubjects()
+    {
+        return snapshot.getAllSubjects();
+    }
+
+    /**
+     * Return the number of journal events applied since the follower started.
+     *
+     * @return  The number of applied events.
+     */
+    public long getAppliedEvents()
+    {
+        return appliedEvents.get();
+    }
+
+    /**
+     * Return the number of events applied per second of time spent applying them.
+     *
+     * @return  The apply throughput in events per second.
+     */
+    public double getApplyThroughput()
+    {
+        long nanos = applyNanos.get();
+        return (nanos == 0 ? 0 : appliedEvents.get() * 1e9 / nanos);
+    }
+
+    /**
+     * Return the time between the last applied event being made on the primary and it being
+     * applied by the follower.
+     *
+     * @return  The replication lag in milliseconds.
+     */
+    public long getLagMillis()
+    {
+        return lagMillis;
+    }
+
+    /**
+     * Return the sequence number of the last applied event.
+     *
+     * @return  The last applied sequence number.
+     */
+    public long getLastSequenceNumber()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return lastSequenceNumber;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the number of bytes written to the journal that have not been applied yet.
+     *
+     * @return  The number of pending bytes.
+     */
+    public long getPendingBytes()
+    {
+        return Math.max(0, new File(journalFilename).length() - journalPosition);
+    }
+
+    /**
+     * Return the number of students on the list as of the last applied batch, without taking the
+     * lock.
+     *
+     * @return  The number of students.
+     */
+    public int getSize()
+    {
+        return allStudents.getPublishedVersion().getSize();
+    }
+
+    /**
+     * Return the lag, throughput and consistency of the follower as a string.
+     *
+     * @return  The statistics of the follower.
+     */
+    public String getStatistics()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return String.format("Roster follower: %d events applied (up to #%d), %.0f events/s, " +
+                    "lag %d ms, %d bytes pending, %s", getAppliedEvents(), lastSequenceNumber,
+                    getApplyThroughput(), getLagMillis(), getPendingBytes(),
+                    (isConsistent() ? "consistent" : "INCONSISTENT"));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check if the follower has applied every change of the primary, i.e., no event has been
+     * dropped or failed to apply.
+     *
+     * @return  true    If the follower is consistent with the primary, false otherwise.
+     */
+    public boolean isConsistent()
+    {
+        return consistent;
+    }
+
+    /**
+     * Given the reason, record that the follower is no longer consistent with the primary and
+     * print out the reason.
+     *
+     * @param   reason  The reason.
+     */
+    private void markInconsistent(String reason)
+    {
+        consistent = false;
+        Output.println("\nRoster follower out of step: " + reason);
+    }
+
+    /**
+     * Start a read-only School Management System following the journal of a primary.
+     *
+     * @param   args    The name of the subjects file and the name of the journal file.
+     */
+    public static void main(String[] args)
+    {
+        if (args.length != 2)
+        {
+            Output.println("Usage: RosterFollower <subjects file> <journal file>");
+            return;
+        }
+        try
+        {
+            RosterFollower follower = new RosterFollower(args[0], args[1]);
+            follower.startFollowerSystem();
+            follower.close();
+        }
+        catch (IOException e)
+        {
+            Output.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Register the follower as a JMX MBean of the platform MBean server, unless one has already
+     * been registered.
+     */
+    private void registerMBean()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name))
+                server.registerMBean(this, name);
+        }
+        catch (InstanceAlreadyExistsException e)
+        {
+            // Registered concurrently by another follower in this process.
+        }
+        catch (JMException e)
+        {
+            Output.println("Follower metrics could not be registered with JMX!");
+        }
+    }
+
+    /**
+     *  Read-only menu of the follower. Option (1) lists students by suspension status, option (2)
+     *  lists all students, and option (3) prints out the replication lag and throughput. The menu
+     *  loops until option (4) is selected.
+     */
+    public void startFollowerSystem()
+    {
+        boolean stayInMenu = true;
+
+        while (stayInMenu)
+        {
+            Output.println("My School Manager (read-only follower)" +
+                    "\n(1) List students by suspension status" +
+                    "\n(2) List all students" +
+                    "\n(3) Show replication metrics" +
+                    "\n(4) Exit follower");
+            Output.print("Please choose an option: ");
+            Output.flush();
+            String option = new Scanner(System.in).nextLine();
+            Output.println("");
+            switch(option)
+            {
+                case "1":
+                    Output.println("List of suspended student(s):");
+                    filterStudentsBySuspension(1).printStudentDatabase();
+                    Output.println("List of unsuspended student(s):");
+                    filterStudentsBySuspension(2).printStudentDatabase();
+                    break;
+
+                case "2":
+                    Output.println("All students: ");
+                    getAllStudents().printStudentDatabase();
+                    break;
+
+                case "3":
+                    Output.println(getStatistics());
+                    Output.println(MetricsRegistry.report());
+                    break;
+
+                case "4":
+                    stayInMenu = false;
+                    break;
+
+                default:
+                    Output.println("Invalid input!\n");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Apply new journal entries until the follower is closed. Run on the tailing thread.
+     */
+    private void tailJournal()
+    {
+        try
+        {
+            while (!closed)
+                if (applyNewEntries() == 0)
+                    Thread.sleep(POLL_MILLIS);
+        }
+        catch (IOException e)
+        {
+            markInconsistent(journalFilename + " could not be read!");
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.tzeloonneoh;
+
+/**
+ * The RosterFollowerMXBean interface exposes the replication lag and apply throughput of a
+ * RosterFollower object through JMX.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public interface RosterFollowerMXBean
+{
+    /**
+     * Return the number of journal events applied since the follower started.
+     *
+     * @return  The number of applied events.
+     */
+    long getAppliedEvents();
+
+    /**
+     * Return the number of events applied per second of time spent applying them.
+     *
+     * @return  The apply throughput in events per second.
+     */
+    double getApplyThroughput();
+
+    /**
+     * Return the time between the last applied event being made on the primary and it being
+     * applied by the follower.
+     *
+     * @return  The replication lag in milliseconds.
+     */
+    long getLagMillis();
+
+    /**
+     * Return the sequence number of the last applied event.
+     *
+     * @return  The last applied sequence number.
+     */
+    long getLastSequenceNumber();
+
+    /**
+     * Return the number of bytes written to the journal that have not been applied yet.
+     *
+     * @return  The number of pending bytes.
+     */
+    long getPendingBytes();
+
+    /**
+     * Check if the follower has applied every change of the primary, i.e., no event has been
+     * dropped or failed to apply.
+     *
+     * @return  true    If the follower is consistent with the primary, false otherwise.
+     */
+    boolean isConsistent();
+}
@@ -0,0 +1,248 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The RosterGenerator class produces synthetic students for load and memory testing. The output
+ * only depends on the list of subjects and the seed, so the same roster is produced on every run.
+ * First and family names are drawn from a skewed (Zipf-like) distribution so that common names
+ * repeat as they do in a real school. About one in twelve students is suspended and enrolled in no
+ * subjects; the others enrol in up to four subjects, drawn by popularity, without exceeding the
+ * maximum credit of a student. Identity numbers are unique and scattered over the whole valid
+ * range.
+ *
+ * The generator can be run from the command line with the arguments: subjects file, number of
+ * students, output file and, optionally, the seed.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterGenerator
+{
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Linda", "David",
+            "Susan", "Michael", "Sarah", "Andy", "Jane", "Peter", "Emma", "Oliver", "Chloe",
+            "William", "Olivia", "Jack", "Charlotte", "Thomas", "Amelia", "Noah", "Isla", "Lucas",
+            "Grace", "Ethan", "Mia", "Henry", "Zoe", "Leo", "Ruby", "Russell", "Zak", "Wei", "Mei",
+            "Ravi", "Priya", "Ahmed", "Fatima", "Tze", "Loon"};
+    private static final String[] FAMILY_NAMES = {"Smith", "Nguyen", "Brown", "Wilson", "Taylor",
+            "Jones", "Williams", "Lee", "Martin", "Tan", "Cheng", "Walker", "Hall", "White",
+            "Thompson", "Wong", "Anderson", "Kelly", "King", "Wright", "Chen", "Harris", "Young",
+            "Ryan", "Clarke", "Mitchell", "Campbell", "Patel", "Singh", "Khan", "Dally", "Crowe",
+            "Citizen", "Neoh", "Roberts", "Scott", "Green", "Baker", "Adams", "Murphy"};
+    private static final int[] SUBJECT_COUNT_WEIGHTS = {5, 20, 35, 30, 10};
+    private static final int SUSPENSION_ONE_IN = 12;
+    private static final double NAME_SKEW = 1.0;
+    private static final double SUBJECT_SKEW = 0.7;
+
+    private SubjectDatabase allSubjects;
+    private Random random;
+    private double[] firstNameDistribution;
+    private double[] familyNameDistribution;
+    private double[] subjectDistribution;
+    private int[] subjectsByPopularity;
+    private long identityNumberSpace;
+    private long identityNumberStep;
+    private long identityNumberOffset;
+
+    /**
+     * Construct a generator for students enrolling in the given list of subjects.
+     *
+     * @param   allSubjects The list of subjects offered at the school.
+     * @param   seed        The seed from which the roster is generated.
+     */
+    public RosterGenerator(SubjectDatabase allSubjects, long seed)
+    {
+        this.allSubjects = allSubjects;
+        random = new Random(seed);
+        firstNameDistribution = createDistribution(FIRST_NAMES.length, NAME_SKEW);
+        familyNameDistribution = createDistribution(FAMILY_NAMES.length, NAME_SKEW);
+        subjectDistribution = createDistribution(allSubjects.getSize(), SUBJECT_SKEW);
+        subjectsByPopularity = new int[allSubjects.getSize()];
+        for (int index = 0; index < subjectsByPopularity.length; index++)
+            subjectsByPopularity[index] = index;
+        for (int index = subjectsByPopularity.length - 1; index > 0; index--)
+        {
+            int swap = random.nextInt(index + 1);
+            int subjectIndex = subjectsByPopularity[index];
+            subjectsByPopularity[index] = subjectsByPopularity[swap];
+            subjectsByPopularity[swap] = subjectIndex;
+        }
+        identityNumberSpace = (long) Student.MAXIMUM_IDENTITY_NUMBER -
+                Student.MINIMUM_IDENTITY_NUMBER + 1;
+        identityNumberOffset = Math.floorMod(random.nextLong(), identityNumberSpace);
+        identityNumberStep = (long) (identityNumberSpace * 0.6180339887);
+        while (greatestCommonDivisor(identityNumberStep, identityNumberSpace) != 1)
+            identityNumberStep++;
+    }
+
+    /**
+     * Given a number of outcomes and a skew, create the cumulative distribution in which the
+     * (n)th outcome is proportional to 1 / n^skew.
+     *
+     * @param   outcomes    The number of outcomes.
+     * @param   skew        The exponent of the distribution.
+     * @return  The cumulative probability of each outcome.
+     */
+    private double[] createDistribution(int outcomes, double skew)
+    {
+        double[] distribution = new double[outcomes];
+        double total = 0;
+        for (int index = 0; index < outcomes; index++)
+        {
+            total += 1 / Math.pow(index + 1, skew);
+            distribution[index] = total;
+        }
+        for (int index = 0; index < outcomes; index++)
+            distribution[index] /= total;
+        return distribution;
+    }
+
+    /**
+     * Given an index, create the student at that position of the roster. Students must be created
+     * in order of their index for the roster to be the same on every run.
+     *
+     * @param   index   The position of the student on the roster.
+     * @return  The generated student.
+     */
+    public Student generateStudent(int index)
+    {
+        if (index < 0 || index >= identityNumberSpace)
+            throw new IllegalArgumentException("Only " + identityNumberSpace +
+                    " identity numbers are available!");
+        Student student = new Student();
+        student.setName(FIRST_NAMES[pickOutcome(firstNameDistribution)] + " " +
+                FAMILY_NAMES[pickOutcome(familyNameDistribution)]);
+        student.setIdentityNumber((int) (Student.MINIMUM_IDENTITY_NUMBER +
+                (identityNumberOffset + index * identityNumberStep) % identityNumberSpace));
+        boolean suspended = random.nextInt(SUSPENSION_ONE_IN) == 0;
+        student.setSuspension(suspended ? "false" : "true");
+        if (!suspended)
+            enrolRandomSubjects(student);
+        return student;
+    }
+
+    /**
+     * Given a number of students, create a StudentDatabase object holding that many generated
+     * students.
+     *
+     * @param   rosterSize  The number of students to be generated.
+     * @return  The list of generated students.
+     */
+    public StudentDatabase generateStudentDatabase(int rosterSize)
+    {
+        StudentDatabase studentDatabase = new StudentDatabase();
+        for (int index = 0; index < rosterSize; index++)
+            studentDatabase.addStudent(generateStudent(index));
+        return studentDatabase;
+    }
+
+    /**
+     * Enrol a student in a random number of subjects picked by popularity, skipping any subject
+     * that would take the student over the maximum credit.
+     *
+     * @param   student The student to be enrolled.
+     */
+    private void enrolRandomSubjects(Student student)
+    {
+        int subjectCount = 0;
+        int draw = random.nextInt(100);
+        while (draw >= SUBJECT_COUNT_WEIGHTS[subjectCount])
+        {
+            draw -= SUBJECT_COUNT_WEIGHTS[subjectCount];
+            subjectCount++;
+        }
+        boolean[] enrolled = new boolean[allSubjects.getSize()];
+        int totalCredit = 0;
+        int attempts = subjectCount * 4;
+        while (subjectCount > 0 && attempts > 0)
+        {
+            int subjectIndex = subjectsByPopularity[pickOutcome(subjectDistribution)];
+            Subject subject = allSubjects.getSubject(subjectIndex);
+            if (!enrolled[subjectIndex] &&
+                    totalCredit + subject.getCredit() <= Student.MAXIMUM_CREDIT)
+            {
+                student.enrolSubject(subject);
+                enrolled[subjectIndex] = true;
+                totalCredit += subject.getCredit();
+                subjectCount--;
+            }
+            attempts--;
+        }
+    }
+
+    /**
+     * Return the greatest common divisor of two numbers.
+     *
+     * @param   first   The first number.
+     * @param   second  The second number.
+     * @return  The greatest common divisor.
+     */
+    private long greatestCommonDivisor(long first, long second)
+    {
+        while (second != 0)
+        {
+            long remainder = first % second;
+            first = second;
+            second = remainder;
+        }
+        return first;
+    }
+
+    /**
+     * Generate a roster from the command line. The arguments are the subjects file, the number of
+     * students, the output file and, optionally, the seed.
+     *
+     * @param   args    The command line arguments.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 3)
+        {
+            Output.println("Usage: RosterGenerator <subjects file> <number of students> " +
+                    "<output file> [seed]");
+            return;
+        }
+        SubjectDatabase allSubjects = new SubjectDatabase();
+        for (String line : Files.readAllLines(Paths.get(args[0])))
+        {
+            String[] splitLine = line.split(",");
+            allSubjects.addSubject(new Subject(splitLine[0], Integer.parseInt(splitLine[1])));
+        }
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        RosterGenerator generator = new RosterGenerator(allSubjects, seed);
+        generator.writeStudentsFile(Integer.parseInt(args[1]), args[2]);
+    }
+
+    /**
+     * Given a cumulative distribution, draw an outcome from it.
+     *
+     * @param   distribution    The cumulative probability of each outcome.
+     * @return  The index of the outcome drawn.
+     */
+    private int pickOutcome(double[] distribution)
+    {
+        int index = Arrays.binarySearch(distribution, random.nextDouble());
+        if (index < 0)
+            index = -index - 1;
+        return Math.min(index, distribution.length - 1);
+    }
+
+    /**
+     * Generate the given number of students and write them to a text file in the format of
+     * "students.txt". The students are written as they are generated, so the roster does not
+     * have to fit in memory.
+     *
+     * @param   rosterSize  The number of students to be generated.
+     * @param   filename    The name of the text file to be written.
+     */
+    public void writeStudentsFile(int rosterSize, String filename) throws IOException
+    {
+        try (PrintWriter outputFile = new PrintWriter(Files.newBufferedWriter(Paths.get(filename))))
+        {
+            for (int index = 0; index < rosterSize; index++)
+                outputFile.println(generateStudent(index).toFileRecord());
+        }
+    }
+}
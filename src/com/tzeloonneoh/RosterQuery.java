@@ -0,0 +1,221 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The RosterQuery class is a query of the roster query language compiled by RosterQueryCompiler
+ * into an execution plan. The plan first narrows down the candidate students as far as an index
+ * allows and then checks the full condition of the query on each candidate only:
+ *
+ *     1) "id = <number>" in the top-level conjunction looks the student up in the index of
+ *        identity numbers;
+ *     2) "enrolled CONTAINS (...)" together with "suspended = true/false" in the top-level
+ *        conjunction reuses the cached result of the same "list students by subjects" query;
+ *     3) otherwise every student is scanned.
+ *
+ * The matching students are sorted if the query has an ORDER BY clause and cut off after the
+ * LIMIT, keeping only the best LIMIT students while scanning rather than sorting them all. The
+ * matching students are either collected into a list of students (execute()) or passed on one at
+ * a time as they are found (stream()), e.g. to a RosterExporter object. A compiled query holds no
+ * state of its own and can be run any number of times.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterQuery
+{
+    private String text;
+    private Predicate<Student> condition;
+    private Integer identityNumber;
+    private SubjectDatabase subjectsRequired;
+    private int suspension;
+    private Comparator<Student> order;
+    private String orderDescription;
+    private int limit;
+
+    /**
+     * Construct a compiled query.
+     *
+     * @param   text                The text of the query.
+     * @param   condition           The condition every matching student satisfies.
+     * @param   identityNumber      The identity number all matching students have, or null.
+     * @param   subjectsRequired    The subjects all matching students are enrolled in, or null.
+     * @param   suspension          The suspension status (0: any, 1: suspended or 2:
+     *                              unsuspended) of all matching students.
+     * @param   order               The order of the results, or null to keep the roster order.
+     * @param   orderDescription    The description of the order, or null.
+     * @param   limit               The maximum number of results, or 0 for no limit.
+     */
+    RosterQuery(String text, Predicate<Student> condition, Integer identityNumber,
+                SubjectDatabase subjectsRequired, int suspension, Comparator<Student> order,
+                String orderDescription, int limit)
+    {
+        this.text = text;
+        this.condition = condition;
+        this.identityNumber = identityNumber;
+        this.subjectsRequired = subjectsRequired;
+        this.suspension = suspension;
+        this.order = order;
+        this.orderDescription = orderDescription;
+        this.limit = limit;
+    }
+
+    /**
+     * Given the list of all students and (optionally) the cache of "list students by subjects"
+     * results, return the students matching the query.
+     *
+     * @param   allStudents         The list of students to be queried.
+     * @param   subjectFilterCache  The cache of subject filter results, or null.
+     * @return  The list of matching students, sorted and limited as requested.
+     */
+    public StudentDatabase execute(StudentDatabase allStudents,
+                                   SubjectFilterCache subjectFilterCache)
+    {
+        StudentDatabase results = new StudentDatabase();
+        stream(allStudents, subjectFilterCache, results::addStudent);
+        return results;
+    }
+
+    /**
+     * Return a description of the execution plan of the query.
+     *
+     * @return  The execution plan.
+     */
+    public String getPlan()
+    {
+        StringBuilder plan = new StringBuilder();
+        if (identityNumber != null)
+            plan.append("Index lookup of identity number ").append(identityNumber);
+        else if (subjectsRequired != null && suspension != 0)
+        {
+            plan.append("Cached subject filter of ").
+                    append(suspension == 1 ? "suspended" : "unsuspended").
+                    append(" students enrolled in");
+            for (int index = 0; index < subjectsRequired.getSize(); index++)
+                plan.append(index == 0 ? " " : ", ").
+                        append(subjectsRequired.getSubject(index).getName());
+        }
+        else
+            plan.append("Full scan");
+        plan.append(", filter");
+        if (order != null)
+            plan.append(", ").append(limit == 0 ? "sort" : "top " + limit).append(" by ").
+                    append(orderDescription);
+        else if (limit != 0)
+            plan.append(", stop after ").append(limit);
+        return plan.toString();
+    }
+
+    /**
+     * Return the text of the query.
+     *
+     * @return  The text of the query.
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Given the candidate students, return those matching the condition in the order of the
+     * query. With a limit, only the best students seen so far are kept in a bounded heap.
+     *
+     * @param   candidates  The candidate students.
+     * @return  The matching students in order.
+     */
+    private List<Student> select(StudentDatabase candidates)
+    {
+        if (limit == 0)
+        {
+            ArrayList<Student> matches = new ArrayList<>();
+            for (int index = 0; index < candidates.getSize(); index++)
+                if (condition.test(candidates.getStudent(index)))
+                    matches.add(candidates.getStudent(index));
+            matches.sort(order);
+            return matches;
+        }
+        PriorityQueue<Student> best = new PriorityQueue<>(limit + 1, order.reversed());
+        for (int index = 0; index < candidates.getSize(); index++)
+        {
+            Student student = candidates.getStudent(index);
+            if (!condition.test(student))
+                continue;
+            if (best.size() < limit)
+                best.add(student);
+            else if (order.compare(student, best.peek()) < 0)
+            {
+                best.poll();
+                best.add(student);
+            }
+        }
+        ArrayList<Student> matches = new ArrayList<>(best);
+        matches.sort(order);
+        return matches;
+    }
+
+    /**
+     * Given the list of all students, (optionally) the cache of "list students by subjects"
+     * results and a consumer, pass the students matching the query to the consumer one at a time,
+     * in the order of the query, without collecting them into a list of students. Without an ORDER
+     * BY clause a matching student is passed on as soon as it is found; with one, the matching
+     * students (or with a LIMIT, the best LIMIT of them) are held until the scan is over so that
+     * they can be sorted.
+     *
+     * @param   allStudents         The list of students to be queried.
+     * @param   subjectFilterCache  The cache of subject filter results, or null.
+     * @param   consumer            The consumer of the matching students.
+     * @return  The number of students passed to the consumer.
+     */
+    public int stream(StudentDatabase allStudents, SubjectFilterCache subjectFilterCache,
+                      Consumer<Student> consumer)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        StudentDatabase candidates;
+        if (identityNumber != null)
+            candidates = allStudents.filterStudentsByIdentityNumber(identityNumber);
+        else if (subjectsRequired != null && suspension != 0 && subjectFilterCache != null)
+            candidates = subjectFilterCache.filterStudents(allStudents, subjectsRequired,
+                    suspension);
+        else
+            candidates = allStudents;
+
+        int matches = 0;
+        if (order == null)
+        {
+            for (int index = 0; index < candidates.getSize() && (limit == 0 || matches < limit);
+                 index++)
+            {
+                Student student = candidates.getStudent(index);
+                if (condition.test(student))
+                {
+                    consumer.accept(student);
+                    matches++;
+                }
+            }
+        }
+        else
+        {
+            for (Student student : select(candidates))
+            {
+                consumer.accept(student);
+                matches++;
+            }
+        }
+        event.complete(Operation.RUN_QUERY, candidates.getSize(), matches);
+        MetricsRegistry.record(Operation.RUN_QUERY, startTime);
+        return matches;
+    }
+
+    /**
+     * Return the text of the query.
+     *
+     * @return  The text of the query.
+     */
+    public String toString()
+    {
+        return text;
+    }
+}
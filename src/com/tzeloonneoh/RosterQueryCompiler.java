@@ -0,0 +1,566 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The RosterQueryCompiler class parses queries of the roster query language and compiles them
+ * into RosterQuery objects. A query is a condition optionally followed by ORDER BY and LIMIT
+ * clauses, e.g.:
+ *
+ *     suspended = false AND enrolled CONTAINS ("Maths", "English") AND credits > 10
+ *     ORDER BY name LIMIT 50
+ *
+ * The fields are name, id, credits, suspended and enrolled. Conditions compare a field with a
+ * value (=, !=, <, <=, > and >=; names are compared regardless of case), "name CONTAINS" matches
+ * part of a name and "enrolled CONTAINS" takes a subject name or a parenthesised list of subject
+ * names that must all be enrolled in. Conditions are combined with AND, OR, NOT and parentheses.
+ * ORDER BY takes name, id or credits, optionally followed by ASC or DESC. Keywords are not case
+ * sensitive. An empty condition matches every student.
+ *
+ * Compiled queries are kept in a least recently used cache of "queryPlanCache.capacity" (default
+ * 128) queries keyed by their text, so running the same query again skips parsing.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterQueryCompiler
+{
+    private SubjectDatabase allSubjects;
+    private int capacity;
+    private LinkedHashMap<String, RosterQuery> plans;
+    private long hits;
+    private long misses;
+
+    private ArrayList<String> tokens;
+    private int position;
+
+    /**
+     * The Condition class is a node of the parsed condition of a query.
+     */
+    private static class Condition
+    {
+        private String operator;
+        private List<Condition> operands;
+        private String field;
+        private List<Object> values;
+        private Predicate<Student> predicate;
+
+        /**
+         * Construct an AND, OR or NOT node over the given operands.
+         *
+         * @param   operator    "AND", "OR" or "NOT".
+         * @param   operands    The operands.
+         * @param   predicate   The compiled predicate of the node.
+         */
+        private Condition(String operator, List<Condition> operands, Predicate<Student> predicate)
+        {
+            this.operator = operator;
+            this.operands = operands;
+            this.predicate = predicate;
+        }
+
+        /**
+         * Construct a comparison of a field with a list of values.
+         *
+         * @param   field       The field.
+         * @param   operator    The comparison operator.
+         * @param   values      The values.
+         * @param   predicate   The compiled predicate of the comparison.
+         */
+        private Condition(String field, String operator, List<Object> values,
+                          Predicate<Student> predicate)
+        {
+            this.field = field;
+            this.operator = operator;
+            this.values = values;
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * Construct a compiler of queries on students enrolling in the given subjects.
+     *
+     * @param   allSubjects The list of subjects offered at the school.
+     */
+    public RosterQueryCompiler(SubjectDatabase allSubjects)
+    {
+        this.allSubjects = allSubjects;
+        capacity = Integer.getInteger("queryPlanCache.capacity", 128);
+        plans = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Given the text of a query, return the compiled query, from the plan cache if it has been
+     * compiled before.
+     *
+     * @param   queryText   The text of the query.
+     * @return  The compiled query.
+     * @throws  IllegalArgumentException    If the query is not valid.
+     */
+    public synchronized RosterQuery compile(String queryText)
+    {
+        String key = queryText.trim();
+        RosterQuery query = plans.get(key);
+        if (query != null)
+        {
+            hits++;
+            return query;
+        }
+        misses++;
+        query = parse(key);
+        plans.put(key, query);
+        if (plans.size() > capacity)
+        {
+            Iterator<String> eldest = plans.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return query;
+    }
+
+    /**
+     * Given a comparison operator and the result of comparing a field with a value, check if the
+     * comparison holds.
+     *
+     * @param   operator    The comparison operator.
+     * @param   comparison  The result of comparing the field with the value.
+     * @return  true    If the comparison holds, false otherwise.
+     */
+    private static boolean compare(String operator, int comparison)
+    {
+        switch (operator)
+        {
+            case "=":
+                return comparison == 0;
+            case "!=":
+                return comparison != 0;
+            case "<":
+                return comparison < 0;
+            case "<=":
+                return comparison <= 0;
+            case ">":
+                return comparison > 0;
+            default:
+                return comparison >= 0;
+        }
+    }
+
+    /**
+     * Given the parsed conditions of the top-level conjunction, return the value of the
+     * comparison "field = value" among them.
+     *
+     * @param   conjuncts   The conditions that must all hold.
+     * @param   field       The field.
+     * @return  The value compared with, or null if there is no such comparison.
+     */
+    private static Object equalityOf(List<Condition> conjuncts, String field)
+    {
+        for (Condition conjunct : conjuncts)
+            if (field.equals(conjunct.field) && conjunct.operator.equals("="))
+                return conjunct.values.get(0);
+        return null;
+    }
+
+    /**
+     * Given a message, return the exception reporting it with the position in the query.
+     *
+     * @param   message The error message.
+     * @return  The exception to be thrown.
+     */
+    private IllegalArgumentException error(String message)
+    {
+        if (position >= tokens.size())
+            return new IllegalArgumentException(message + " at the end of the query");
+        String token = tokens.get(position);
+        return new IllegalArgumentException(message + " at " +
+                (token.startsWith("\"") ? token : "\"" + token + "\""));
+    }
+
+    /**
+     * Given an expected keyword or symbol, skip it or report an error.
+     *
+     * @param   expected    The expected token.
+     */
+    private void expect(String expected)
+    {
+        if (!skip(expected))
+            throw error("Expected " + expected);
+    }
+
+    /**
+     * Return the hit and miss counts of the plan cache as a string.
+     *
+     * @return  The statistics of the plan cache.
+     */
+    public synchronized String getStatistics()
+    {
+        return ("Query plan cache: " + plans.size() + "/" + capacity + " plans, " + hits +
+                " hits, " + misses + " misses");
+    }
+
+    /**
+     * Given the text of a query, parse and compile it.
+     *
+     * @param   queryText   The text of the query.
+     * @return  The compiled query.
+     */
+    private RosterQuery parse(String queryText)
+    {
+        tokens = tokenize(queryText);
+        position = 0;
+        Condition condition = null;
+        if (position < tokens.size() && !peek("ORDER") && !peek("LIMIT"))
+            condition = parseOr();
+
+        Comparator<Student> order = null;
+        String orderDescription = null;
+        if (skip("ORDER"))
+        {
+            expect("BY");
+            orderDescription = nextToken().toLowerCase();
+            switch (orderDescription)
+            {
+                case "name":
+                    order = Comparator.comparing(Student::getName, String.CASE_INSENSITIVE_ORDER);
+                    break;
+                case "id":
+                    order = Comparator.comparingInt(Student::getIdentityNumber);
+                    break;
+                case "credits":
+                    order = Comparator.comparingInt(Student::getTotalCredit);
+                    break;
+                default:
+                    position--;
+                    throw error("Expected name, id or credits");
+            }
+            if (skip("DESC"))
+            {
+                order = order.reversed();
+                orderDescription += " descending";
+            }
+            else
+                skip("ASC");
+            order = order.thenComparingInt(Student::getIdentityNumber);
+        }
+        int limit = 0;
+        if (skip("LIMIT"))
+        {
+            limit = parseNumber();
+            if (limit < 1)
+            {
+                position--;
+                throw error("LIMIT must be at least 1");
+            }
+        }
+        if (position < tokens.size())
+            throw error("Unexpected");
+
+        List<Condition> conjuncts = new ArrayList<>();
+        if (condition != null && "AND".equals(condition.operator))
+            conjuncts = condition.operands;
+        else if (condition != null)
+            conjuncts.add(condition);
+        Integer identityNumber = (Integer) equalityOf(conjuncts, "id");
+        Boolean suspended = (Boolean) equalityOf(conjuncts, "suspended");
+        SubjectDatabase subjectsRequired = null;
+        for (Condition conjunct : conjuncts)
+            if ("enrolled".equals(conjunct.field))
+            {
+                subjectsRequired = new SubjectDatabase();
+                for (Object subject : conjunct.values)
+                    subjectsRequired.addSubject((Subject) subject);
+            }
+        int suspension = (suspended == null ? 0 : (suspended ? 1 : 2));
+        return new RosterQuery(queryText, (condition == null ? student -> true :
+                condition.predicate), identityNumber, subjectsRequired, suspension, order,
+                orderDescription, limit);
+    }
+
+    /**
+     * Parse "condition AND condition ...".
+     *
+     * @return  The parsed conjunction.
+     */
+    private Condition parseAnd()
+    {
+        List<Condition> operands = new ArrayList<>();
+        operands.add(parseNot());
+        while (skip("AND"))
+            operands.add(parseNot());
+        if (operands.size() == 1)
+            return operands.get(0);
+        Predicate<Student> predicate = operands.get(0).predicate;
+        for (int index = 1; index < operands.size(); index++)
+            predicate = predicate.and(operands.get(index).predicate);
+        return new Condition("AND", operands, predicate);
+    }
+
+    /**
+     * Parse a comparison of a field with a value.
+     *
+     * @return  The parsed comparison.
+     */
+    private Condition parseComparison()
+    {
+        String field = nextToken().toLowerCase();
+        String operator = nextToken().toUpperCase();
+        List<Object> values = new ArrayList<>();
+        Predicate<Student> predicate;
+        switch (field)
+        {
+            case "name":
+                if (operator.equals("CONTAINS"))
+                {
+                    String part = parseString().toLowerCase();
+                    values.add(part);
+                    predicate = student -> student.getName().toLowerCase().contains(part);
+                }
+                else
+                {
+                    checkComparisonOperator(operator);
+                    String name = parseString();
+                    values.add(name);
+                    predicate = student -> compare(operator,
+                            String.CASE_INSENSITIVE_ORDER.compare(student.getName(), name));
+                }
+                break;
+
+            case "id":
+            case "credits":
+                checkComparisonOperator(operator);
+                int number = parseNumber();
+                values.add(number);
+                ToIntFunction<Student> value = (field.equals("id") ?
+                        Student::getIdentityNumber : Student::getTotalCredit);
+                predicate = student -> compare(operator,
+                        Integer.compare(value.applyAsInt(student), number));
+                break;
+
+            case "suspended":
+                if (!operator.equals("=") && !operator.equals("!="))
+                    throw error("Expected = or != after suspended");
+                String bool = nextToken().toLowerCase();
+                if (!bool.equals("true") && !bool.equals("false"))
+                {
+                    position--;
+                    throw error("Expected true or false");
+                }
+                boolean suspended = (Boolean.parseBoolean(bool) == operator.equals("="));
+                values.add(suspended);
+                predicate = student -> student.getSuspension() != suspended;
+                return new Condition(field, "=", values, predicate);
+
+            case "enrolled":
+                if (!operator.equals("CONTAINS"))
+                    throw error("Expected CONTAINS after enrolled");
+                SubjectDatabase subjects = new SubjectDatabase();
+                if (skip("("))
+                {
+                    do
+                        subjects.addSubject(parseSubject());
+                    while (skip(","));
+                    expect(")");
+                }
+                else
+                    subjects.addSubject(parseSubject());
+                for (int index = 0; index < subjects.getSize(); index++)
+                    values.add(subjects.getSubject(index));
+                predicate = student -> student.getSubjectsEnrolled().containsAll(subjects);
+                break;
+
+            default:
+                position -= 2;
+                throw error("Expected name, id, credits, suspended or enrolled");
+        }
+        return new Condition(field, operator, values, predicate);
+    }
+
+    /**
+     * Given the operator after a field, check that it is a comparison operator.
+     *
+     * @param   operator    The operator.
+     */
+    private void checkComparisonOperator(String operator)
+    {
+        if (!Arrays.asList("=", "!=", "<", "<=", ">", ">=").contains(operator))
+        {
+            position--;
+            throw error("Expected a comparison operator");
+        }
+    }
+
+    /**
+     * Parse "NOT condition", "(condition)" or a comparison.
+     *
+     * @return  The parsed condition.
+     */
+    private Condition parseNot()
+    {
+        if (skip("NOT"))
+        {
+            Condition operand = parseNot();
+            return new Condition("NOT", List.of(operand), operand.predicate.negate());
+        }
+        if (skip("("))
+        {
+            Condition condition = parseOr();
+            expect(")");
+            return condition;
+        }
+        return parseComparison();
+    }
+
+    /**
+     * Parse a whole number.
+     *
+     * @return  The number.
+     */
+    private int parseNumber()
+    {
+        String token = nextToken();
+        try
+        {
+            return Integer.parseInt(token);
+        }
+        catch (NumberFormatException e)
+        {
+            position--;
+            throw error("Expected a number");
+        }
+    }
+
+    /**
+     * Parse "condition OR condition ...".
+     *
+     * @return  The parsed disjunction.
+     */
+    private Condition parseOr()
+    {
+        List<Condition> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (skip("OR"))
+            operands.add(parseAnd());
+        if (operands.size() == 1)
+            return operands.get(0);
+        Predicate<Student> predicate = operands.get(0).predicate;
+        for (int index = 1; index < operands.size(); index++)
+            predicate = predicate.or(operands.get(index).predicate);
+        return new Condition("OR", operands, predicate);
+    }
+
+    /**
+     * Parse a quoted string.
+     *
+     * @return  The string without its quotes.
+     */
+    private String parseString()
+    {
+        String token = nextToken();
+        if (token.length() < 2 || !token.startsWith("\""))
+        {
+            position--;
+            throw error("Expected a quoted string");
+        }
+        return token.substring(1, token.length() - 1);
+    }
+
+    /**
+     * Parse the quoted name of a subject offered at the school.
+     *
+     * @return  The subject.
+     */
+    private Subject parseSubject()
+    {
+        String name = parseString();
+        for (int index = 0; index < allSubjects.getSize(); index++)
+            if (allSubjects.getSubject(index).getName().equalsIgnoreCase(name))
+                return allSubjects.getSubject(index);
+        position--;
+        throw error("Unknown subject");
+    }
+
+    /**
+     * Return the next token, or report an error at the end of the query.
+     *
+     * @return  The next token.
+     */
+    private String nextToken()
+    {
+        if (position >= tokens.size())
+            throw new IllegalArgumentException("Unexpected end of query");
+        return tokens.get(position++);
+    }
+
+    /**
+     * Given a keyword or symbol, check if it is the next token.
+     *
+     * @param   expected    The keyword (not case sensitive) or symbol.
+     * @return  true    If the next token is the keyword or symbol, false otherwise.
+     */
+    private boolean peek(String expected)
+    {
+        return (position < tokens.size() && tokens.get(position).equalsIgnoreCase(expected));
+    }
+
+    /**
+     * Given a keyword or symbol, skip it if it is the next token.
+     *
+     * @param   expected    The keyword (not case sensitive) or symbol.
+     * @return  true    If the token was skipped, false otherwise.
+     */
+    private boolean skip(String expected)
+    {
+        if (!peek(expected))
+            return false;
+        position++;
+        return true;
+    }
+
+    /**
+     * Given the text of a query, split it into words, numbers, quoted strings (kept with their
+     * quotes) and symbols.
+     *
+     * @param   queryText   The text of the query.
+     * @return  The list of tokens.
+     */
+    private ArrayList<String> tokenize(String queryText)
+    {
+        ArrayList<String> tokens = new ArrayList<>();
+        int index = 0;
+        while (index < queryText.length())
+        {
+            char character = queryText.charAt(index);
+            int start = index;
+            if (Character.isWhitespace(character))
+            {
+                index++;
+                continue;
+            }
+            if (character == '"')
+            {
+                index = queryText.indexOf('"', index + 1);
+                if (index < 0)
+                    throw new IllegalArgumentException("Unterminated string");
+                index++;
+            }
+            else if (Character.isLetterOrDigit(character) || character == '-')
+            {
+                index++;
+                while (index < queryText.length() &&
+                        Character.isLetterOrDigit(queryText.charAt(index)))
+                    index++;
+            }
+            else if ((character == '!' || character == '<' || character == '>') &&
+                    index + 1 < queryText.length() && queryText.charAt(index + 1) == '=')
+                index += 2;
+            else if ("=<>(),".indexOf(character) >= 0)
+                index++;
+            else
+                throw new IllegalArgumentException("Unexpected character '" + character +
+                        "' in the query");
+            tokens.add(queryText.substring(start, index));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tzeloonneoh;
+
+/**
+ * The RosterVersion class represents an immutable version of a list of students, as published by
+ * StudentDatabase.publishVersion(): the students on the list, in order, at the time the version
+ * was published. A listing pins a version simply by holding on to it and iterates it without
+ * taking any lock, while the list itself goes on being changed and new versions are published.
+ * The list only refers to its latest version, so an older version is reclaimed by the garbage
+ * collector as soon as the last listing holding it is done.
+ *
+ * A version fixes which students are listed; it does not copy the students. The enrolled subjects
+ * of a student are read as one immutable EnrolledSubjects object, so a student is never listed
+ * half way through a change, but a student changed after the version was published is listed as
+ * it is now.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class RosterVersion
+{
+    private final Student[] students;
+    private final long number;
+
+    /**
+     * Construct a version holding the given students.
+     *
+     * @param   students    The students on the list, in order; the array must not be changed.
+     * @param   number      The number of changes made to the list before the version.
+     */
+    RosterVersion(Student[] students, long number)
+    {
+        this.students = students;
+        this.number = number;
+    }
+
+    /**
+     * Return the number of changes (students added or removed) made to the list before a
+     * RosterVersion object was published; a later version has a larger number.
+     *
+     * @return  The version number.
+     */
+    public long getNumber()
+    {
+        return number;
+    }
+
+    /**
+     * Return the number of students in a RosterVersion object.
+     *
+     * @return  The number of students.
+     */
+    public int getSize()
+    {
+        return students.length;
+    }
+
+    /**
+     * Given an integer, return the student at the (integer)th index of a RosterVersion object.
+     *
+     * @param   index   The index of the student.
+     * @return  The student at the given index.
+     */
+    public Student getStudent(int index)
+    {
+        return students[index];
+    }
+
+    /**
+     * Print out all students of a RosterVersion object, numbered from 1.
+     */
+    public void printRosterVersion()
+    {
+        for (int index = 0; index < students.length; index++)
+            Output.println((index + 1) + ". " + students[index].toString());
+        Output.println("");
+    }
+}
@@ -16,6 +16,12 @@ import java.util.*;
  * unsuspend a student, enrol/unenrol a student in/from multiple subjects) and list all the
  * subjects offered at the school.
  *
+ * While the menus are running, the subjects file is watched for changes (see SubjectFileWatcher)
+ * and reloaded before the next menu is shown, so that subjects can be added and their credit
+ * points changed without restarting the system and reloading the students (see
+ * reloadSubjects()). Run with the system property "subjects.watch" set to false to switch this
+ * off.
+ *
  * @author Tze Loon Neoh
  * @version 29 Oct 2021
  */
@@ -23,37 +29,223 @@ public class SchoolManager
 {
     private SubjectDatabase allSubjects;
     private StudentDatabase allStudents;
+    private SubjectFilterCache subjectFilterCache;
+    private ChangeJournal changeJournal;
+    private RosterQueryCompiler queryCompiler;
+    private EnrolmentPlanner enrolmentPlanner;
+    private boolean lazyEnrolments;
+    private String subjectsFilename;
+    private ArrayList<String> rejectedStudentLines;
+    private SubjectFileWatcher subjectFileWatcher;
 
     /**
      * Create the School Management System and initialise its two embedded lists of all subjects
      * and all students.
      */
     public SchoolManager()
+    {
+        this("./src/com/tzeloonneoh/subjects.txt", "./src/com/tzeloonneoh/students.txt");
+    }
+
+    /**
+     * Create the School Management System and initialise its two embedded lists of all subjects
+     * and all students from the given text files. If the system property "journal.file" is set,
+     * every change to the list of students is also written to that journal for RosterFollower
+     * processes to replay. If the system property "students.lazyEnrolments" is true, the enrolled
+     * subjects of each student are only looked up the first time they are needed.
+     *
+     * @param   subjectsFilename    The name of the text file from which the subject data are to be
+     *                              read.
+     * @param   studentsFilename    The name of the text file from which the student data are to be
+     *                              read.
+     */
+    public SchoolManager(String subjectsFilename, String studentsFilename)
     {
         allSubjects = new SubjectDatabase();
-        initialiseSubjectDatabase("./src/com/tzeloonneoh/subjects.txt");
+        lazyEnrolments = Boolean.getBoolean("students.lazyEnrolments");
+        this.subjectsFilename = subjectsFilename;
+        initialiseSubjectDatabase(subjectsFilename);
         allStudents = new StudentDatabase();
-        initialiseStudentDatabase("./src/com/tzeloonneoh/students.txt");
+        initialiseStudentDatabase(studentsFilename);
+        subjectFilterCache =
+                new SubjectFilterCache(Integer.getInteger("subjectFilterCache.capacity", 64));
+        queryCompiler = new RosterQueryCompiler(allSubjects);
+        enrolmentPlanner = new EnrolmentPlanner(Student.MAXIMUM_CREDIT);
+        MetricsRegistry.registerMBean();
+        String journalFilename = System.getProperty("journal.file");
+        if (journalFilename != null)
+        {
+            changeJournal = new ChangeJournal(journalFilename, studentsFilename);
+            allStudents.addChangeListener(changeJournal);
+        }
     }
 
     /**
-     * Calculate the total credit points of all subjects on a subject list and return the sum.
+     * Given a bulk action, a query and a list of subjects, apply the action to every student
+     * matching the query in a single pass over the list of all students. Suspending a student
+     * also empties the list of enrolled subjects. Enrolling/unenrolling a student is committed as
+     * a transaction of the student (see Student.updateEnrolments()), so a student is only enrolled
+     * in the subjects not yet enrolled in, and only if the total credit stays within the maximum
+     * and the subjects have free seats, even while other threads change the enrolments of the
+     * student; suspended students cannot be enrolled/unenrolled. The cached query results are
+     * invalidated once for all the changed students, and for the students enrolled from waitlists
+     * in the seats given back. The changes are published between a BULK_BEGIN and a BULK_END
+     * event, so that the change journal records the action as one grouped entry.
      *
-     * @param   subjectsEnrolled The list of subjects to be processed.
-     * @return  The total credit points.
+     * @param   action      The action to be applied.
+     * @param   query       The query selecting the students.
+     * @param   subjects    The subjects to enrol in or unenrol from (ignored when suspending or
+     *                      unsuspending).
+     * @return  The numbers of changed, rejected and unchanged students.
      */
-    private int calculateTotalCredit(SubjectDatabase subjectsEnrolled)
+    BulkResult applyBulkAction(BulkAction action, StudentQuery query, SubjectDatabase subjects)
     {
-        int totalCredit = 0;
-        int index = 0;
-        while (index < subjectsEnrolled.getSize())
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        BulkResult result = new BulkResult(action);
+        boolean trackChanges = !subjectFilterCache.isEmpty();
+        ArrayList<SubjectFilterCache.Snapshot> before = new ArrayList<>();
+        ArrayList<Student> changedStudents = new ArrayList<>();
+        allStudents.beginBulkChange(action.toString());
+        for (int index = 0; index < allStudents.getSize(); index++)
         {
-            Subject subjectEnrolled = subjectsEnrolled.getSubject(index);
-            int credit = subjectEnrolled.getCredit();
-            totalCredit += credit;
-            index++;
+            Student student = allStudents.getStudent(index);
+            if (!query.matches(student))
+                continue;
+            if (action == BulkAction.SUSPEND || action == BulkAction.UNSUSPEND)
+            {
+                if (student.getSuspension() != (action == BulkAction.SUSPEND))
+                {
+                    result.recordUnchanged();
+                    continue;
+                }
+            }
+            else if (!student.getSuspension())
+            {
+                result.recordRejected();
+                continue;
+            }
+
+            SubjectFilterCache.Snapshot snapshot =
+                    trackChanges ? subjectFilterCache.snapshot(student) : null;
+            switch (action)
+            {
+                case SUSPEND:
+                    student.setSuspension("false");
+                    invalidatePromotions(student.clearSubjectsEnrolled().getStudentsPromoted());
+                    break;
+
+                case UNSUSPEND:
+                    student.setSuspension("true");
+                    break;
+
+                case ENROL:
+                case UNENROL:
+                    EnrolmentResult enrolment = action == BulkAction.ENROL ?
+                            student.updateEnrolments(subjects, new SubjectDatabase()) :
+                            student.updateEnrolments(new SubjectDatabase(), subjects);
+                    invalidatePromotions(enrolment.getStudentsPromoted());
+                    if (enrolment.getStatus() == EnrolmentResult.Status.CREDIT_EXCEEDED ||
+                            enrolment.getStatus() == EnrolmentResult.Status.SUBJECT_FULL)
+                    {
+                        result.recordRejected();
+                        continue;
+                    }
+                    if (enrolment.getStatus() == EnrolmentResult.Status.UNCHANGED)
+                    {
+                        result.recordUnchanged();
+                        continue;
+                    }
+                    break;
+            }
+            if (trackChanges)
+            {
+                before.add(snapshot);
+                changedStudents.add(student);
+            }
+            result.recordApplied();
         }
-        return totalCredit;
+        allStudents.endBulkChange(action.toString());
+        subjectFilterCache.invalidate(before, changedStudents);
+        event.complete(Operation.BULK_UPDATE, allStudents.getSize(), result.getApplied());
+        MetricsRegistry.record(Operation.BULK_UPDATE, startTime);
+        return result;
+    }
+
+    /**
+     * Ask the user for a bulk action, the query selecting the students to which it applies and,
+     * when enrolling/unenrolling, the subjects. Apply the action and print out how many students
+     * were changed, rejected and left unchanged.
+     */
+    private void bulkUpdateStudents()
+    {
+        Output.print("Select an action >> (1) Suspend, (2) Unsuspend, (3) Enrol or " +
+                "(4) Unenrol: ");
+        BulkAction action = BulkAction.values()[integerInput(1, 4) - 1];
+        Output.print("\nApply to students who are >> (1) Suspended, (2) Unsuspended or " +
+                "(3) Either: ");
+        int suspension = integerInput(1, 3) % 3;
+        Output.print("\nApply to students with fewer than how many credits? (1 - " +
+                (Student.MAXIMUM_CREDIT + 1) + ", " + (Student.MAXIMUM_CREDIT + 1) +
+                " for any): ");
+        int creditLimit = integerInput(1, Student.MAXIMUM_CREDIT + 1);
+        Output.println("\nApply to students enrolled in which subject(s)?");
+        Output.println("(0) Any subjects");
+        allSubjects.displaySubjectDatabaseAsOptions();
+        printMessage("");
+        SubjectDatabase subjectsRequired = allSubjects.matchSubjectsByIndexes(
+                extractOnlyIntegers());
+        SubjectDatabase subjectsSelected = new SubjectDatabase();
+        if (action == BulkAction.ENROL || action == BulkAction.UNENROL)
+        {
+            Output.println("Choose subject(s) to enrol in/unenrol from by the preceding " +
+                    "number(s):");
+            allSubjects.displaySubjectDatabaseAsOptions();
+            printMessage("");
+            subjectsSelected = allSubjects.matchSubjectsByIndexes(extractOnlyIntegers());
+            if (subjectsSelected.getSize() == 0)
+            {
+                Output.println("No subject to enrol/unenrol!");
+                printMessage("");
+                return;
+            }
+        }
+        StudentQuery query = new StudentQuery(suspension, creditLimit, subjectsRequired);
+        BulkResult result = applyBulkAction(action, query, subjectsSelected);
+        Output.println(query + ": " + result);
+        printMessage("");
+    }
+
+    /**
+     * Given the outcome of an enrolment rejected because the maximum credit would be exceeded and
+     * the subjects the user selected, print out how much credit the student has left and the best
+     * combinations of the selected subjects that fit into it (up to the number set by the system
+     * property "enrolmentPlanner.options", 5 by default), and ask the user to choose one.
+     *
+     * @param   result          The outcome of the rejected enrolment.
+     * @param   subjectsWished  The subjects selected by the user, in the order selected.
+     * @return  The subjects of the chosen combination, or null if none is chosen or none fits.
+     */
+    private SubjectDatabase chooseEnrolmentPlan(EnrolmentResult result,
+                                                SubjectDatabase subjectsWished)
+    {
+        Output.println("Maximum credit exceeded!");
+        Output.println("\nThis student can only enrol in subjects with a total credit of not " +
+                "more than " + result.getAvailableCredit() + ".");
+        printMessage("");
+        EnrolmentPlan plan = enrolmentPlanner.plan(result.getEnrolments(), subjectsWished,
+                Integer.getInteger("enrolmentPlanner.options", 5));
+        if (plan.getSize() == 0)
+            return null;
+        Output.println("Combinations of the selected subjects within the maximum credit, best " +
+                "first (" + plan.getFeasibleCount() + " feasible in total):");
+        Output.println("(0) Not to enrol in any of them for now");
+        plan.displayEnrolmentPlanAsOptions();
+        Output.print("\nChoose a combination: ");
+        int choice = integerInput(0, plan.getSize());
+        Output.println("");
+        return (choice > 0 ? plan.getOption(choice - 1) : null);
     }
 
     /**
@@ -62,116 +254,265 @@ public class SchoolManager
      * appropriate attribute. Retrieve Subject object(s) from the list of all subjects by the
      * subject name(s) (from the 4th element onwards in the string, if there is any), create a
      * SubjectDatabase object to store the retrieved Subject object(s), and store the
-     * SubjectDatabase object in the Student object.
+     * SubjectDatabase object in the Student object. The subjects are retrieved lazily if the
+     * system property "students.lazyEnrolments" is true. Strings with invalid fields are left out.
      *
      * @param   textLines   The list of strings to be processed.
      * @return  The list of all students.
      */
-    private StudentDatabase createStudentListFromText(ArrayList<String> textLines)
+    StudentDatabase createStudentListFromText(ArrayList<String> textLines)
+    {
+        return createStudentListFromText(textLines, lazyEnrolments);
+    }
+
+    /**
+     * Given a list of strings and whether the enrolments are to be decoded lazily, create the list
+     * of all students from the strings. Strings with invalid fields are left out.
+     *
+     * @param   textLines       The list of strings to be processed.
+     * @param   lazyEnrolments  true to decode the enrolments lazily, false to decode them now.
+     * @return  The list of all students.
+     */
+    StudentDatabase createStudentListFromText(ArrayList<String> textLines, boolean lazyEnrolments)
+    {
+        return createStudentListFromText(textLines, lazyEnrolments, new LoadReport("students"));
+    }
+
+    /**
+     * Given a list of strings, whether the enrolments are to be decoded lazily and a load report,
+     * create the list of all students from the strings. The name, identity number and suspension
+     * status of each string are validated without printing anything; a string with any invalid
+     * field (or too few fields) is left out and its errors are added to the report. When loading
+     * lazily, the rest of a valid string (the enrolled subjects) is appended as it is to a
+     * PendingEnrolments object shared by the students and decoded the first time the enrolled
+     * subjects of a student are needed, so that loading time and memory depend mostly on the
+     * fields needed to index the students.
+     *
+     * @param   textLines       The list of strings to be processed.
+     * @param   lazyEnrolments  true to decode the enrolments lazily, false to decode them now.
+     * @param   report          The report to which the rejected strings are added.
+     * @return  The list of all students.
+     */
+    StudentDatabase createStudentListFromText(ArrayList<String> textLines, boolean lazyEnrolments,
+                                              LoadReport report)
     {
         StudentDatabase studentList = new StudentDatabase();
+        PendingEnrolments pendingEnrolments = (lazyEnrolments ? new PendingEnrolments(allSubjects) :
+                null);
+        EnumSet<ValidationResult> errors = EnumSet.noneOf(ValidationResult.class);
+        int lineNumber = 0;
         Iterator<String> it = textLines.iterator();
         while (it.hasNext())
         {
             Student student = new Student();
             String line = it.next();
-            String[] splitLine = line.split(",");
-            student.setName(splitLine[0]);
-            student.setIdentityNumber(Integer.parseInt(splitLine[1]));
-            student.setSuspension(splitLine[2]);
-            for (int index1 = 3; index1 < splitLine.length; index1+=2)
+            lineNumber++;
+            errors.clear();
+            int nameEnd = line.indexOf(',');
+            int identityNumberEnd = (nameEnd < 0 ? -1 : line.indexOf(',', nameEnd + 1));
+            int suspensionEnd = -1;
+            if (identityNumberEnd < 0)
+                errors.add(ValidationResult.MISSING_FIELDS);
+            else
             {
-                for (int index2 = 0; index2 < allSubjects.getSize(); index2++)
-                    if (splitLine[index1].equals(allSubjects.getSubject(index2).getName()))
+                suspensionEnd = line.indexOf(',', identityNumberEnd + 1);
+                recordValidation(errors, student.updateName(line.substring(0, nameEnd)));
+                try
+                {
+                    recordValidation(errors, student.updateIdentityNumber(
+                            Integer.parseInt(line.substring(nameEnd + 1, identityNumberEnd))));
+                }
+                catch (NumberFormatException e)
+                {
+                    errors.add(ValidationResult.MALFORMED_IDENTITY_NUMBER);
+                }
+                recordValidation(errors, student.updateSuspension(suspensionEnd < 0 ?
+                        line.substring(identityNumberEnd + 1) :
+                        line.substring(identityNumberEnd + 1, suspensionEnd)));
+            }
+            if (!report.checkLine(lineNumber, line, errors))
+                continue;
+            if (suspensionEnd >= 0 && suspensionEnd + 1 < line.length())
+            {
+                if (lazyEnrolments)
+                    student.setPendingEnrolments(pendingEnrolments,
+                            pendingEnrolments.append(line, suspensionEnd + 1));
+                else
+                {
+                    String[] splitEnrolments = line.substring(suspensionEnd + 1).split(",");
+                    SubjectDatabase subjectsEnrolled = new SubjectDatabase();
+                    for (int index1 = 0; index1 < splitEnrolments.length; index1+=2)
                     {
-                        student.enrolSubject(allSubjects.getSubject(index2));
+                        for (int index2 = 0; index2 < allSubjects.getSize(); index2++)
+                            if (splitEnrolments[index1].equals(
+                                    allSubjects.getSubject(index2).getName()))
+                            {
+                                subjectsEnrolled.addSubject(allSubjects.getSubject(index2));
+                            }
                     }
+                    student.initialiseEnrolments(subjectsEnrolled);
+                }
             }
             studentList.addStudent(student);
         }
+        if (pendingEnrolments != null)
+            pendingEnrolments.trimToSize();
         return studentList;
     }
 
     /**
-     * Given a list of strings, iterate through the list, separate the comma-separated elements in
-     * each string, create a Subject object to store each element in the appropriate attribute,
-     * and create a SubjectDatabase object to store the Subject object.
+     * Given a list of strings and a load report, iterate through the list, separate the
+     * comma-separated elements in each string, create a Subject object to store each element in
+     * the appropriate attribute, and create a SubjectDatabase object to store the Subject object.
+     * The fields are validated without printing anything; a string with any invalid field (or too
+     * few fields) is left out and its errors are added to the report.
      *
      * @param   textLines   The list of strings to be processed.
+     * @param   report      The report to which the rejected strings are added.
      * @return  The list of all subjects.
      */
-    private SubjectDatabase createSubjectListFromText(ArrayList<String> textLines)
+    private SubjectDatabase createSubjectListFromText(ArrayList<String> textLines,
+                                                      LoadReport report)
     {
         SubjectDatabase subjectList = new SubjectDatabase();
+        EnumSet<ValidationResult> errors = EnumSet.noneOf(ValidationResult.class);
+        int lineNumber = 0;
         Iterator<String> it = textLines.iterator();
         while (it.hasNext())
         {
             Subject subject = new Subject();
             String line = it.next();
+            lineNumber++;
+            errors.clear();
             String[] splitLine = line.split(",");
-            subject.setName(splitLine[0]);
-            subject.setCredit(Integer.parseInt(splitLine[1]));
-            subjectList.addSubject(subject);
+            if (splitLine.length < 2)
+                errors.add(ValidationResult.MISSING_FIELDS);
+            else
+            {
+                recordValidation(errors, subject.updateName(splitLine[0]));
+                try
+                {
+                    recordValidation(errors, subject.updateCredit(Integer.parseInt(splitLine[1])));
+                }
+                catch (NumberFormatException e)
+                {
+                    errors.add(ValidationResult.MALFORMED_CREDIT);
+                }
+                if (splitLine.length > 2)
+                    try
+                    {
+                        recordValidation(errors,
+                                subject.updateCapacity(Integer.parseInt(splitLine[2])));
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        errors.add(ValidationResult.MALFORMED_CAPACITY);
+                    }
+            }
+            if (report.checkLine(lineNumber, line, errors))
+                subjectList.addSubject(subject);
         }
         return subjectList;
     }
 
     /**
-     * Display the submenu of "List students" with 4 options.
+     * Display the submenu of "List students" with 7 options.
      */
     private void displayListStudentsMenu()
     {
-        System.out.println("List students" +
+        Output.println("List students" +
                 "\n(1) List students by subjects" +
                 "\n(2) List students by suspension status" +
                 "\n(3) List all students" +
-                "\n(4) Back to main menu");
+                "\n(4) Query students" +
+                "\n(5) Search students by name" +
+                "\n(6) Export students to a file" +
+                "\n(7) Back to main menu");
     }
 
     /**
-     * Display the main menu of the School Management System with 4 options.
+     * Display the main menu of the School Management System with 5 options.
      */
     private void displayMainMenu()
     {
-        System.out.println("Welcome to My School Manager" +
+        Output.println("Welcome to My School Manager" +
                 "\n(1) List students" +
                 "\n(2) Manage students" +
                 "\n(3) List all subjects" +
-                "\n(4) Exit system");
+                "\n(4) Show operation metrics" +
+                "\n(5) Exit system");
     }
 
     /**
-     * Display the submenu of "Manage students" with 5 options.
+     * Display the submenu of "Manage students" with 6 options.
      */
     private void displayManageStudentsMenu()
     {
-        System.out.println("Manage students" +
+        Output.println("Manage students" +
                 "\n(1) Add new student" +
                 "\n(2) Delete student" +
                 "\n(3) Suspend/unsuspend student" +
                 "\n(4) Edit student's subjects" +
-                "\n(5) Back to main menu");
+                "\n(5) Bulk update students" +
+                "\n(6) Back to main menu");
     }
 
     /**
-     * Perform set operation exception of two subject lists.
-     *
-     * @param   main    The main list of subjects to be processed.
-     * @param   check   The sublist of subjects to be processed.
-     * @return  The relative complement of the main list in the sublist.
+     * Ask for a query (empty for all students), a format and a file name, and stream the students
+     * matching the query to the file through a RosterExporter object, without collecting them into
+     * a list of students first. The subject filter cache is not used, as it would collect the
+     * matching students into a cached list. The number of students exported and the throughput
+     * are printed out once the file is written.
      */
-    private SubjectDatabase exceptSubjectDatabases(SubjectDatabase main, SubjectDatabase check)
+    private void exportStudents()
     {
-        SubjectDatabase exception = check;
-        for (int index1 = 0; index1 < main.getSize(); index1++)
+        Output.println("e.g. suspended = false AND credits > 10 (leave empty to export all " +
+                "students)");
+        Output.print("Enter query: ");
+        String queryText = stringInput().trim();
+        RosterQuery query = null;
+        if (!queryText.isEmpty())
+        {
+            try
+            {
+                query = queryCompiler.compile(queryText);
+            }
+            catch (IllegalArgumentException e)
+            {
+                Output.println("\nInvalid query: " + e.getMessage());
+                printMessage("");
+                return;
+            }
+        }
+        Output.print("Export as >> (1) CSV or (2) JSON Lines: ");
+        RosterExporter.Format format = (integerInput(1, 2) == 1 ? RosterExporter.Format.CSV :
+                RosterExporter.Format.JSON_LINES);
+        Output.print("Enter file name (leave empty for students" +
+                (format == RosterExporter.Format.CSV ? ".csv" : ".jsonl") + "): ");
+        String filename = stringInput().trim();
+        if (filename.isEmpty())
+            filename = "students" + (format == RosterExporter.Format.CSV ? ".csv" : ".jsonl");
+        RosterExporter exporter;
+        try (RosterExporter openExporter = new RosterExporter(filename, format))
         {
-            for (int index2 = 0; index2 < check.getSize(); index2++)
+            exporter = openExporter;
+            if (query == null)
             {
-                if (main.getSubject(index1).equals(check.getSubject(index2)))
-                    exception.removeSubject(check.getSubject(index2));
+                RosterVersion rosterVersion = allStudents.publishVersion();
+                for (int index = 0; index < rosterVersion.getSize(); index++)
+                    exporter.accept(rosterVersion.getStudent(index));
             }
+            else
+                query.stream(allStudents, null, exporter);
         }
-        return exception;
+        catch (IOException e)
+        {
+            Output.println("\n" + filename + " could not be written (" + e.getMessage() + ")!");
+            printMessage("");
+            return;
+        }
+        Output.println("\n" + exporter.getStatistics());
+        printMessage("");
     }
 
     /**
@@ -183,8 +524,9 @@ public class SchoolManager
      */
     private ArrayList<Integer> extractOnlyIntegers()
     {
-        System.out.print("Enter number(s) between 0 - " + allSubjects.getSize() + ": ");
+        Output.print("Enter number(s) between 0 - " + allSubjects.getSize() + ": ");
         ArrayList<Integer> uniqueSubjectIndexes = new ArrayList<>();
+        Output.flush();
         Scanner console = new Scanner(System.in);
         Scanner check = new Scanner(console.nextLine());
         printMessage("");
@@ -212,6 +554,40 @@ public class SchoolManager
         return uniqueSubjectIndexes;
     }
 
+    /**
+     * Return the list of all students in the school.
+     *
+     * @return  The list of all students.
+     */
+    StudentDatabase getAllStudents()
+    {
+        return allStudents;
+    }
+
+    /**
+     * Return the list of all subjects offered at the school.
+     *
+     * @return  The list of all subjects.
+     */
+    SubjectDatabase getAllSubjects()
+    {
+        return allSubjects;
+    }
+
+    /**
+     * Check if any of the subjects offered at the school has a capacity, i.e., if seats need to be
+     * counted.
+     *
+     * @return  true    If a subject has a capacity, false otherwise.
+     */
+    private boolean hasSubjectsWithCapacity()
+    {
+        for (int index = 0; index < allSubjects.getSize(); index++)
+            if (allSubjects.getSubject(index).hasCapacity())
+                return true;
+        return false;
+    }
+
     /**
      * Given a list of integers, check if the list is not empty.
      *
@@ -226,6 +602,18 @@ public class SchoolManager
             return true;
     }
 
+    /**
+     * Given the students just enrolled from waitlists, discard the cached query results that they
+     * may have entered.
+     *
+     * @param   studentsPromoted    The students enrolled from waitlists.
+     */
+    private void invalidatePromotions(ArrayList<Student> studentsPromoted)
+    {
+        for (Student student : studentsPromoted)
+            subjectFilterCache.invalidatePromotion(student);
+    }
+
     /**
      * Initialise the student list after its declaration with the data read from the text file.
      *
@@ -234,8 +622,23 @@ public class SchoolManager
      */
     private void initialiseStudentDatabase(String textFilename)
     {
+        long startTime = MetricsRegistry.startTimer();
+        RosterFileEvent event = new RosterFileEvent();
+        event.begin();
         ArrayList<String> textLines = readFile(textFilename);
-        allStudents = createStudentListFromText(textLines);
+        LoadReport report = new LoadReport(textFilename);
+        allStudents = createStudentListFromText(textLines, lazyEnrolments, report);
+        rejectedStudentLines = report.getRejectedLines();
+        report.setRejectedLinesNote("The rejected lines are not loaded but are kept, and are " +
+                "written back unchanged at the end of the file when the students are saved.");
+        if (hasSubjectsWithCapacity())
+            for (int index = 0; index < allStudents.getSize(); index++)
+                allStudents.getStudent(index).claimSeats();
+        if (report.hasErrors())
+            Output.println(report + "\n");
+        event.complete(Operation.LOAD_STUDENTS, textFilename, allStudents.getSize(),
+                new File(textFilename).length());
+        MetricsRegistry.record(Operation.LOAD_STUDENTS, startTime);
     }
 
     /**
@@ -246,8 +649,19 @@ public class SchoolManager
      */
     private void initialiseSubjectDatabase(String textFilename)
     {
+        long startTime = MetricsRegistry.startTimer();
+        RosterFileEvent event = new RosterFileEvent();
+        event.begin();
         ArrayList<String> textLines = readFile(textFilename);
-        allSubjects = createSubjectListFromText(textLines);
+        LoadReport report = new LoadReport(textFilename);
+        allSubjects = createSubjectListFromText(textLines, report);
+        report.setRejectedLinesNote("The rejected lines are not loaded; the subjects file is " +
+                "never rewritten, so they stay in it.");
+        if (report.hasErrors())
+            Output.println(report + "\n");
+        event.complete(Operation.LOAD_SUBJECTS, textFilename, allSubjects.getSize(),
+                new File(textFilename).length());
+        MetricsRegistry.record(Operation.LOAD_SUBJECTS, startTime);
     }
 
     /**
@@ -266,8 +680,8 @@ public class SchoolManager
             if (!stringIsAlphabetic(newName))
             {
                 printMessage("invalidInput");
-                System.out.println("Input name must be ONLY alphabetic!");
-                System.out.print("\nEnter a valid name: ");
+                Output.println("Input name must be ONLY alphabetic!");
+                Output.print("\nEnter a valid name: ");
             }
         }
         return newName;
@@ -287,51 +701,34 @@ public class SchoolManager
         boolean outOfRange = true;
         while (outOfRange)
         {
+            Output.flush();
             Scanner console = new Scanner(System.in);
             try
             {
                 input = console.nextInt();
                 if (input < lowerLimit || input > upperLimit)
-                    System.out.print("\nInput out of range! Enter a number between " +
+                    Output.print("\nInput out of range! Enter a number between " +
                             lowerLimit + " or " + upperLimit + ": ");
                 else
                     outOfRange = false;
             }
             catch (InputMismatchException e)
             {
-                System.out.print("\nInput not an integer! Enter an integer again: ");
+                Output.print("\nInput not an integer! Enter an integer again: ");
             }
         }
         return input;
     }
 
-    /**
-     * Perform set operation intersection of two subject lists.
-     *
-     * @param   main    The main list of subjects to be processed.
-     * @param   check   The sublist of subjects to be processed.
-     * @return  The intersection of the main list and the sublist.
-     */
-    private SubjectDatabase intersectSubjectDatabases(SubjectDatabase main, SubjectDatabase check)
-    {
-        SubjectDatabase intersection = new SubjectDatabase();
-        SubjectDatabase exception = new SubjectDatabase();
-        for (int index1 = 0; index1 < main.getSize(); index1++)
-        {
-            for (int index2 = 0; index2 < check.getSize(); index2++)
-            {
-                if (main.getSubject(index1).equals(check.getSubject(index2)))
-                    intersection.addSubject(check.getSubject(index2));
-            }
-        }
-        return intersection;
-    }
-
     /**
      *  Submenu of "List students". Option (1) lists only the unsuspended students based on
      *  selected subjects, option (2) lists students by the suspension status, and option (3)
      *  lists all the students enrolled in the school including those who have been suspended.
-     *  The menu loops until option (4) is selected.
+     *  Option (4) lists the students matching a query of the roster query language (see
+     *  RosterQueryCompiler); a query preceded by EXPLAIN prints its execution plan first. Option
+     *  (5) lists the students whose names best match a partial or mistyped name, and option (6)
+     *  exports the students matching a query to a CSV or JSON Lines file. The menu loops until
+     *  option (7) is selected.
      */
     private void listStudents()
     {
@@ -339,18 +736,19 @@ public class SchoolManager
 
         while (stayInMenu)
         {
+            reloadSubjectsIfChanged();
             displayListStudentsMenu();
             printMessage("chooseOption");
             String option = stringInput();
-            System.out.println("");
+            Output.println("");
             switch(option)
             {
                 case "1":
-                    System.out.println("Please choose subject(s) from the below list by the " +
+                    Output.println("Please choose subject(s) from the below list by the " +
                             "preceding number(s):");
-                    System.out.println("(0) Not enrolled in any subjects");
+                    Output.println("(0) Not enrolled in any subjects");
                     allSubjects.displaySubjectDatabaseAsOptions();
-                    System.out.println("\nFor filtering by multiple subjects, please separate " +
+                    Output.println("\nFor filtering by multiple subjects, please separate " +
                             "your input numbers with whitespaces.");
                     ArrayList<Integer> subjectFilter = extractOnlyIntegers();
                     if (indexListNotEmpty(subjectFilter))
@@ -359,7 +757,7 @@ public class SchoolManager
                                 allSubjects.matchSubjectsByIndexes(subjectFilter);
                         if (subjectFilter.get(0) == 0)
                         {
-                            System.out.println("Student(s) yet to enrol in any subjects: ");
+                            Output.println("Student(s) yet to enrol in any subjects: ");
                             StudentDatabase unsuspendedStudents =
                                     allStudents.filterStudentsBySuspension(2);
                             StudentDatabase unenrolledStudents =
@@ -368,12 +766,11 @@ public class SchoolManager
                         }
                         else
                         {
-                            System.out.println("List of student(s) enrolled in: ");
+                            Output.println("List of student(s) enrolled in: ");
                             subjectsSelected.displaySubjectDatabaseAsResults();
-                            StudentDatabase unsuspendedStudents =
-                                    allStudents.filterStudentsBySuspension(2);
                             StudentDatabase studentsListBySubjects =
-                                    unsuspendedStudents.filterStudentsBySubjects(subjectsSelected);
+                                    subjectFilterCache.filterStudents(allStudents,
+                                            subjectsSelected, 2);
                             if (studentsListBySubjects.getSize() == 0)
                             {
                                 printMessage("noStudentInCategory");
@@ -391,7 +788,7 @@ public class SchoolManager
                     break;
 
                 case "2":
-                    System.out.print("List student(s) by suspension status " +
+                    Output.print("List student(s) by suspension status " +
                             ">> (1) Suspended or (2) Unsuspended: ");
                     int userInput = integerInput(1, 2);
                     StudentDatabase studentListBySuspension =
@@ -400,25 +797,80 @@ public class SchoolManager
                         printMessage("noStudentInCategory");
                     else
                     if (userInput == 1)
-                        System.out.println("\nList of suspended student(s):");
+                        Output.println("\nList of suspended student(s):");
                     else
-                        System.out.println("\nList of unsuspended student(s):");
+                        Output.println("\nList of unsuspended student(s):");
                     studentListBySuspension.printStudentDatabase();
                     break;
 
                 case "3":
-                    if (allStudents.getSize() == 0)
+                    RosterVersion rosterVersion = allStudents.publishVersion();
+                    if (rosterVersion.getSize() == 0)
                     {
                         printMessage("noStudentInSchool");
                         printMessage("");
                     }
                     else
                     {
-                        System.out.println("All students: ");
-                        allStudents.printStudentDatabase();
+                        Output.println("All students: ");
+                        rosterVersion.printRosterVersion();
                     } break;
 
                 case "4":
+                    Output.println("e.g. suspended = false AND enrolled CONTAINS " +
+                            "(\"Maths\", \"English\") AND credits > 10 ORDER BY name LIMIT 50");
+                    Output.print("Enter query: ");
+                    String queryText = stringInput().trim();
+                    boolean explain = queryText.toUpperCase().startsWith("EXPLAIN ");
+                    if (explain)
+                        queryText = queryText.substring("EXPLAIN ".length());
+                    try
+                    {
+                        RosterQuery query = queryCompiler.compile(queryText);
+                        if (explain)
+                            Output.println("\nPlan: " + query.getPlan());
+                        StudentDatabase queryResults = query.execute(allStudents,
+                                subjectFilterCache);
+                        if (queryResults.getSize() == 0)
+                        {
+                            printMessage("noStudentInCategory");
+                            printMessage("");
+                        }
+                        else
+                        {
+                            Output.println("\nStudent(s) matching the query:");
+                            queryResults.printStudentDatabase();
+                        }
+                    }
+                    catch (IllegalArgumentException e)
+                    {
+                        Output.println("\nInvalid query: " + e.getMessage());
+                        printMessage("");
+                    }
+                    break;
+
+                case "5":
+                    Output.print("Enter (part of) a name: ");
+                    String searchName = stringInput().trim();
+                    StudentDatabase studentsByName = allStudents.searchStudentsByName(searchName,
+                            20);
+                    if (studentsByName.getSize() == 0)
+                    {
+                        printMessage("noStudentInCategory");
+                        printMessage("");
+                    }
+                    else
+                    {
+                        Output.println("\nBest matching student(s):");
+                        studentsByName.printStudentDatabase();
+                    }
+                    break;
+
+                case "6":
+                    exportStudents();
+                    break;
+
+                case "7":
                     stayInMenu = false;
                     break;
 
@@ -430,10 +882,11 @@ public class SchoolManager
     }
 
     /**
-     *  Submenu of "Manage students" that loops until option (5) is selected. The user may choose
+     *  Submenu of "Manage students" that loops until option (6) is selected. The user may choose
      *  option (1) to add a new student to the student list, option (2) to delete a student from
-     *  the student, option (3) to enrol/unenrol a student in/from multiple subjects offered at
-     *  the school.
+     *  the student, option (3) to suspend/unsuspend a student, option (4) to enrol/unenrol a
+     *  student in/from multiple subjects offered at the school, and option (5) to suspend,
+     *  unsuspend, enrol or unenrol all the students matching a query at once.
      */
     private void manageStudents()
     {
@@ -441,17 +894,19 @@ public class SchoolManager
 
         while (stayInMenu)
         {
+            reloadSubjectsIfChanged();
             displayManageStudentsMenu();
             printMessage("chooseOption");
             String option = stringInput();
-            System.out.println("");
+            Output.println("");
             switch(option)
             {
                 case "1":
-                    System.out.print("Enter name: ");
+                    Output.print("Enter name: ");
                     String addName = inputName();
-                    System.out.print("\nEnter identity number: ");
-                    int addIdentityNumber = integerInput(111, 999);
+                    Output.print("\nEnter identity number: ");
+                    int addIdentityNumber = integerInput(Student.MINIMUM_IDENTITY_NUMBER,
+                            Student.MAXIMUM_IDENTITY_NUMBER);
                     if (allStudents.identityNumberInUse(addIdentityNumber))
                     {
                         Student registeredStudent =
@@ -472,25 +927,32 @@ public class SchoolManager
                         Student newStudent = new Student();
                         newStudent.setName(addName);
                         newStudent.setIdentityNumber(addIdentityNumber);
+                        newStudent.claimSeats();
                         boolean registered = false;
                         while (!registered)
                         {
-                            System.out.println("\nWhat subjects to enrol in?");
-                            System.out.println("(0) Not to enrol in any subjects for now");
+                            Output.println("\nWhat subjects to enrol in?");
+                            Output.println("(0) Not to enrol in any subjects for now");
                             allSubjects.displaySubjectDatabaseAsOptions();
                             printMessage("");
                             ArrayList<Integer> subjectFilter = extractOnlyIntegers();
                             SubjectDatabase subjectsSelected =
                                     allSubjects.matchSubjectsByIndexes(subjectFilter);
-                            int totalCredit = calculateTotalCredit(subjectsSelected);
-                            if (totalCredit < 16)
+                            long startTime = MetricsRegistry.startTimer();
+                            EnrolmentResult result = newStudent.updateEnrolments(subjectsSelected,
+                                    new SubjectDatabase());
+                            if (result.getStatus() == EnrolmentResult.Status.SUBJECT_FULL)
+                            {
+                                Output.println("Subject(s) full: ");
+                                result.getSubjectsFull().displaySubjectDatabaseAsResults();
+                                Output.println("\nPlease choose other subjects.");
+                            }
+                            else if (result.getStatus() != EnrolmentResult.Status.CREDIT_EXCEEDED)
                             {
-                                for (int index = 0; index < subjectsSelected.getSize(); index++)
-                                {
-                                    newStudent.enrolSubject(subjectsSelected.getSubject(index));
-                                }
                                 allStudents.addStudent(newStudent);
-                                System.out.println("Successfully registered!" +
+                                subjectFilterCache.invalidate(null, newStudent);
+                                MetricsRegistry.record(Operation.ADD_STUDENT, startTime);
+                                Output.println("Successfully registered!" +
                                         "\nName: " +
                                         newStudent.getName() +
                                         "\nIdentity Number: " +
@@ -502,9 +964,10 @@ public class SchoolManager
                             }
                             else
                             {
-                                System.out.println("Maximum credit exceeded!");
-                                System.out.println("\nA student can only enrol in subjects " +
-                                        "with a total credit of not more than 15.");
+                                Output.println("Maximum credit exceeded!");
+                                Output.println("\nA student can only enrol in subjects " +
+                                        "with a total credit of not more than " +
+                                        Student.MAXIMUM_CREDIT + ".");
                             }
                         }
                     } break;
@@ -512,27 +975,33 @@ public class SchoolManager
                 case "2":
                     if (allStudents.getSize() > 0)
                     {
-                        System.out.print("Enter name: ");
+                        Output.print("Enter name: ");
                         String deleteName = inputName();
-                        System.out.print("\nEnter identity number: ");
-                        int deleteIdentityNumber = integerInput(111, 999);
+                        Output.print("\nEnter identity number: ");
+                        int deleteIdentityNumber = integerInput(Student.MINIMUM_IDENTITY_NUMBER,
+                            Student.MAXIMUM_IDENTITY_NUMBER);
                         if (allStudents.studentOnDatabase(deleteName, deleteIdentityNumber))
                         {
-                            StudentDatabase studentsListByName =
-                                    allStudents.filterStudentsByName(deleteName);
-                            Student selectedStudent =
-                                    studentsListByName.
-                                            filterStudentByIdentityNumber(deleteIdentityNumber);
+                            Student selectedStudent = allStudents.
+                                    filterStudentByNameAndIdentityNumber(deleteName,
+                                            deleteIdentityNumber);
                             allStudents.removeStudent(selectedStudent);
-                            System.out.println("\nMatch found!");
-                            System.out.println("\nThe following entry has been successfully " +
+                            subjectFilterCache.invalidate(
+                                    subjectFilterCache.snapshot(selectedStudent), null);
+                            for (int index = 0; index < allSubjects.getSize(); index++)
+                                allSubjects.getSubject(index).leaveWaitlist(selectedStudent);
+                            ArrayList<Student> studentsPromoted = selectedStudent.releaseSeats();
+                            Output.println("\nMatch found!");
+                            Output.println("\nThe following entry has been successfully " +
                                     "deleted: ");
                             selectedStudent.displayStudent();
+                            reportPromotions(studentsPromoted);
                             printMessage("");
                         }
                         else
                         {
                             printMessage("noStudentMatches");
+                            suggestStudents(deleteName);
                             printMessage("");
                         }
                     }
@@ -543,29 +1012,33 @@ public class SchoolManager
                     } break;
 
                 case "3":
-                    System.out.print("Select an action >> (1) Suspend or (2) Unsuspend: ");
+                    Output.print("Select an action >> (1) Suspend or (2) Unsuspend: ");
                     int userInput = integerInput(1, 2);
                     if ((userInput == 1 &&
                             allStudents.filterStudentsBySuspension(2).getSize() > 0) ||
                             (userInput == 2 &&
                                     allStudents.filterStudentsBySuspension(1).getSize() > 0))
                     {
-                        System.out.print("\nEnter name: ");
+                        Output.print("\nEnter name: ");
                         String suspendName = inputName();
-                        System.out.print("\nEnter identity number: ");
-                        int suspendIdentityNumber = integerInput(111, 999);
+                        Output.print("\nEnter identity number: ");
+                        int suspendIdentityNumber = integerInput(Student.MINIMUM_IDENTITY_NUMBER,
+                            Student.MAXIMUM_IDENTITY_NUMBER);
                         if (allStudents.studentOnDatabase(suspendName, suspendIdentityNumber))
                         {
-                            StudentDatabase studentsListByName =
-                                    allStudents.filterStudentsByName(suspendName);
-                            Student selectedStudent =
-                                    studentsListByName.
-                                            filterStudentByIdentityNumber(suspendIdentityNumber);
+                            Student selectedStudent = allStudents.
+                                    filterStudentByNameAndIdentityNumber(suspendName,
+                                            suspendIdentityNumber);
                             String action = "";
+                            ArrayList<Student> studentsPromoted = new ArrayList<>();
+                            long startTime = MetricsRegistry.startTimer();
+                            SubjectFilterCache.Snapshot before =
+                                    subjectFilterCache.snapshot(selectedStudent);
                             if (userInput == 1)
                             {
                                 selectedStudent.setSuspension("false");
-                                selectedStudent.clearSubjectsEnrolled();
+                                studentsPromoted = selectedStudent.clearSubjectsEnrolled().
+                                        getStudentsPromoted();
                                 action = "suspended";
                             }
                             else
@@ -573,14 +1046,18 @@ public class SchoolManager
                                 selectedStudent.setSuspension("true");
                                 action = "unsuspended";
                             }
-                            System.out.println("\nMatch found!");
-                            System.out.println("\nThe following entry is now " + action + ":");
+                            subjectFilterCache.invalidate(before, selectedStudent);
+                            MetricsRegistry.record(Operation.SUSPEND, startTime);
+                            Output.println("\nMatch found!");
+                            Output.println("\nThe following entry is now " + action + ":");
                             selectedStudent.displayStudent();
+                            reportPromotions(studentsPromoted);
                             printMessage("");
                         }
                         else
                         {
                             printMessage("noStudentMatches");
+                            suggestStudents(suspendName);
                             printMessage("");
                         }
                     }
@@ -588,37 +1065,36 @@ public class SchoolManager
                     {
                         if (userInput == 1)
                         {
-                            System.out.println("\nThere is not student to suspend!");
+                            Output.println("\nThere is not student to suspend!");
                             printMessage("");
                         }
                         else
                         {
-                            System.out.println("\nThere is not student to unsuspend!");
+                            Output.println("\nThere is not student to unsuspend!");
                             printMessage("");
                         }
                     } break;
 
                 case "4":
-                    System.out.print("Select an action >> (1) Enrol or (2) Unenrol: ");
+                    Output.print("Select an action >> (1) Enrol or (2) Unenrol: ");
                     int enrolUnenrol = integerInput(1, 2);
-                    System.out.print("\nEnter name: ");
+                    Output.print("\nEnter name: ");
                     String editByName = inputName();
-                    System.out.print("\nEnter identity number: ");
-                    int editByIdentityNumber = integerInput(111, 999);
+                    Output.print("\nEnter identity number: ");
+                    int editByIdentityNumber = integerInput(Student.MINIMUM_IDENTITY_NUMBER,
+                            Student.MAXIMUM_IDENTITY_NUMBER);
                     if (allStudents.studentOnDatabase(editByName, editByIdentityNumber))
                     {
-                        StudentDatabase studentsListByName =
-                                allStudents.filterStudentsByName(editByName);
-                        Student selectedStudent =
-                                studentsListByName.
-                                        filterStudentByIdentityNumber(editByIdentityNumber);
+                        Student selectedStudent = allStudents.
+                                filterStudentByNameAndIdentityNumber(editByName,
+                                        editByIdentityNumber);
                         SubjectDatabase enrolledSubjects = selectedStudent.getSubjectsEnrolled();
                         if (selectedStudent.getSuspension())
                         {
-                            System.out.println("\nMatch found!");
+                            Output.println("\nMatch found!");
                             printMessage("");
                             selectedStudent.displayStudent();
-                            System.out.println("Currently enrolled in: ");
+                            Output.println("Currently enrolled in: ");
                             if (selectedStudent.getSubjectsEnrolled().getSize() > 0)
                             {
                                 enrolledSubjects.displaySubjectDatabaseAsResults();
@@ -626,116 +1102,101 @@ public class SchoolManager
                             }
                             else
                             {
-                                System.out.println("None");
+                                Output.println("None");
                                 printMessage("");
                             }
 
                             if (enrolUnenrol == 2 && enrolledSubjects.getSize() == 0)
                             {
-                                System.out.println("There is no subject to unenrol from!");
+                                Output.println("There is no subject to unenrol from!");
                                 printMessage("");
                             }
                             else
                             {
-                                System.out.println("Choose subject(s) from the below list by " +
+                                Output.println("Choose subject(s) from the below list by " +
                                         "the preceding number(s):");
-                                System.out.println("(0) Not to enrol/unenrol in any subjects " +
+                                Output.println("(0) Not to enrol/unenrol in any subjects " +
                                         "for now");
                                 allSubjects.displaySubjectDatabaseAsOptions();
-                                System.out.println("\nFor adding/removing multiple subjects, " +
+                                Output.println("\nFor adding/removing multiple subjects, " +
                                         "separate input numbers with whitespaces.");
                                 ArrayList<Integer> subjectFilter = extractOnlyIntegers();
                                 SubjectDatabase subjectsSelected =
                                         allSubjects.matchSubjectsByIndexes(subjectFilter);
-                                int totalCredit = calculateTotalCredit(subjectsSelected) +
-                                        calculateTotalCredit(enrolledSubjects);
-                                if (enrolUnenrol == 1)
+                                long startTime = MetricsRegistry.startTimer();
+                                SubjectFilterCache.Snapshot before =
+                                        subjectFilterCache.snapshot(selectedStudent);
+                                EnrolmentResult result = enrolUnenrol == 1 ?
+                                        selectedStudent.updateEnrolments(subjectsSelected,
+                                                new SubjectDatabase()) :
+                                        selectedStudent.updateEnrolments(new SubjectDatabase(),
+                                                subjectsSelected);
+                                if (result.getStatus() == EnrolmentResult.Status.CREDIT_EXCEEDED)
                                 {
-                                    if (totalCredit < 16)
-                                    {
-                                        SubjectDatabase subjectsToEnrol =
-                                                exceptSubjectDatabases(enrolledSubjects,
-                                                        subjectsSelected);
-                                        if (subjectsToEnrol.getSize() > 0)
-                                        {
-                                            System.out.println("Subject(s) to enrol in: ");
-                                            subjectsToEnrol.displaySubjectDatabaseAsResults();
-                                            printMessage("");
-                                            for (int index = 0; index < subjectsToEnrol.
-                                                    getSize(); index++)
-                                            {
-                                                Subject subjectToEnrol = subjectsToEnrol.
-                                                        getSubject(index);
-                                                selectedStudent.enrolSubject(subjectToEnrol);
-                                            }
-                                            selectedStudent.displayStudent();
-                                            System.out.println("Now enrolled in: ");
-                                            selectedStudent.getSubjectsEnrolled().
-                                                    displaySubjectDatabaseAsResults();
-                                            printMessage("");
-                                        }
-                                        else
-                                        {
-                                            System.out.println("No subject to enrol!");
-                                            printMessage("");
-                                        }
-                                    }
-                                    else
+                                    SubjectDatabase subjectsPlanned =
+                                            chooseEnrolmentPlan(result, subjectsSelected);
+                                    if (subjectsPlanned != null)
                                     {
-                                        System.out.println("Maximum credit exceeded!");
-                                        System.out.println("\nThis student can only enrol in " +
-                                                "subjects with a total credit of " +
-                                                "not more than " +
-                                                (15 -
-                                                        calculateTotalCredit(enrolledSubjects)) +
-                                                ".");
-                                        printMessage("");
+                                        startTime = MetricsRegistry.startTimer();
+                                        result = selectedStudent.updateEnrolments(subjectsPlanned,
+                                                new SubjectDatabase());
                                     }
                                 }
-                                else
+                                if (result.isCommitted())
                                 {
-                                    SubjectDatabase subjectsToUnenrol =
-                                            intersectSubjectDatabases(enrolledSubjects,
-                                                    subjectsSelected);
-                                    if (subjectsToUnenrol.getSize() > 0)
+                                    subjectFilterCache.invalidate(before, selectedStudent);
+                                    MetricsRegistry.record(enrolUnenrol == 1 ? Operation.ENROL :
+                                            Operation.UNENROL, startTime);
+                                    if (enrolUnenrol == 1)
                                     {
-                                        System.out.println("Subject(s) to unenrol from: ");
-                                        subjectsToUnenrol.displaySubjectDatabaseAsResults();
-                                        printMessage("");
-                                        for (int index = 0; index < subjectsToUnenrol.
-                                                getSize(); index++)
-                                        {
-                                            Subject subjectToUnenrol =
-                                                    subjectsToUnenrol.getSubject(index);
-                                            selectedStudent.unenrolSubject(subjectToUnenrol);
-                                        }
-                                        selectedStudent.displayStudent();
-                                        System.out.println("Now enrolled in: ");
-                                        selectedStudent.getSubjectsEnrolled().
+                                        Output.println("Subject(s) enrolled in: ");
+                                        result.getSubjectsEnrolled().
                                                 displaySubjectDatabaseAsResults();
-                                        printMessage("");
                                     }
                                     else
                                     {
-                                        System.out.println("No subject to unenrol from!");
-                                        printMessage("");
+                                        Output.println("Subject(s) unenrolled from: ");
+                                        result.getSubjectsUnenrolled().
+                                                displaySubjectDatabaseAsResults();
                                     }
+                                    printMessage("");
+                                    selectedStudent.displayStudent();
+                                    Output.println("Now enrolled in: ");
+                                    result.getEnrolments().displaySubjectDatabaseAsResults();
+                                    reportPromotions(result.getStudentsPromoted());
+                                    printMessage("");
+                                }
+                                else if (result.getStatus() == EnrolmentResult.Status.UNCHANGED)
+                                {
+                                    Output.println(enrolUnenrol == 1 ? "No subject to enrol!" :
+                                            "No subject to unenrol from!");
+                                    printMessage("");
+                                }
+                                else if (result.getStatus() == EnrolmentResult.Status.SUBJECT_FULL)
+                                {
+                                    reportPromotions(result.getStudentsPromoted());
+                                    offerWaitlists(selectedStudent, result.getSubjectsFull());
                                 }
                             }
                         }
                         else
                         {
-                            System.out.println("Suspended student cannot be enrolled/unenrolled!");
+                            Output.println("Suspended student cannot be enrolled/unenrolled!");
                             printMessage("");
                         }
                     }
                     else
                     {
                         printMessage("studentNotOnList");
+                        suggestStudents(editByName);
                         printMessage("");
                     } break;
 
                 case "5":
+                    bulkUpdateStudents();
+                    break;
+
+                case "6":
                     stayInMenu = false;
                     break;
 
@@ -746,6 +1207,33 @@ public class SchoolManager
         }
     }
 
+    /**
+     * Given a student and the subjects found full when enrolling the student, print out the seats
+     * of the subjects and ask the user whether to put the student on their waitlists. The student
+     * is enrolled in a subject as soon as a seat is given back (see Subject.promoteWaitlist()).
+     *
+     * @param   student         The student to wait for the seats.
+     * @param   subjectsFull    The subjects without a free seat.
+     */
+    private void offerWaitlists(Student student, SubjectDatabase subjectsFull)
+    {
+        Output.println("Subject(s) full: ");
+        for (int index = 0; index < subjectsFull.getSize(); index++)
+            Output.println((index + 1) + ". " + subjectsFull.getSubject(index) +
+                    subjectsFull.getSubject(index).describeSeats());
+        Output.print("\nJoin the waitlist(s)? >> (1) Yes or (2) No: ");
+        if (integerInput(1, 2) == 1)
+        {
+            ArrayList<Student> studentsPromoted = new ArrayList<>();
+            for (int index = 0; index < subjectsFull.getSize(); index++)
+                studentsPromoted.addAll(subjectsFull.getSubject(index).joinWaitlist(student));
+            Output.println("\n" + student.getName() + " is on the waitlist(s) and will be " +
+                    "enrolled as soon as a seat is free.");
+            reportPromotions(studentsPromoted);
+        }
+        printMessage("");
+    }
+
     /**
      * Print out various messages.
      *
@@ -756,48 +1244,48 @@ public class SchoolManager
         switch(messageOption)
         {
             case "chooseOption":
-                System.out.print("Please choose an option: ");
+                Output.print("Please choose an option: ");
                 break;
 
             case "noStudentInCategory":
-                System.out.println("\nThere is no student in this category.");
+                Output.println("\nThere is no student in this category.");
                 break;
 
             case "noStudentInSchool":
-                System.out.println("There is no student.");
+                Output.println("There is no student.");
                 break;
 
             case "exit":
-                System.out.println("Thank you for using My School Manager!");
+                Output.println("Thank you for using My School Manager!");
                 break;
 
             case "":
-                System.out.println("");
+                Output.println("");
                 break;
 
             case "duplicateStudents":
-                System.out.println("\nThis is an existing student!");
+                Output.println("\nThis is an existing student!");
                 break;
 
             case "existingIdentityNumber":
-                System.out.println("\nThis identity number has already been taken!");
+                Output.println("\nThis identity number has already been taken!");
                 break;
 
             case "duplicateNames":
-                System.out.println("\nThere are more than one student with the same name!");
+                Output.println("\nThere are more than one student with the same name!");
                 break;
 
             case "studentNotOnList":
-                System.out.println("\nThere is no student who matches the name and identity " +
+                Output.println("\nThere is no student who matches the name and identity " +
                         "number!");
                 break;
 
             case "noStudentMatches":
-                System.out.println("\nThere is no student who matches!");
+                Output.println("\nThere is no student who matches!");
                 break;
 
             default:
-                System.out.println("Invalid input!\n");
+                Output.println("Invalid input!\n");
                 break;
         }
     }
@@ -810,7 +1298,7 @@ public class SchoolManager
      *                      the data are to be read.
      * @return  The list of lines read from the text file.
      */
-    private ArrayList<String> readFile(String readFrom)
+    ArrayList<String> readFile(String readFrom)
     {
         ArrayList<String> textLines = new ArrayList<>();
         String filename = (readFrom);
@@ -834,30 +1322,153 @@ public class SchoolManager
         }
         catch(FileNotFoundException e)
         {
-            System.out.println(filename + " not found!");
+            Output.println(filename + " not found!");
         }
         catch(IOException e)
         {
-            System.out.println("I/O error!");
+            Output.println("I/O error!");
         }
         return textLines;
     }
 
+    /**
+     * Given the set of errors found in a string and the result of validating one of its fields,
+     * add the result to the set if it is an error.
+     *
+     * @param   errors  The errors found so far.
+     * @param   result  The result of validating a field.
+     */
+    private static void recordValidation(EnumSet<ValidationResult> errors, ValidationResult result)
+    {
+        if (result != ValidationResult.VALID)
+            errors.add(result);
+    }
+
+    /**
+     * Read the subjects file again and apply it to the list of all subjects without reloading the
+     * students. The subjects are matched by name. A subject not offered yet is added to the end of
+     * the list, so that the option numbers of the other subjects stay the same. The credit points
+     * and number of seats of a subject already offered are changed in place on its Subject object,
+     * which the students enrolled in it keep referring to; only the students enrolled in a subject
+     * whose credit points have changed have their total credit worked out again, and a subject
+     * given more seats enrols the students on its waitlist. Malformed lines are left out and
+     * reported as they are when the file is loaded.
+     *
+     * A subject missing from the file is still offered until the system is restarted, as students
+     * may be enrolled in it, and a subject cannot gain or lose its capacity until then either, as
+     * the seats of a subject are counted from the time the students are loaded.
+     *
+     * @return  A summary of the changes, or null if nothing has changed.
+     */
+    String reloadSubjects()
+    {
+        long startTime = MetricsRegistry.startTimer();
+        RosterFileEvent event = new RosterFileEvent();
+        event.begin();
+        LoadReport report = new LoadReport(subjectsFilename);
+        SubjectDatabase subjectsRead = createSubjectListFromText(readFile(subjectsFilename),
+                report);
+        if (report.hasErrors())
+            Output.println(report + "\n");
+        HashMap<String, Subject> subjectsByName = new HashMap<>();
+        for (int index = 0; index < allSubjects.getSize(); index++)
+            subjectsByName.put(allSubjects.getSubject(index).getName(),
+                    allSubjects.getSubject(index));
+        HashSet<String> namesRead = new HashSet<>();
+        HashSet<Subject> creditsChanged = new HashSet<>();
+        ArrayList<String> capacitiesKept = new ArrayList<>();
+        ArrayList<Student> studentsPromoted = new ArrayList<>();
+        int subjectsAdded = 0;
+        int capacitiesChanged = 0;
+        for (int index = 0; index < subjectsRead.getSize(); index++)
+        {
+            Subject subjectRead = subjectsRead.getSubject(index);
+            namesRead.add(subjectRead.getName());
+            Subject subject = subjectsByName.putIfAbsent(subjectRead.getName(), subjectRead);
+            if (subject == null)
+            {
+                allSubjects.addSubject(subjectRead);
+                subjectsAdded++;
+                continue;
+            }
+            if (subjectRead.getCredit() != subject.getCredit())
+            {
+                subject.updateCredit(subjectRead.getCredit());
+                creditsChanged.add(subject);
+            }
+            if (subjectRead.getCapacity() == subject.getCapacity())
+                continue;
+            if (subjectRead.hasCapacity() != subject.hasCapacity())
+                capacitiesKept.add(subject.getName());
+            else
+            {
+                subject.updateCapacity(subjectRead.getCapacity());
+                studentsPromoted.addAll(subject.promoteWaitlist());
+                capacitiesChanged++;
+            }
+        }
+        ArrayList<Student> studentsRecalculated = allStudents.recalculateCredits(creditsChanged);
+        int studentsOverMaximum = 0;
+        for (Student student : studentsRecalculated)
+            if (student.getTotalCredit() > Student.MAXIMUM_CREDIT)
+                studentsOverMaximum++;
+        reportPromotions(studentsPromoted);
+        event.complete(Operation.RELOAD_SUBJECTS, subjectsFilename, subjectsRead.getSize(),
+                new File(subjectsFilename).length());
+        MetricsRegistry.record(Operation.RELOAD_SUBJECTS, startTime);
+        int subjectsMissing = 0;
+        for (int index = 0; index < allSubjects.getSize(); index++)
+            if (!namesRead.contains(allSubjects.getSubject(index).getName()))
+                subjectsMissing++;
+        if (subjectsAdded == 0 && creditsChanged.isEmpty() && capacitiesChanged == 0 &&
+                subjectsMissing == 0 && capacitiesKept.isEmpty())
+            return null;
+        String summary = "Subjects reloaded from " + subjectsFilename + ": " + subjectsAdded +
+                " added, " + creditsChanged.size() + " with new credit points (total credit of " +
+                studentsRecalculated.size() + " student(s) worked out again, " +
+                studentsOverMaximum + " now over the maximum), " + capacitiesChanged +
+                " with new seats.";
+        if (subjectsMissing > 0)
+            summary += "\n" + subjectsMissing + " subject(s) missing from the file are still " +
+                    "offered until the system is restarted.";
+        if (!capacitiesKept.isEmpty())
+            summary += "\nSeats of " + String.join(", ", capacitiesKept) + " not changed: a " +
+                    "subject can only gain or lose its capacity when the system is restarted.";
+        return summary;
+    }
+
+    /**
+     * Reload the subjects file if it has changed since it was last read and print out a summary
+     * of the changes, if any. Does nothing if the file is not being watched.
+     */
+    private void reloadSubjectsIfChanged()
+    {
+        if (subjectFileWatcher == null || !subjectFileWatcher.takeChange())
+            return;
+        String summary = reloadSubjects();
+        if (summary != null)
+            Output.println(summary + "\n");
+    }
+
     /**
      *  Main School Management System menu. Option (1) displays the List students submenu, option
-     *  (2) displays the Manage students submenu, and option (3) prints out the list of all
-     *  students enrolled in the school. The menu loops until option (4) is selected.
+     *  (2) displays the Manage students submenu, option (3) prints out the list of all
+     *  subjects offered at the school, and option (4) prints out the call counts and latencies of
+     *  the timed operations. The menu loops until option (5) is selected. The subjects file is
+     *  watched for changes until then, and reloaded before a menu is shown if it has changed.
      */
     public void startManagementSystem()
     {
         boolean stayInMenu = true;
 
+        watchSubjectsFile();
         while (stayInMenu)
         {
+            reloadSubjectsIfChanged();
             displayMainMenu();
             printMessage("chooseOption");
             String option = stringInput();
-            System.out.println("");
+            Output.println("");
             switch(option)
             {
                 case "1":
@@ -869,13 +1480,30 @@ public class SchoolManager
                     break;
 
                 case "3":
-                    System.out.println("All subjects: ");
+                    Output.println("All subjects: ");
                     allSubjects.displaySubjectDatabaseAsResults();
                     printMessage("");
                     break;
 
                 case "4":
-                    writeStudentsFile();
+                    Output.println("Operation metrics: ");
+                    Output.println(MetricsRegistry.report());
+                    Output.println(subjectFilterCache.getStatistics());
+                    Output.println(queryCompiler.getStatistics());
+                    if (allStudents.getChangePublisher() != null)
+                        Output.println(allStudents.getChangePublisher().getStatistics());
+                    if (Output.getSink() instanceof AsyncOutputSink)
+                        Output.println(((AsyncOutputSink) Output.getSink()).getStatistics());
+                    printMessage("");
+                    break;
+
+                case "5":
+                    writeStudentsFile("students.txt");
+                    allStudents.closeChangeListeners();
+                    if (changeJournal != null)
+                        changeJournal.close();
+                    if (subjectFileWatcher != null)
+                        subjectFileWatcher.close();
                     printMessage("exit");
                     stayInMenu = false;
                     break;
@@ -887,11 +1515,42 @@ public class SchoolManager
         }
     }
 
+    /**
+     * Given the students just enrolled from waitlists, discard the cached query results that they
+     * may have entered and print them out.
+     *
+     * @param   studentsPromoted    The students enrolled from waitlists.
+     */
+    private void reportPromotions(ArrayList<Student> studentsPromoted)
+    {
+        invalidatePromotions(studentsPromoted);
+        for (Student student : studentsPromoted)
+            Output.println(student.getName() + " (ID: " + student.getIdentityNumber() + ") " +
+                    "has been enrolled from a waitlist.");
+    }
+
+    /**
+     * Given a name that matches no student, print out the students with the most similar names,
+     * if there are any.
+     *
+     * @param   inputName   The name input by user.
+     */
+    private void suggestStudents(String inputName)
+    {
+        StudentDatabase similarStudents = allStudents.searchStudentsByName(inputName, 5);
+        if (similarStudents.getSize() > 0)
+        {
+            Output.println("Did you mean:");
+            similarStudents.printStudentDatabase();
+        }
+    }
+
     /**
      * Receive user input and return the input.
      */
     private String stringInput()
     {
+        Output.flush();
         Scanner console = new Scanner(System.in);
         String input = console.nextLine();
         return input;
@@ -930,42 +1589,62 @@ public class SchoolManager
     }
 
     /**
-     * Write the data of the list of all students to a text file called "students.txt".
+     * Start watching the subjects file for changes, unless the system property "subjects.watch"
+     * is false. The system carries on without reloading the file if it cannot be watched.
      */
-    private void writeStudentsFile()
+    private void watchSubjectsFile()
     {
-        String filename = ("students.txt");
+        if (subjectFileWatcher != null ||
+                !Boolean.parseBoolean(System.getProperty("subjects.watch", "true")))
+            return;
+        try
+        {
+            subjectFileWatcher = new SubjectFileWatcher(subjectsFilename);
+        }
+        catch (IOException e)
+        {
+            Output.println(subjectsFilename + " cannot be watched for changes!\n");
+        }
+    }
+
+    /**
+     * Write the data of the list of all students to a text file, followed by the lines of the
+     * students file that were rejected when it was loaded, unchanged, so that saving never loses
+     * a line that could not be loaded.
+     *
+     * @param   filename    The name of the text file (including its format ".txt") to which the
+     *                      student data are to be written.
+     */
+    void writeStudentsFile(String filename)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        RosterFileEvent event = new RosterFileEvent();
+        event.begin();
         try
         {
             PrintWriter outputFile = new PrintWriter(filename);
+            RosterVersion rosterVersion = allStudents.publishVersion();
             int index1 = 0;
-            while (index1 < allStudents.getSize())
+            while (index1 < rosterVersion.getSize())
             {
-                Student student = allStudents.getStudent(index1);
-                String name = student.getName();
-                int identityNumber = student.getIdentityNumber();
-                boolean status = student.getSuspension();
-                SubjectDatabase subjectsEnrolled = student.getSubjectsEnrolled();
-                outputFile.print(name + "," + identityNumber + "," + status);
-                int index2 = 0;
-                while (index2 < subjectsEnrolled.getSize())
-                {
-                    Subject subjectEnrolled = subjectsEnrolled.getSubject(index2);
-                    outputFile.print("," + subjectEnrolled.toString());
-                    index2++;
-                }
-                outputFile.println("");
+                Student student = rosterVersion.getStudent(index1);
+                outputFile.println(student.toFileRecord());
                 index1++;
             }
+            for (String line : rejectedStudentLines)
+                outputFile.println(line);
             outputFile.close();
+            event.complete(Operation.SAVE_STUDENTS, filename, rosterVersion.getSize(),
+                    new File(filename).length());
+            MetricsRegistry.record(Operation.SAVE_STUDENTS, startTime);
         }
         catch(FileNotFoundException e)
         {
-            System.out.println(filename + " not found!");
+            Output.println(filename + " not found!");
         }
         catch(IOException e)
         {
-            System.out.println("I/O error!");
+            Output.println("I/O error!");
         }
     }
 }
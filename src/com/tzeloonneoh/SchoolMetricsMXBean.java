@@ -0,0 +1,46 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The SchoolMetricsMXBean interface exposes the operation metrics of the School Management System
+ * through JMX, e.g. to JConsole or VisualVM attached to the running process.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public interface SchoolMetricsMXBean
+{
+    /**
+     * Return the number of calls of each operation.
+     *
+     * @return  The number of calls by operation.
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * Return the mean latency of each operation.
+     *
+     * @return  The mean latency in microseconds by operation.
+     */
+    Map<String, Double> getMeanLatencies();
+
+    /**
+     * Return the 99th percentile latency of each operation.
+     *
+     * @return  The 99th percentile latency in microseconds by operation.
+     */
+    Map<String, Double> getP99Latencies();
+
+    /**
+     * Return the metrics of all operations as a printable report.
+     *
+     * @return  The metrics report.
+     */
+    String getReport();
+
+    /**
+     * Discard all the recorded metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,364 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
+
+/**
+ * The ShardedStudentDatabase class represents a list of students partitioned into a number of
+ * shards (StudentDatabase objects) by a hash of the identity number. Each shard has its own
+ * read-write lock, so threads working on different shards never wait for each other, and any
+ * number of threads may read the same shard at once. Operations on a single student (add, remove
+ * and lookups by identity number) are routed to the shard of the identity number. Filters are run
+ * on all shards in parallel (scatter) and the matching students of the shards are then merged
+ * into one StudentDatabase object (gather), shard by shard and in the order in which they were
+ * added within a shard.
+ *
+ * The number of shards is given to the constructor or set by the system property
+ * "studentDatabase.shards" (default: the number of available processors). A student returned by
+ * a lookup or filter must only be changed through updateStudent(), which holds the lock of its
+ * shard while the change is made.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class ShardedStudentDatabase
+{
+    private StudentDatabase[] shards;
+    private ReentrantReadWriteLock[] locks;
+    private Executor executor;
+
+    /**
+     * Construct an empty list of students with the number of shards set by the system property
+     * "studentDatabase.shards", scanned in parallel on the common fork-join pool.
+     */
+    public ShardedStudentDatabase()
+    {
+        this(Integer.getInteger("studentDatabase.shards",
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Construct an empty list of students with the given number of shards, scanned in parallel on
+     * the common fork-join pool.
+     *
+     * @param   shardCount  The number of shards.
+     */
+    public ShardedStudentDatabase(int shardCount)
+    {
+        this(shardCount, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construct an empty list of students with the given number of shards, scanned in parallel by
+     * the given executor.
+     *
+     * @param   shardCount  The number of shards.
+     * @param   executor    The executor running the scans of the shards.
+     */
+    public ShardedStudentDatabase(int shardCount, Executor executor)
+    {
+        if (shardCount < 1)
+            throw new IllegalArgumentException("The number of shards must be at least 1.");
+        shards = new StudentDatabase[shardCount];
+        locks = new ReentrantReadWriteLock[shardCount];
+        for (int shard = 0; shard < shardCount; shard++)
+        {
+            shards[shard] = new StudentDatabase();
+            shards[shard].prepareForReading();
+            locks[shard] = new ReentrantReadWriteLock();
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Add a Student object to the shard of its identity number.
+     *
+     * @param   newStudent  The Student object to be added.
+     */
+    public void addStudent(Student newStudent)
+    {
+        write(shardOf(newStudent.getIdentityNumber()), shard ->
+        {
+            shard.addStudent(newStudent);
+            return null;
+        });
+    }
+
+    /**
+     * Given an identity number, return the (last added) Student object with that identity number.
+     *
+     * @param   inputIdentityNumber The student identity number.
+     * @return  The student with the identity number, or a new Student object if there is none.
+     */
+    public Student filterStudentByIdentityNumber(int inputIdentityNumber)
+    {
+        return read(shardOf(inputIdentityNumber),
+                shard -> shard.filterStudentByIdentityNumber(inputIdentityNumber));
+    }
+
+    /**
+     * Given a name and an identity number, return the (last added) Student object that matches
+     * both.
+     *
+     * @param   inputName           The student name.
+     * @param   inputIdentityNumber The student identity number.
+     * @return  The matching student, or a new Student object if there is none.
+     */
+    public Student filterStudentByNameAndIdentityNumber(String inputName, int inputIdentityNumber)
+    {
+        return read(shardOf(inputIdentityNumber),
+                shard -> shard.filterStudentByNameAndIdentityNumber(inputName,
+                        inputIdentityNumber));
+    }
+
+    /**
+     * Given a name, return the list of students with that name.
+     *
+     * @param   inputName   The student name.
+     * @return  The list of student(s) with the same name.
+     */
+    public StudentDatabase filterStudentsByName(String inputName)
+    {
+        return scatterGather(shard -> shard.filterStudentsByName(inputName));
+    }
+
+    /**
+     * Given a list of subjects, return the list of students enrolled in all of them.
+     *
+     * @param   subjectFilters  The list of subjects.
+     * @return  The list of student(s) enrolled in all the given subjects.
+     */
+    public StudentDatabase filterStudentsBySubjects(SubjectDatabase subjectFilters)
+    {
+        return scatterGather(shard -> shard.filterStudentsBySubjects(subjectFilters));
+    }
+
+    /**
+     * Given a suspension status (1: suspended or 2: unsuspended), return the list of students
+     * with that suspension status.
+     *
+     * @param   integerInput    The suspension status (1: suspended or 2: unsuspended).
+     * @return  The list of students with the suspension status.
+     */
+    public StudentDatabase filterStudentsBySuspension(int integerInput)
+    {
+        return scatterGather(shard -> shard.filterStudentsBySuspension(integerInput));
+    }
+
+    /**
+     * Return the list of students not enrolled in any subjects.
+     *
+     * @return  The list of students who are not enrolled in any subjects.
+     */
+    public StudentDatabase filterStudentsNotEnrolled()
+    {
+        return scatterGather(StudentDatabase::filterStudentsNotEnrolled);
+    }
+
+    /**
+     * Return the number of shards.
+     *
+     * @return  The number of shards.
+     */
+    public int getShardCount()
+    {
+        return shards.length;
+    }
+
+    /**
+     * Return the number of students on the list.
+     *
+     * @return  The number of students in all shards.
+     */
+    public int getSize()
+    {
+        int size = 0;
+        for (int shard = 0; shard < shards.length; shard++)
+            size += read(shard, StudentDatabase::getSize);
+        return size;
+    }
+
+    /**
+     * Given an identity number, check if a student on the list has that identity number.
+     *
+     * @param   inputIdentityNumber The student identity number.
+     * @return  true    If the identity number is in use, false otherwise.
+     */
+    public boolean identityNumberInUse(int inputIdentityNumber)
+    {
+        return read(shardOf(inputIdentityNumber),
+                shard -> shard.identityNumberInUse(inputIdentityNumber));
+    }
+
+    /**
+     * Print out all students on the list, shard by shard. The latest version of each shard is
+     * published under the write lock of the shard, which only copies the shard if it has changed
+     * since its last version, and is then printed without holding any lock.
+     */
+    public void printStudentDatabase()
+    {
+        RosterVersion[] versions = new RosterVersion[shards.length];
+        for (int shard = 0; shard < shards.length; shard++)
+            versions[shard] = write(shard, StudentDatabase::publishVersion);
+        int number = 1;
+        for (RosterVersion version : versions)
+            for (int index = 0; index < version.getSize(); index++)
+                Output.println((number++) + ". " + version.getStudent(index).toString());
+        Output.println("");
+    }
+
+    /**
+     * Given the index of a shard and a lookup or filter, run it on the shard under the read lock
+     * of the shard. If reading the shard would change it (it has empty slots left by removed
+     * students), the shard is first prepared under its write lock.
+     *
+     * @param   shard   The index of the shard.
+     * @param   query   The lookup or filter.
+     * @return  The result of the lookup or filter.
+     */
+    private <T> T read(int shard, Function<StudentDatabase, T> query)
+    {
+        Lock readLock = locks[shard].readLock();
+        while (true)
+        {
+            readLock.lock();
+            try
+            {
+                if (shards[shard].isReadyForReading())
+                    return query.apply(shards[shard]);
+            }
+            finally
+            {
+                readLock.unlock();
+            }
+            write(shard, prepared ->
+            {
+                prepared.prepareForReading();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Remove a Student object from the shard of its identity number.
+     *
+     * @param   newStudent  The Student object to be removed.
+     */
+    public void removeStudent(Student newStudent)
+    {
+        write(shardOf(newStudent.getIdentityNumber()), shard ->
+        {
+            shard.removeStudent(newStudent);
+            return null;
+        });
+    }
+
+    /**
+     * Given an identity number, remove the (last added) Student object with that identity number.
+     *
+     * @param   inputIdentityNumber The identity number of the student to be removed.
+     * @return  The removed student, or null if no student has the identity number.
+     */
+    public Student removeStudentByIdentityNumber(int inputIdentityNumber)
+    {
+        return write(shardOf(inputIdentityNumber),
+                shard -> shard.removeStudentByIdentityNumber(inputIdentityNumber));
+    }
+
+    /**
+     * Given a filter, run it on every shard in parallel and merge the filtered lists of the shards
+     * in the order of the shards.
+     *
+     * @param   filter  The filter to be run on each shard.
+     * @return  The list of the students matching the filter in any shard.
+     */
+    private StudentDatabase scatterGather(Function<StudentDatabase, StudentDatabase> filter)
+    {
+        ArrayList<CompletableFuture<StudentDatabase>> results = new ArrayList<>(shards.length);
+        for (int shard = 1; shard < shards.length; shard++)
+        {
+            int scannedShard = shard;
+            results.add(CompletableFuture.supplyAsync(() -> read(scannedShard, filter),
+                    executor));
+        }
+        StudentDatabase merged = read(0, filter);
+        for (CompletableFuture<StudentDatabase> result : results)
+        {
+            StudentDatabase filtered = result.join();
+            for (int index = 0; index < filtered.getSize(); index++)
+                merged.addStudent(filtered.getStudent(index));
+        }
+        return merged;
+    }
+
+    /**
+     * Given an identity number, return the index of the shard holding the students with that
+     * identity number.
+     *
+     * @param   identityNumber  The identity number.
+     * @return  The index of the shard.
+     */
+    private int shardOf(int identityNumber)
+    {
+        int hash = identityNumber * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /**
+     * Given a student name and an identity number, check if a student on the list matches both.
+     *
+     * @param   inputStudentName    The student name.
+     * @param   inputIdentityNumber The student identity number.
+     * @return  true    If a student of the same name and identity number is found, false
+     *                  otherwise.
+     */
+    public boolean studentOnDatabase(String inputStudentName, int inputIdentityNumber)
+    {
+        return read(shardOf(inputIdentityNumber),
+                shard -> shard.studentOnDatabase(inputStudentName, inputIdentityNumber));
+    }
+
+    /**
+     * Given an identity number and a change, make the change to the (last added) student with that
+     * identity number while holding the write lock of its shard. The identity number of the
+     * student must not be changed.
+     *
+     * @param   inputIdentityNumber The identity number of the student to be changed.
+     * @param   change              The change to be made to the student.
+     * @return  true    If a student has the identity number, false otherwise.
+     */
+    public boolean updateStudent(int inputIdentityNumber, Consumer<Student> change)
+    {
+        return write(shardOf(inputIdentityNumber), shard ->
+        {
+            if (!shard.identityNumberInUse(inputIdentityNumber))
+                return false;
+            change.accept(shard.filterStudentByIdentityNumber(inputIdentityNumber));
+            return true;
+        });
+    }
+
+    /**
+     * Given the index of a shard and a change, make the change to the shard under the write lock
+     * of the shard.
+     *
+     * @param   shard   The index of the shard.
+     * @param   change  The change.
+     * @return  The result of the change.
+     */
+    private <T> T write(int shard, Function<StudentDatabase, T> change)
+    {
+        Lock writeLock = locks[shard].writeLock();
+        writeLock.lock();
+        try
+        {
+            return change.apply(shards[shard]);
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+}
@@ -1,39 +1,205 @@
 package com.tzeloonneoh;
 
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 /**
  * The Student class represents a single Student object that can hold information about a student,
  * i.e., student's name, identity number, current suspension status, and enrolled subjects. The
  * student's name must only be alphabetic and may contain multiple words. The identity number must
- * be a 3-digit number between 111 and 999 (inclusive). The current suspension is a boolean value.
- * The student object also stores a collection of subjects a particular student is enrolled in.
+ * be a number between 111 and 9999999 (inclusive); the range can be changed with the system
+ * properties "identityNumber.minimum" and "identityNumber.maximum". The current suspension is a
+ * boolean value. The student object also stores a collection of subjects a particular student is
+ * enrolled in, the total credit of which must not be more than 15.
  *
  * @author Tze Loon Neoh
  * @version 21 Sep 2021
  */
 public class Student
 {
-    private String name;
+    public static final int MINIMUM_IDENTITY_NUMBER = Integer.getInteger("identityNumber.minimum",
+            111);
+    public static final int MAXIMUM_IDENTITY_NUMBER = Integer.getInteger("identityNumber.maximum",
+            9999999);
+    public static final int MAXIMUM_CREDIT = 15;
+    static final NameDictionary NAMES = new NameDictionary();
+    private static final int[] NO_NAME = NAMES.encode("None");
+    private static final AtomicReferenceFieldUpdater<Student, EnrolledSubjects> SUBJECTS_ENROLLED =
+            AtomicReferenceFieldUpdater.newUpdater(Student.class, EnrolledSubjects.class,
+                    "subjectsEnrolled");
+
+    private int[] nameTokenIds;
     private int identityNumber;
     private boolean suspension;
-    private SubjectDatabase subjectsEnrolled;
+    private volatile EnrolledSubjects subjectsEnrolled;
+    private volatile PendingEnrolments pendingEnrolments;
+    private int pendingOffset;
+    private StudentChangePublisher changePublisher;
+    private volatile boolean holdsSeats;
 
     /**
      * Construct and initialise a Student object.
      */
     public Student()
     {
-        name = "None";
+        nameTokenIds = NO_NAME;
         identityNumber = 0;
         suspension = true;
-        subjectsEnrolled = new SubjectDatabase();
+        subjectsEnrolled = EnrolledSubjects.NONE;
+    }
+
+    /**
+     * Given a StringBuilder object, append the name of a Student object to it without creating a
+     * String object for the name.
+     *
+     * @param   name    The StringBuilder object the name is appended to.
+     */
+    void appendName(StringBuilder name)
+    {
+        NAMES.appendName(nameTokenIds, name);
+    }
+
+    /**
+     * Take a seat of each enrolled subject with a capacity for a Student object being put on the
+     * list of all students of the school, even if the subject is full, and count seats for the
+     * changes of its enrolments from now on. Pending enrolments are decoded first, unless none of
+     * the subjects offered has a capacity. Must be called before the student can be changed by
+     * other threads. Copies of students, such as the results of queries, never claim seats and
+     * so hold none.
+     */
+    void claimSeats()
+    {
+        if (holdsSeats)
+            return;
+        holdsSeats = true;
+        PendingEnrolments enrolments = pendingEnrolments;
+        if (enrolments != null && !enrolments.hasSubjectsWithCapacity())
+            return;
+        SubjectDatabase subjectsEnrolled = getSubjectsEnrolled();
+        for (int index = 0; index < subjectsEnrolled.getSize(); index++)
+            if (subjectsEnrolled.getSubject(index).hasCapacity())
+                subjectsEnrolled.getSubject(index).takeSeat();
     }
 
     /**
-     * Empty the list of enrolled subjects of a Student object.
+     * Empty the list of enrolled subjects of a Student object, e.g., when the student is
+     * suspended. The seats the student held are given to the students waiting for them.
+     *
+     * @return  The outcome of the change.
      */
-    public void clearSubjectsEnrolled()
+    public EnrolmentResult clearSubjectsEnrolled()
     {
-        subjectsEnrolled.clearSubjectDatabase();
+        return commitEnrolments(EnrolledSubjects.NONE, null, false);
+    }
+
+    /**
+     * Given the subjects to enrol in and the subjects to unenrol from, replace the enrolments of
+     * a Student object with the current enrolments less the subjects to unenrol from plus the
+     * subjects to enrol in, unless nothing would change or, if the credit is to be checked, the
+     * total credit would exceed the maximum. The new enrolments are committed only if the
+     * enrolments have not been changed by another thread in the meantime; otherwise the
+     * transaction is worked out again on the newer enrolments. The transaction is committed by
+     * commitVersion(), which also publishes its change events.
+     *
+     * If the student holds seats, a seat of each subject with a capacity to be enrolled in is
+     * taken before the compare-and-set and the transaction is rejected if one of the subjects is
+     * full. The seats taken are kept while the transaction is retried (only the seats of subjects
+     * no longer to be enrolled in are given back), so that a retry never loses its own seat to a
+     * waiting student, and are given back without serving any waitlist if the transaction is
+     * rejected. Only the seats of the subjects unenrolled from by the committed transaction are
+     * given to the students waiting for them.
+     *
+     * @param   subjectsToEnrol     The subjects to enrol in.
+     * @param   subjectsToUnenrol   The subjects to unenrol from, or null for all the subjects.
+     * @param   checkCredit         true to reject the transaction if the total credit would exceed
+     *                              the maximum, false otherwise.
+     * @return  The outcome of the transaction.
+     */
+    private EnrolmentResult commitEnrolments(SubjectDatabase subjectsToEnrol,
+                                             SubjectDatabase subjectsToUnenrol,
+                                             boolean checkCredit)
+    {
+        ArrayList<Student> studentsPromoted = new ArrayList<>();
+        SubjectDatabase seatsHeld = new SubjectDatabase();
+        for (int retries = 0; ; retries++)
+        {
+            EnrolledSubjects current = getSubjectsEnrolled();
+            SubjectDatabase updated = (subjectsToUnenrol == null ? new SubjectDatabase() :
+                    current.difference(subjectsToUnenrol)).union(subjectsToEnrol);
+            SubjectDatabase subjectsUnenrolled = current.difference(updated);
+            SubjectDatabase subjectsEnrolledNow = updated.difference(current);
+            if (subjectsEnrolledNow.getSize() == 0 && subjectsUnenrolled.getSize() == 0)
+            {
+                dropSeats(seatsHeld);
+                return new EnrolmentResult(EnrolmentResult.Status.UNCHANGED, subjectsEnrolledNow,
+                        subjectsUnenrolled, new SubjectDatabase(), current, retries,
+                        studentsPromoted);
+            }
+            EnrolledSubjects next = new EnrolledSubjects(updated, current.getVersion() + 1);
+            if (checkCredit && next.getTotalCredit() > MAXIMUM_CREDIT &&
+                    next.getTotalCredit() > current.getTotalCredit())
+            {
+                dropSeats(seatsHeld);
+                return new EnrolmentResult(EnrolmentResult.Status.CREDIT_EXCEEDED,
+                        new SubjectDatabase(), new SubjectDatabase(), new SubjectDatabase(),
+                        current, retries, studentsPromoted);
+            }
+            boolean countSeats = holdsSeats;
+            SubjectDatabase subjectsFull = (countSeats ?
+                    takeSeats(subjectsEnrolledNow, seatsHeld) : new SubjectDatabase());
+            if (!countSeats || subjectsFull.getSize() > 0)
+                dropSeats(seatsHeld);
+            if (subjectsFull.getSize() > 0)
+                return new EnrolmentResult(EnrolmentResult.Status.SUBJECT_FULL,
+                        new SubjectDatabase(), new SubjectDatabase(), subjectsFull, current,
+                        retries, studentsPromoted);
+            if (commitVersion(current, next, subjectsUnenrolled, subjectsEnrolledNow))
+            {
+                if (countSeats)
+                    giveBackSeats(subjectsUnenrolled, studentsPromoted);
+                return new EnrolmentResult(EnrolmentResult.Status.COMMITTED, subjectsEnrolledNow,
+                        subjectsUnenrolled, new SubjectDatabase(), next, retries,
+                        studentsPromoted);
+            }
+        }
+    }
+
+    /**
+     * Given the enrolments a transaction was worked out on, the new enrolments and the subjects
+     * unenrolled from and enrolled in by the transaction, commit the new enrolments if the
+     * enrolments have not been changed since. As the enrolments are held in an immutable
+     * EnrolledSubjects object that is replaced on every change, the commit is a compare-and-set of
+     * the reference and needs no lock. If the changes of the student are published, a change event
+     * is published for each subject unenrolled from and enrolled in, and the compare-and-set and
+     * the events are then made while holding the lock of the student, so that the events of
+     * concurrent transactions are published in the order the transactions were committed.
+     *
+     * @param   current             The enrolments the transaction was worked out on.
+     * @param   next                The new enrolments.
+     * @param   subjectsUnenrolled  The subjects unenrolled from by the transaction.
+     * @param   subjectsEnrolledNow The subjects enrolled in by the transaction.
+     * @return  true    If the new enrolments have been committed, false if the enrolments were
+     *                  changed by another thread first.
+     */
+    private boolean commitVersion(EnrolledSubjects current, EnrolledSubjects next,
+                                  SubjectDatabase subjectsUnenrolled,
+                                  SubjectDatabase subjectsEnrolledNow)
+    {
+        StudentChangePublisher publisher = changePublisher;
+        if (publisher == null)
+            return SUBJECTS_ENROLLED.compareAndSet(this, current, next);
+        synchronized (this)
+        {
+            if (!SUBJECTS_ENROLLED.compareAndSet(this, current, next))
+                return false;
+            for (int index = 0; index < subjectsUnenrolled.getSize(); index++)
+                publisher.publish(StudentChangeEvent.Type.UNENROLLED, this,
+                        subjectsUnenrolled.getSubject(index));
+            for (int index = 0; index < subjectsEnrolledNow.getSize(); index++)
+                publisher.publish(StudentChangeEvent.Type.ENROLLED, this,
+                        subjectsEnrolledNow.getSubject(index));
+            return true;
+        }
     }
 
     /**
@@ -44,7 +210,21 @@ public class Student
      */
     public boolean compareStudentNames(String inputName)
     {
-        return (getName().toLowerCase().equals(inputName.toLowerCase()));
+        int[] inputTokenIds = NAMES.lookup(inputName);
+        return (inputTokenIds != null && compareStudentNames(inputTokenIds));
+    }
+
+    /**
+     * Given the token IDs of a name returned by NameDictionary.lookup(), check if the name of the
+     * Student object is the same name. Comparing the token IDs is faster than comparing the names
+     * when many students are compared with the same name.
+     *
+     * @param   inputTokenIds   The token IDs of the name to be processed.
+     * @return  true    If the name of the Student object has the given token IDs, false otherwise.
+     */
+    boolean compareStudentNames(int[] inputTokenIds)
+    {
+        return Arrays.equals(nameTokenIds, inputTokenIds);
     }
 
     /**
@@ -52,7 +232,7 @@ public class Student
      */
     public void displayStudent()
     {
-        System.out.println(name + " (ID: " +
+        Output.println(getName() + " (ID: " +
                 identityNumber +
                 ", " +
                 (suspension ? "Unsuspended" : "Suspended") +
@@ -61,13 +241,17 @@ public class Student
 
     /**
      * Given a subject (a Subject object), add the subject to the SubjectDatabase object of
-     * enrolled subjects of a Student object.
+     * enrolled subjects of a Student object, unless the student is already enrolled in it. The
+     * change is committed as a transaction like updateEnrolments(), but the maximum credit is not
+     * checked.
      *
      * @param   The subject to be enrolled in.
      */
     public void enrolSubject(Subject newSubject)
     {
-        subjectsEnrolled.addSubject(newSubject);
+        SubjectDatabase subjectToEnrol = new SubjectDatabase(1);
+        subjectToEnrol.addSubject(newSubject);
+        commitEnrolments(subjectToEnrol, EnrolledSubjects.NONE, false);
     }
 
     /**
@@ -99,6 +283,48 @@ public class Student
         return formattedFullName.trim();
     }
 
+    /**
+     * Given the subjects whose seats are held by a transaction that is not to be committed, give
+     * back a seat of each of them and empty the list. The waitlists are not served, as the seats
+     * were never used.
+     *
+     * @param   seatsHeld   The subjects whose seats are held by the transaction.
+     */
+    private static void dropSeats(SubjectDatabase seatsHeld)
+    {
+        for (int index = 0; index < seatsHeld.getSize(); index++)
+            seatsHeld.getSubject(index).releaseSeat();
+        seatsHeld.clearSubjectDatabase();
+    }
+
+    /**
+     * Given a list of subjects and the list of students enrolled from waitlists so far, give back
+     * a seat of each of the subjects with a capacity, then serve the waitlists of those subjects
+     * and add the students enrolled from them to the list.
+     *
+     * @param   subjects            The subjects whose seats are given back.
+     * @param   studentsPromoted    The students enrolled from waitlists so far.
+     */
+    private void giveBackSeats(SubjectDatabase subjects, ArrayList<Student> studentsPromoted)
+    {
+        for (int index = 0; index < subjects.getSize(); index++)
+            if (subjects.getSubject(index).hasCapacity())
+                subjects.getSubject(index).releaseSeat();
+        for (int index = 0; index < subjects.getSize(); index++)
+            if (subjects.getSubject(index).hasCapacity())
+                studentsPromoted.addAll(subjects.getSubject(index).promoteWaitlist());
+    }
+
+    /**
+     * Return the publisher to which the changes of a Student object are published.
+     *
+     * @return  The change publisher, or null if the changes are not published.
+     */
+    StudentChangePublisher getChangePublisher()
+    {
+        return changePublisher;
+    }
+
     /**
      * Return the identity number a Student object.
      *
@@ -110,22 +336,38 @@ public class Student
     }
 
     /**
-     * Return the name of a Student object.
+     * Return the name of a Student object, decoded from the token IDs of its words in the
+     * dictionary of names shared by all students.
      *
      * @return  The name of a student.
      */
     public String getName()
     {
-        return name;
+        return NAMES.decode(nameTokenIds);
     }
 
     /**
-     * Return the the SubjectDatabase object of enrolled subjects of a Student object.
+     * Return the version of the enrolments of a Student object, i.e., the number of changes
+     * committed to its enrolments.
+     *
+     * @return  The version of the enrolments.
+     */
+    public long getEnrolmentVersion()
+    {
+        return getSubjectsEnrolled().getVersion();
+    }
+
+    /**
+     * Return the the SubjectDatabase object of enrolled subjects of a Student object. The pending
+     * enrolments of the student, if any, are decoded first. The list cannot be changed and stays
+     * the same if the enrolments of the student are changed afterwards.
      *
      * @return  The list of enrolled subjects of a student.
      */
-    public SubjectDatabase getSubjectsEnrolled()
+    public EnrolledSubjects getSubjectsEnrolled()
     {
+        if (pendingEnrolments != null)
+            materialiseEnrolments();
         return subjectsEnrolled;
     }
 
@@ -139,6 +381,27 @@ public class Student
         return suspension;
     }
 
+    /**
+     * Return the total credit points of the enrolled subjects of a Student object.
+     *
+     * @return  The total credit points of a student.
+     */
+    public int getTotalCredit()
+    {
+        return getSubjectsEnrolled().getTotalCredit();
+    }
+
+    /**
+     * Check if a Student object holds seats of the subjects it is enrolled in, i.e., if it is on
+     * the list of all students of the school.
+     *
+     * @return  true    If the seats of the student are counted, false otherwise.
+     */
+    boolean holdsSeats()
+    {
+        return holdsSeats;
+    }
+
     /**
      * Given an integer of identity number and check if the integer falls within the defined range.
      *
@@ -147,12 +410,49 @@ public class Student
      */
     private boolean identityNumberInRange(int inputIdentityNumber)
     {
-        if (inputIdentityNumber >= 111 && inputIdentityNumber <= 999)
+        if (inputIdentityNumber >= MINIMUM_IDENTITY_NUMBER &&
+                inputIdentityNumber <= MAXIMUM_IDENTITY_NUMBER)
             return true;
         else
             return false;
     }
 
+    /**
+     * Check if the enrolments of a Student object have been loaded but not decoded yet.
+     *
+     * @return  true    If the enrolled subjects are still to be looked up, false otherwise.
+     */
+    boolean hasPendingEnrolments()
+    {
+        return (pendingEnrolments != null);
+    }
+
+    /**
+     * Given the subjects a Student object was enrolled in when it was saved, set them as its first
+     * version of the enrolments. No change events are published, as the enrolments are loaded
+     * rather than changed.
+     *
+     * @param   subjects    The enrolled subjects loaded from the file.
+     */
+    void initialiseEnrolments(SubjectDatabase subjects)
+    {
+        subjectsEnrolled = new EnrolledSubjects(subjects, 0);
+    }
+
+    /**
+     * Decode the pending enrolments of a Student object into its list of enrolled subjects.
+     * Subjects no longer offered are left out, as they are when the student is loaded eagerly. No
+     * change events are published, as the enrolments are not changed. The enrolments are decoded
+     * only once, even if several threads read them at the same time.
+     */
+    private synchronized void materialiseEnrolments()
+    {
+        if (pendingEnrolments == null)
+            return;
+        subjectsEnrolled = new EnrolledSubjects(pendingEnrolments.decode(pendingOffset), 0);
+        pendingEnrolments = null;
+    }
+
     /**
      * Given a name (a string of words), check if the string is not empty and comprises only
      * alphabets.
@@ -185,6 +485,127 @@ public class Student
         return true;
     }
 
+    /**
+     * Given the subjects whose credit points have just changed, replace the enrolments of a
+     * Student object enrolled in any of them with a new version holding the same subjects, so that
+     * its total credit is worked out again from the new credit points. The replacement is
+     * committed with a compare-and-set like any other change and retried if another thread
+     * commits a change first. Enrolments still pending are left alone, as they are decoded with
+     * the credit points current at the time. No change events are published, as the enrolled
+     * subjects do not change.
+     *
+     * @param   subjectsChanged The subjects whose credit points have changed.
+     * @return  true    If the total credit has been worked out again, false if the student is not
+     *                  enrolled in any of the subjects.
+     */
+    boolean recalculateCredit(Set<Subject> subjectsChanged)
+    {
+        synchronized (this)
+        {
+            if (pendingEnrolments != null)
+                return false;
+        }
+        while (true)
+        {
+            EnrolledSubjects current = subjectsEnrolled;
+            boolean affected = false;
+            for (int index = 0; index < current.getSize() && !affected; index++)
+                affected = subjectsChanged.contains(current.getSubject(index));
+            if (!affected)
+                return false;
+            EnrolledSubjects next = new EnrolledSubjects(current, current.getVersion() + 1);
+            if (SUBJECTS_ENROLLED.compareAndSet(this, current, next))
+                return true;
+        }
+    }
+
+    /**
+     * Give back the seats of a Student object being removed from the list of all students of the
+     * school and stop counting seats for it. The students waiting for the seats are enrolled.
+     *
+     * @return  The students enrolled from waitlists in the seats given back.
+     */
+    ArrayList<Student> releaseSeats()
+    {
+        ArrayList<Student> studentsPromoted = new ArrayList<>();
+        if (!holdsSeats)
+            return studentsPromoted;
+        holdsSeats = false;
+        if (!hasPendingEnrolments())
+            giveBackSeats(getSubjectsEnrolled(), studentsPromoted);
+        return studentsPromoted;
+    }
+
+    /**
+     * Given a change publisher, publish the changes of a Student object to it from now on, i.e.,
+     * an event whenever the student is suspended, unsuspended, enrolled in or unenrolled from a
+     * subject. Students on a list of students with change listeners are given the list's
+     * publisher.
+     *
+     * @param   newChangePublisher  The change publisher, or null to stop publishing changes.
+     */
+    void setChangePublisher(StudentChangePublisher newChangePublisher)
+    {
+        changePublisher = newChangePublisher;
+    }
+
+    /**
+     * Given a store of raw enrolment fields and the offset of the field of a Student object in it,
+     * keep the field to be decoded the first time the enrolled subjects of the student are needed,
+     * in place of its current list of enrolled subjects.
+     *
+     * @param   enrolments  The store of enrolment fields.
+     * @param   offset      The offset of the field of the student.
+     */
+    void setPendingEnrolments(PendingEnrolments enrolments, int offset)
+    {
+        pendingOffset = offset;
+        pendingEnrolments = enrolments;
+    }
+
+    /**
+     * Given a subject and whether the student was enrolled in or unenrolled from it, apply a
+     * change already committed elsewhere (e.g., replayed from a ChangeJournal) to the enrolments
+     * of a Student object. Neither the maximum credit nor the capacity of the subject is checked,
+     * as the change has already been allowed; a student holding seats takes or gives back a seat
+     * of the subject regardless, without serving its waitlist.
+     *
+     * @param   subject     The subject enrolled in or unenrolled from.
+     * @param   enrolled    true if the student was enrolled in the subject, false if unenrolled.
+     * @return  The outcome of the change, UNCHANGED if the student was already in that state.
+     */
+    EnrolmentResult replayEnrolment(Subject subject, boolean enrolled)
+    {
+        SubjectDatabase subjectChanged = new SubjectDatabase(1);
+        subjectChanged.addSubject(subject);
+        for (int retries = 0; ; retries++)
+        {
+            EnrolledSubjects current = getSubjectsEnrolled();
+            SubjectDatabase updated = (enrolled ? current.union(subjectChanged) :
+                    current.difference(subjectChanged));
+            SubjectDatabase subjectsUnenrolled = current.difference(updated);
+            SubjectDatabase subjectsEnrolledNow = updated.difference(current);
+            if (subjectsEnrolledNow.getSize() == 0 && subjectsUnenrolled.getSize() == 0)
+                return new EnrolmentResult(EnrolmentResult.Status.UNCHANGED, subjectsEnrolledNow,
+                        subjectsUnenrolled, new SubjectDatabase(), current, retries,
+                        new ArrayList<>());
+            EnrolledSubjects next = new EnrolledSubjects(updated, current.getVersion() + 1);
+            if (commitVersion(current, next, subjectsUnenrolled, subjectsEnrolledNow))
+            {
+                if (holdsSeats && subject.hasCapacity())
+                {
+                    if (enrolled)
+                        subject.takeSeat();
+                    else
+                        subject.releaseSeat();
+                }
+                return new EnrolmentResult(EnrolmentResult.Status.COMMITTED, subjectsEnrolledNow,
+                        subjectsUnenrolled, new SubjectDatabase(), next, retries,
+                        new ArrayList<>());
+            }
+        }
+    }
+
     /**
      * Take an integer of identity number and check if the integer falls within the defined range.
      * Modify the current student identity number to the value of the integer if it is within the
@@ -194,10 +615,8 @@ public class Student
      */
     public void setIdentityNumber(int newIdentityNumber)
     {
-        if (identityNumberInRange(newIdentityNumber))
-            identityNumber = newIdentityNumber;
-        else
-            System.out.println("\nNo changes have been made to the identity number!");
+        if (updateIdentityNumber(newIdentityNumber) != ValidationResult.VALID)
+            Output.println("\nNo changes have been made to the identity number!");
     }
 
     /**
@@ -209,10 +628,8 @@ public class Student
      */
     public void setName(String newName)
     {
-        if (nameIsAlphabetic(newName))
-            name = formatName(newName);
-        else
-            System.out.println("\nNo changes have been made to the name!");
+        if (updateName(newName) != ValidationResult.VALID)
+            Output.println("\nNo changes have been made to the name!");
     }
 
     /**
@@ -224,10 +641,8 @@ public class Student
      */
     public void setSuspension(String newSuspension)
     {
-        if (suspensionIsBoolean(newSuspension))
-            suspension = Boolean.parseBoolean(newSuspension);
-        else
-            System.out.println("\nNo changes have been made to the suspension status!");
+        if (updateSuspension(newSuspension) != ValidationResult.VALID)
+            Output.println("\nNo changes have been made to the suspension status!");
     }
 
     /**
@@ -244,6 +659,56 @@ public class Student
             return false;
     }
 
+    /**
+     * Given a list of subjects and the subjects whose seats are already held by the transaction,
+     * take a seat of each of the subjects with a capacity not held yet, adding it to the seats
+     * held, and give back the seats held of the subjects no longer on the list without serving
+     * their waitlists.
+     *
+     * @param   subjects    The subjects to be enrolled in.
+     * @param   seatsHeld   The subjects whose seats are held by the transaction.
+     * @return  The subjects that are full, empty if all the seats are held.
+     */
+    private static SubjectDatabase takeSeats(SubjectDatabase subjects, SubjectDatabase seatsHeld)
+    {
+        SubjectDatabase seatsNotNeeded = seatsHeld.difference(subjects);
+        for (int index = 0; index < seatsNotNeeded.getSize(); index++)
+        {
+            seatsHeld.removeSubject(seatsNotNeeded.getSubject(index));
+            seatsNotNeeded.getSubject(index).releaseSeat();
+        }
+        SubjectDatabase subjectsFull = new SubjectDatabase();
+        SubjectDatabase subjectsToTake = subjects.difference(seatsHeld);
+        for (int index = 0; index < subjectsToTake.getSize(); index++)
+        {
+            Subject subject = subjectsToTake.getSubject(index);
+            if (!subject.hasCapacity())
+                continue;
+            if (subject.tryTakeSeat())
+                seatsHeld.addSubject(subject);
+            else
+                subjectsFull.addSubject(subject);
+        }
+        return subjectsFull;
+    }
+
+    /**
+     * Return the data of a Student object as a comma-separated line in the format of
+     * "students.txt", i.e., name, identity number, suspension status, and the name and credit
+     * points of each enrolled subject.
+     *
+     * @return  The line of text representing a student.
+     */
+    public String toFileRecord()
+    {
+        SubjectDatabase subjectsEnrolled = getSubjectsEnrolled();
+        StringBuilder record = new StringBuilder();
+        record.append(getName()).append(',').append(identityNumber).append(',').append(suspension);
+        for (int index = 0; index < subjectsEnrolled.getSize(); index++)
+            record.append(',').append(subjectsEnrolled.getSubject(index).toString());
+        return record.toString();
+    }
+
     /**
      * Return basic information regarding a Student object as a string.
      *
@@ -251,7 +716,7 @@ public class Student
      */
     public String toString()
     {
-        return (name +
+        return (getName() +
                 " (ID: " +
                 identityNumber +
                 ", " +
@@ -261,12 +726,89 @@ public class Student
 
     /**
      * Given a subject (a Subject object), remove the subject from the SubjectDatabase object of
-     * enrolled subjects of a Student object.
+     * enrolled subjects of a Student object. The change is committed as a transaction like
+     * updateEnrolments().
      *
      * @param   The subjec to be unenrolled from.
      */
     public void unenrolSubject(Subject newSubject)
     {
-        subjectsEnrolled.removeSubject(newSubject);
+        SubjectDatabase subjectToUnenrol = new SubjectDatabase(1);
+        subjectToUnenrol.addSubject(newSubject);
+        commitEnrolments(EnrolledSubjects.NONE, subjectToUnenrol, false);
+    }
+
+    /**
+     * Given the subjects to enrol in and the subjects to unenrol from, change the enrolments of a
+     * Student object as one transaction: unenrol from the subjects to unenrol from, then enrol in
+     * the subjects to enrol in that the student is not yet enrolled in. The transaction is
+     * rejected if it would take the total credit beyond the maximum, and makes no change if the
+     * student is already in the requested state. The transaction is worked out on the current
+     * version of the enrolments and committed only if no other change has been committed since;
+     * otherwise it is retried on the newer version, so that concurrent transactions never exceed
+     * the maximum credit. Nothing is printed.
+     *
+     * @param   subjectsToEnrol     The subjects to enrol in.
+     * @param   subjectsToUnenrol   The subjects to unenrol from.
+     * @return  The outcome of the transaction.
+     */
+    public EnrolmentResult updateEnrolments(SubjectDatabase subjectsToEnrol,
+                                            SubjectDatabase subjectsToUnenrol)
+    {
+        return commitEnrolments(subjectsToEnrol, subjectsToUnenrol, true);
+    }
+
+    /**
+     * Take an integer of identity number and check if the integer falls within the defined range.
+     * Modify the current student identity number to the value of the integer if it is within the
+     * range. Nothing is printed, so that the caller can report the result.
+     *
+     * @param   newIdentityNumber   The new identity number to be processed.
+     * @return  VALID if the identity number has been changed, IDENTITY_NUMBER_OUT_OF_RANGE
+     *          otherwise.
+     */
+    public ValidationResult updateIdentityNumber(int newIdentityNumber)
+    {
+        if (!identityNumberInRange(newIdentityNumber))
+            return ValidationResult.IDENTITY_NUMBER_OUT_OF_RANGE;
+        identityNumber = newIdentityNumber;
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Take a string of name and check if the string consists of only alphabets. Modify the
+     * current student name to the name if it consists of only alphabets. The name is stored as
+     * the token IDs of its words in the dictionary of names shared by all students rather than
+     * as a string. Nothing is printed, so that the caller can report the result.
+     *
+     * @param   newName The new student name.
+     * @return  VALID if the name has been changed, INVALID_STUDENT_NAME otherwise.
+     */
+    public ValidationResult updateName(String newName)
+    {
+        if (!nameIsAlphabetic(newName))
+            return ValidationResult.INVALID_STUDENT_NAME;
+        nameTokenIds = NAMES.encode(formatName(newName));
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Take a string and check if the string is "true" or "false". Modify the current suspension
+     * status to the boolean value of the string if it is either "true" or "false". Nothing is
+     * printed, so that the caller can report the result.
+     *
+     * @param   newSuspension   The new suspension status.
+     * @return  VALID if the suspension status has been set, INVALID_SUSPENSION otherwise.
+     */
+    public ValidationResult updateSuspension(String newSuspension)
+    {
+        if (!suspensionIsBoolean(newSuspension))
+            return ValidationResult.INVALID_SUSPENSION;
+        boolean previousSuspension = suspension;
+        suspension = Boolean.parseBoolean(newSuspension);
+        if (changePublisher != null && suspension != previousSuspension)
+            changePublisher.publish(suspension ? StudentChangeEvent.Type.UNSUSPENDED :
+                    StudentChangeEvent.Type.SUSPENDED, this, null);
+        return ValidationResult.VALID;
     }
 }
@@ -0,0 +1,168 @@
+package com.tzeloonneoh;
+
+/**
+ * The StudentChangeEvent class describes a single change to a list of students: a student was
+ * added or removed, suspended or unsuspended, or enrolled in or unenrolled from a subject. A bulk
+ * action is marked by a BULK_BEGIN and a BULK_END event around the changes it makes. Each
+ * event carries a sequence number that increases by one for every event published by the same
+ * list, so subscribers can tell whether events were dropped.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class StudentChangeEvent
+{
+    /**
+     * The Type enumeration lists the kinds of change to a list of students.
+     */
+    public enum Type
+    {
+        ADDED,
+        REMOVED,
+        SUSPENDED,
+        UNSUSPENDED,
+        ENROLLED,
+        UNENROLLED,
+        BULK_BEGIN,
+        BULK_END
+    }
+
+    private long sequenceNumber;
+    private long timestamp;
+    private Type type;
+    private int identityNumber;
+    private String name;
+    private String subjectName;
+    private String record;
+
+    /**
+     * Construct a change event.
+     *
+     * @param   sequenceNumber  The sequence number of the event.
+     * @param   type            The kind of change.
+     * @param   student         The student that was changed.
+     * @param   subject         The subject enrolled in or unenrolled from, or null for other kinds
+     *                          of change.
+     */
+    StudentChangeEvent(long sequenceNumber, Type type, Student student, Subject subject)
+    {
+        this.sequenceNumber = sequenceNumber;
+        timestamp = System.currentTimeMillis();
+        this.type = type;
+        identityNumber = student.getIdentityNumber();
+        name = student.getName();
+        subjectName = (subject == null ? null : subject.getName());
+        record = (type == Type.ADDED ? student.toFileRecord() : null);
+    }
+
+    /**
+     * Construct an event marking the beginning or end of a bulk change, which changes no student
+     * by itself.
+     *
+     * @param   sequenceNumber  The sequence number of the event.
+     * @param   type            BULK_BEGIN or BULK_END.
+     * @param   description     The description of the bulk change, e.g., the bulk action.
+     */
+    StudentChangeEvent(long sequenceNumber, Type type, String description)
+    {
+        this.sequenceNumber = sequenceNumber;
+        timestamp = System.currentTimeMillis();
+        this.type = type;
+        name = description;
+    }
+
+    /**
+     * Check if the event marks the beginning or end of a bulk change rather than a change to a
+     * student.
+     *
+     * @return  true    If the event is BULK_BEGIN or BULK_END, false otherwise.
+     */
+    public boolean isBulkMarker()
+    {
+        return (type == Type.BULK_BEGIN || type == Type.BULK_END);
+    }
+
+    /**
+     * Return the identity number of the changed student.
+     *
+     * @return  The identity number of the student.
+     */
+    public int getIdentityNumber()
+    {
+        return identityNumber;
+    }
+
+    /**
+     * Return the name of the changed student.
+     *
+     * @return  The name of the student.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Return the data of an added student, including the enrolled subjects, as a line in the
+     * format of "students.txt".
+     *
+     * @return  The record of the student, or null if the event is not an addition.
+     */
+    public String getRecord()
+    {
+        return record;
+    }
+
+    /**
+     * Return the sequence number of the event.
+     *
+     * @return  The sequence number.
+     */
+    public long getSequenceNumber()
+    {
+        return sequenceNumber;
+    }
+
+    /**
+     * Return the name of the subject enrolled in or unenrolled from.
+     *
+     * @return  The name of the subject, or null if the event is not an enrolment change.
+     */
+    public String getSubjectName()
+    {
+        return subjectName;
+    }
+
+    /**
+     * Return the time at which the change was made.
+     *
+     * @return  The time of the change in milliseconds since the epoch.
+     */
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    /**
+     * Return the kind of change.
+     *
+     * @return  The type of the event.
+     */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * Return the event as a string.
+     *
+     * @return  The description of the event.
+     */
+    public String toString()
+    {
+        if (isBulkMarker())
+            return ("#" + sequenceNumber + " " + type + " " + name);
+        return ("#" + sequenceNumber + " " + type + " " + name + " (ID: " + identityNumber + ")" +
+                (subjectName == null ? "" : " " + subjectName));
+    }
+}
@@ -0,0 +1,35 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The StudentChangeListener interface is implemented by subscribers to the changes of a list of
+ * students. Events are delivered in batches, in the order in which they were published, on the
+ * background delivery thread of the list.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public interface StudentChangeListener
+{
+    /**
+     * Check if the subscriber can miss events. By default the change publisher drops events
+     * rather than wait when the subscriber falls behind. A subscriber that must see every event,
+     * such as a journal that followers replay, returns false, and the publisher then waits for
+     * room on its queue instead, so that changes are slowed down to the pace of the subscriber.
+     * Such a subscriber must not change the list of students itself.
+     *
+     * @return  true    If events may be dropped for the subscriber, false otherwise.
+     */
+    default boolean canMissEvents()
+    {
+        return true;
+    }
+
+    /**
+     * Given a batch of change events, process them.
+     *
+     * @param   events  The events in order of their sequence numbers.
+     */
+    void studentsChanged(List<StudentChangeEvent> events);
+}
@@ -0,0 +1,234 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The StudentChangePublisher class delivers the change events of a list of students to its
+ * subscribers. Publishing an event only offers it to a bounded queue and never waits: if the
+ * queue is full because a subscriber is slow, the event is dropped and counted (subscribers can
+ * spot the gap in the sequence numbers). While a subscriber that cannot miss events (such as a
+ * ChangeJournal) is subscribed, publishing waits for room on the queue instead, so that no event
+ * is dropped. Events are queued in the order of their sequence numbers, even when several threads
+ * publish at once. A background thread takes the events off the queue and
+ * hands them to every subscriber in batches of up to "changeEvents.batchSize" (default 256)
+ * events. The capacity of the queue is set by "changeEvents.capacity" (default 8192).
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class StudentChangePublisher
+{
+    private static final int CAPACITY = Integer.getInteger("changeEvents.capacity", 8192);
+    private static final int BATCH_SIZE = Integer.getInteger("changeEvents.batchSize", 256);
+    private static final long POLL_MILLIS = 100;
+
+    private ArrayBlockingQueue<StudentChangeEvent> queue;
+    private CopyOnWriteArrayList<StudentChangeListener> listeners;
+    private AtomicLong sequenceNumber;
+    private Object publishLock;
+    private volatile boolean waitForRoom;
+    private LongAdder dropped;
+    private LongAdder delivered;
+    private LongAdder batches;
+    private volatile boolean closed;
+    private Thread deliveryThread;
+
+    /**
+     * Construct a publisher with no subscribers and start its delivery thread.
+     */
+    public StudentChangePublisher()
+    {
+        queue = new ArrayBlockingQueue<>(CAPACITY);
+        listeners = new CopyOnWriteArrayList<>();
+        sequenceNumber = new AtomicLong();
+        publishLock = new Object();
+        dropped = new LongAdder();
+        delivered = new LongAdder();
+        batches = new LongAdder();
+        deliveryThread = new Thread(this::deliverEvents, "student-change-delivery");
+        deliveryThread.setDaemon(true);
+        deliveryThread.start();
+    }
+
+    /**
+     * Add a subscriber.
+     *
+     * @param   listener    The subscriber to be added.
+     */
+    public void addListener(StudentChangeListener listener)
+    {
+        listeners.add(listener);
+        updateWaitForRoom();
+    }
+
+    /**
+     * Stop accepting events, deliver the events still on the queue and stop the delivery thread.
+     */
+    public void close()
+    {
+        closed = true;
+        try
+        {
+            deliveryThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Given a batch of events, hand it to every subscriber. A subscriber that fails does not stop
+     * the others from receiving the batch.
+     *
+     * @param   batch   The events to be delivered.
+     */
+    private void deliver(List<StudentChangeEvent> batch)
+    {
+        List<StudentChangeEvent> events = Collections.unmodifiableList(batch);
+        for (StudentChangeListener listener : listeners)
+        {
+            try
+            {
+                listener.studentsChanged(events);
+            }
+            catch (RuntimeException e)
+            {
+                Output.println("Student change listener failed: " + e);
+            }
+        }
+        delivered.add(batch.size());
+        batches.increment();
+    }
+
+    /**
+     * Take events off the queue and deliver them in batches until the publisher is closed and
+     * the queue is empty. Run on the delivery thread.
+     */
+    private void deliverEvents()
+    {
+        ArrayList<StudentChangeEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || !queue.isEmpty())
+        {
+            try
+            {
+                StudentChangeEvent event = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (event == null)
+                    continue;
+                batch.add(event);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                deliver(batch);
+                batch.clear();
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Given a change event, put it on the queue, waiting for room if a subscriber cannot miss
+     * events. Must be called while holding the publish lock.
+     *
+     * @param   event   The event to be queued.
+     * @return  true    If the event has been queued, false if it is to be dropped.
+     */
+    private boolean enqueue(StudentChangeEvent event)
+    {
+        if (closed)
+            return false;
+        if (!waitForRoom)
+            return queue.offer(event);
+        try
+        {
+            queue.put(event);
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Return the published, delivered and dropped event counts of the publisher as a string.
+     *
+     * @return  The statistics of the publisher.
+     */
+    public String getStatistics()
+    {
+        long batchCount = batches.sum();
+        return ("Student change events: " + sequenceNumber.get() + " published, " +
+                delivered.sum() + " delivered in " + batchCount + " batches, " +
+                dropped.sum() + " dropped, " + queue.size() + " queued, " + listeners.size() +
+                " subscribers");
+    }
+
+    /**
+     * Given the kind of a change, the changed student and the subject (if any), publish a change
+     * event. The event is dropped if the publisher has been closed or, unless a subscriber cannot
+     * miss events, if the queue is full. The sequence number is assigned and the event queued in
+     * one critical section, so that an event can never be queued before one with a lower
+     * number.
+     *
+     * @param   type    The kind of change.
+     * @param   student The student that was changed.
+     * @param   subject The subject enrolled in or unenrolled from, or null.
+     */
+    public void publish(StudentChangeEvent.Type type, Student student, Subject subject)
+    {
+        synchronized (publishLock)
+        {
+            StudentChangeEvent event = new StudentChangeEvent(sequenceNumber.incrementAndGet(),
+                    type, student, subject);
+            if (!enqueue(event))
+                dropped.increment();
+        }
+    }
+
+    /**
+     * Given BULK_BEGIN or BULK_END and the description of a bulk change, publish the event marking
+     * the beginning or end of the bulk change, in the same way as publish().
+     *
+     * @param   type        BULK_BEGIN or BULK_END.
+     * @param   description The description of the bulk change.
+     */
+    public void publishBulkMarker(StudentChangeEvent.Type type, String description)
+    {
+        synchronized (publishLock)
+        {
+            StudentChangeEvent event = new StudentChangeEvent(sequenceNumber.incrementAndGet(),
+                    type, description);
+            if (!enqueue(event))
+                dropped.increment();
+        }
+    }
+
+    /**
+     * Remove a subscriber.
+     *
+     * @param   listener    The subscriber to be removed.
+     */
+    public void removeListener(StudentChangeListener listener)
+    {
+        listeners.remove(listener);
+        updateWaitForRoom();
+    }
+
+    /**
+     * Check if any subscriber cannot miss events, in which case publishing waits for room on the
+     * queue rather than drop events.
+     */
+    private void updateWaitForRoom()
+    {
+        boolean wait = false;
+        for (StudentChangeListener listener : listeners)
+            if (!listener.canMissEvents())
+                wait = true;
+        waitForRoom = wait;
+    }
+}
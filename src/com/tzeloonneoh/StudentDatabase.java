@@ -11,6 +11,13 @@ import java.util.*;
 public class StudentDatabase
 {
     private ArrayList<Student> studentDatabase;
+    private int tombstones;
+    private HashMap<Integer, Integer> identityNumberIndex;
+    private HashMap<Integer, ArrayList<Integer>> sharedIdentityNumbers;
+    private StudentChangePublisher changePublisher;
+    private NameSearchIndex nameSearchIndex;
+    private long changeCount;
+    private volatile RosterVersion publishedVersion;
 
     /**
      * Construct an empty list of students.
@@ -18,6 +25,26 @@ public class StudentDatabase
     public StudentDatabase()
     {
         studentDatabase = new ArrayList<>();
+        publishedVersion = new RosterVersion(new Student[0], 0);
+    }
+
+    /**
+     * Given a subscriber, tell it about every change to a StudentDatabase object to be processed
+     * and to the students on it from now on. The events are delivered in batches on a background
+     * thread (see StudentChangePublisher), so changing the list never waits for a subscriber.
+     *
+     * @param   listener    The subscriber to be added.
+     */
+    public void addChangeListener(StudentChangeListener listener)
+    {
+        if (changePublisher == null)
+        {
+            changePublisher = new StudentChangePublisher();
+            for (Student student : studentDatabase)
+                if (student != null)
+                    student.setChangePublisher(changePublisher);
+        }
+        changePublisher.addListener(listener);
     }
 
     /**
@@ -28,6 +55,79 @@ public class StudentDatabase
     public void addStudent(Student newStudent)
     {
         studentDatabase.add(newStudent);
+        changeCount++;
+        if (identityNumberIndex != null)
+            indexStudent(newStudent, studentDatabase.size() - 1);
+        if (nameSearchIndex != null)
+            nameSearchIndex.addStudent(newStudent);
+        if (changePublisher != null)
+        {
+            newStudent.setChangePublisher(changePublisher);
+            changePublisher.publish(StudentChangeEvent.Type.ADDED, newStudent, null);
+        }
+    }
+
+    /**
+     * Given the description of a bulk change (e.g., the bulk action), tell the subscribers that
+     * the changes published from now on until endBulkChange() belong to it, so that they can be
+     * recorded or applied as one. Do nothing if the list has no subscribers.
+     *
+     * @param   description The description of the bulk change.
+     */
+    public void beginBulkChange(String description)
+    {
+        if (changePublisher != null)
+            changePublisher.publishBulkMarker(StudentChangeEvent.Type.BULK_BEGIN, description);
+    }
+
+    /**
+     * Deliver the change events that have not been delivered yet and stop publishing changes of a
+     * StudentDatabase object to be processed. Do nothing if it has no subscribers.
+     */
+    public void closeChangeListeners()
+    {
+        if (changePublisher == null)
+            return;
+        for (Student student : studentDatabase)
+            if (student != null && student.getChangePublisher() == changePublisher)
+                student.setChangePublisher(null);
+        changePublisher.close();
+        changePublisher = null;
+    }
+
+    /**
+     * Remove the empty slots left by removed students, keeping the order of the remaining
+     * students, and move the slots in the index of identity numbers (and in the lists of slots
+     * of shared identity numbers) accordingly. Called before the next scan or access by index
+     * after a student has been removed.
+     */
+    private void compact()
+    {
+        if (tombstones == 0)
+            return;
+        if (identityNumberIndex != null)
+            for (ArrayList<Integer> slots : sharedIdentityNumbers.values())
+                slots.clear();
+        int slot = 0;
+        for (int index = 0; index < studentDatabase.size(); index++)
+        {
+            Student student = studentDatabase.get(index);
+            if (student != null)
+            {
+                studentDatabase.set(slot, student);
+                if (identityNumberIndex != null)
+                {
+                    identityNumberIndex.put(student.getIdentityNumber(), slot);
+                    ArrayList<Integer> slots =
+                            sharedIdentityNumbers.get(student.getIdentityNumber());
+                    if (slots != null)
+                        slots.add(slot);
+                }
+                slot++;
+            }
+        }
+        studentDatabase.subList(slot, studentDatabase.size()).clear();
+        tombstones = 0;
     }
 
     /**
@@ -45,45 +145,106 @@ public class StudentDatabase
     }
 
     /**
-     * Given an identity number (an integer), compare the identity number with those of the
-     * Student objects stored in a StudentDatabase object to be processed and return, if
-     * there is, a Student object with the same identity number.
+     * Given the description of the bulk change begun by beginBulkChange(), tell the subscribers
+     * that it has ended. Do nothing if the list has no subscribers.
+     *
+     * @param   description The description of the bulk change.
+     */
+    public void endBulkChange(String description)
+    {
+        if (changePublisher != null)
+            changePublisher.publishBulkMarker(StudentChangeEvent.Type.BULK_END, description);
+    }
+
+    /**
+     * Given an identity number (an integer), look up the identity number in the index of a
+     * StudentDatabase object to be processed and return, if there is, the (last added) Student
+     * object with the same identity number.
      *
      * @param   inputIdentityNumber    The user input of student identity number.
      * @return  The Student object with the same identity numbers the user input.
      */
     public Student filterStudentByIdentityNumber(int inputIdentityNumber)
     {
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
         Student studentByIdentityNumber = new Student();
-        Iterator<Student> it = studentDatabase.iterator();
-        while (it.hasNext())
-        {
-            Student student = it.next();
-            if (compareIdentityNumbers(student, inputIdentityNumber))
-                studentByIdentityNumber = student;
-        }
+        Integer slot = getIdentityNumberIndex().get(inputIdentityNumber);
+        if (slot != null)
+            studentByIdentityNumber = studentDatabase.get(slot);
+        event.complete(Operation.LOOKUP_BY_IDENTITY_NUMBER, 1, (slot == null ? 0 : 1));
+        MetricsRegistry.record(Operation.LOOKUP_BY_IDENTITY_NUMBER, startTime);
         return studentByIdentityNumber;
     }
 
+    /**
+     * Given a name and an identity number, return, if there is, the (last added) Student object
+     * of a StudentDatabase object to be processed that matches both, otherwise a new Student
+     * object.
+     *
+     * @param   inputName           The user input of student name.
+     * @param   inputIdentityNumber The user input of student identity number.
+     * @return  The Student object with the same name and identity number as the user input.
+     */
+    public Student filterStudentByNameAndIdentityNumber(String inputName, int inputIdentityNumber)
+    {
+        Student studentByNameAndIdentityNumber = new Student();
+        int[] inputTokenIds = Student.NAMES.lookup(inputName);
+        if (inputTokenIds == null)
+            return studentByNameAndIdentityNumber;
+        for (int slot : slotsOf(inputIdentityNumber))
+            if (studentDatabase.get(slot).compareStudentNames(inputTokenIds))
+                studentByNameAndIdentityNumber = studentDatabase.get(slot);
+        return studentByNameAndIdentityNumber;
+    }
+
+    /**
+     * Given an identity number, return all the Student objects of a StudentDatabase object to be
+     * processed with that identity number, in the order they were added.
+     *
+     * @param   inputIdentityNumber The identity number to be looked up.
+     * @return  The list of students with the identity number.
+     */
+    public StudentDatabase filterStudentsByIdentityNumber(int inputIdentityNumber)
+    {
+        StudentDatabase studentsByIdentityNumber = new StudentDatabase();
+        for (int slot : slotsOf(inputIdentityNumber))
+            studentsByIdentityNumber.addStudent(studentDatabase.get(slot));
+        return studentsByIdentityNumber;
+    }
+
     /**
      * Given a name (a string of words), compare the name with the names of Student objects
      * stored in a StudentDatabase object to be processed and create a new StudentDatabase
      * object to store, if any, Student object(s) with the same name, and return the
-     * StudentDabase object.
+     * StudentDabase object. The name is looked up in the dictionary of name tokens once, so that
+     * each student is compared by token IDs rather than by name.
      *
      * @param   inputName    The user input of student name.
      * @return  The list of student(s) with the same name as the user input.
      */
     public StudentDatabase filterStudentsByName(String inputName)
     {
+        compact();
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
         StudentDatabase studentsByName = new StudentDatabase();
-        Iterator<Student> it = studentDatabase.iterator();
-        while (it.hasNext())
+        int[] inputTokenIds = Student.NAMES.lookup(inputName);
+        if (inputTokenIds != null)
         {
-            Student student = it.next();
-            if (student.compareStudentNames(inputName))
-                studentsByName.addStudent(student);
+            Iterator<Student> it = studentDatabase.iterator();
+            while (it.hasNext())
+            {
+                Student student = it.next();
+                if (student.compareStudentNames(inputTokenIds))
+                    studentsByName.addStudent(student);
+            }
         }
+        event.complete(Operation.LOOKUP_BY_NAME, (inputTokenIds == null ? 0 :
+                studentDatabase.size()), studentsByName.getSize());
+        MetricsRegistry.record(Operation.LOOKUP_BY_NAME, startTime);
         return studentsByName;
     }
 
@@ -96,6 +257,10 @@ public class StudentDatabase
      */
     public StudentDatabase filterStudentsBySubjects(SubjectDatabase subjectFilters)
     {
+        compact();
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
         StudentDatabase studentsBySubjects = new StudentDatabase();
         Iterator<Student> it = studentDatabase.iterator();
         while (it.hasNext())
@@ -106,6 +271,9 @@ public class StudentDatabase
             if (result)
                 studentsBySubjects.addStudent(student);
         }
+        event.complete(Operation.FILTER_BY_SUBJECTS, studentDatabase.size(),
+                studentsBySubjects.getSize());
+        MetricsRegistry.record(Operation.FILTER_BY_SUBJECTS, startTime);
         return studentsBySubjects;
     }
 
@@ -118,6 +286,10 @@ public class StudentDatabase
      */
     public StudentDatabase filterStudentsBySuspension(int integerInput)
     {
+        compact();
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
         StudentDatabase studentsBySuspension = new StudentDatabase();
         Iterator<Student> it = studentDatabase.iterator();
         while (it.hasNext())
@@ -135,6 +307,9 @@ public class StudentDatabase
                     studentsBySuspension.addStudent(student);
             }
         }
+        event.complete(Operation.FILTER_BY_SUSPENSION, studentDatabase.size(),
+                studentsBySuspension.getSize());
+        MetricsRegistry.record(Operation.FILTER_BY_SUSPENSION, startTime);
         return studentsBySuspension;
     }
 
@@ -145,6 +320,10 @@ public class StudentDatabase
      */
     public StudentDatabase filterStudentsNotEnrolled()
     {
+        compact();
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
         StudentDatabase studentsNotEnrolled = new StudentDatabase();
         Iterator<Student> it = studentDatabase.iterator();
         while (it.hasNext())
@@ -155,6 +334,9 @@ public class StudentDatabase
             if (subjectsEnrolled.getSize() == 0)
                 studentsNotEnrolled.addStudent(student);
         }
+        event.complete(Operation.FILTER_NOT_ENROLLED, studentDatabase.size(),
+                studentsNotEnrolled.getSize());
+        MetricsRegistry.record(Operation.FILTER_NOT_ENROLLED, startTime);
         return studentsNotEnrolled;
     }
 
@@ -165,7 +347,17 @@ public class StudentDatabase
      */
     public int getSize()
     {
-        return studentDatabase.size();
+        return studentDatabase.size() - tombstones;
+    }
+
+    /**
+     * Return the publisher of the changes of a StudentDatabase object to be processed.
+     *
+     * @return  The change publisher, or null if no subscriber has been added.
+     */
+    public StudentChangePublisher getChangePublisher()
+    {
+        return changePublisher;
     }
 
     /**
@@ -176,9 +368,45 @@ public class StudentDatabase
      */
     public Student getStudent(int index)
     {
+        compact();
         return studentDatabase.get(index);
     }
 
+    /**
+     * Return the last version of a StudentDatabase object to be processed published by
+     * publishVersion(), without taking any lock. May be called by any thread, while another
+     * thread changes the list.
+     *
+     * @return  The last published version of the list.
+     */
+    public RosterVersion getPublishedVersion()
+    {
+        return publishedVersion;
+    }
+
+    /**
+     * Return the index of identity numbers of a StudentDatabase object to be processed, building
+     * it if it does not exist yet. The slots of all the students with an identity number shared
+     * by several students are kept as well, in the order the students were added, so that they
+     * can be looked up and removed without scanning the list. Once built, the index is kept up to
+     * date as students are added and removed, so the identity number of a student must not be
+     * changed while the student is on the list.
+     *
+     * @return  The slot of the last added student with each identity number.
+     */
+    private HashMap<Integer, Integer> getIdentityNumberIndex()
+    {
+        if (identityNumberIndex == null)
+        {
+            identityNumberIndex = new HashMap<>(studentDatabase.size() * 2);
+            sharedIdentityNumbers = new HashMap<>();
+            for (int slot = 0; slot < studentDatabase.size(); slot++)
+                if (studentDatabase.get(slot) != null)
+                    indexStudent(studentDatabase.get(slot), slot);
+        }
+        return identityNumberIndex;
+    }
+
     /**
      * Given an identity number, check if the identity number already exists in a StudentDatabase
      * object to be processed.
@@ -189,19 +417,43 @@ public class StudentDatabase
      */
     public boolean identityNumberInUse(int inputIdentityNumber)
     {
-        int index = 0;
-        boolean found = false;
-        while(index < studentDatabase.size() && !found)
+        long startTime = MetricsRegistry.startTimer();
+        boolean found = getIdentityNumberIndex().containsKey(inputIdentityNumber);
+        MetricsRegistry.record(Operation.IDENTITY_NUMBER_IN_USE, startTime);
+        return found;
+    }
+
+    /**
+     * Given a Student object and its slot, add the student to the index of identity numbers.
+     *
+     * @param   student The student to be indexed.
+     * @param   slot    The slot of the student in the list.
+     */
+    private void indexStudent(Student student, int slot)
+    {
+        Integer previousSlot = identityNumberIndex.put(student.getIdentityNumber(), slot);
+        if (previousSlot == null)
+            return;
+        ArrayList<Integer> slots = sharedIdentityNumbers.get(student.getIdentityNumber());
+        if (slots == null)
         {
-            Student existingStudent = studentDatabase.get(index);
-            if (existingStudent.getIdentityNumber() == (inputIdentityNumber))
-            {
-                found = true;
-                return true;
-            }
-            index++;
+            slots = new ArrayList<>();
+            slots.add(previousSlot);
+            sharedIdentityNumbers.put(student.getIdentityNumber(), slots);
         }
-        return false;
+        slots.add(slot);
+    }
+
+    /**
+     * Check if the slots of a StudentDatabase object to be processed are compacted and its index
+     * of identity numbers is built, in which case lookups and scans do not change the list and can
+     * safely run concurrently until the list is next changed.
+     *
+     * @return  true    If reading the list does not change it, false otherwise.
+     */
+    boolean isReadyForReading()
+    {
+        return (tombstones == 0 && identityNumberIndex != null);
     }
 
     /**
@@ -214,36 +466,85 @@ public class StudentDatabase
      * @return  true    If the main list contains all the subjects in the check list, false
      *                  otherwise.
      */
-    private boolean isSubset(SubjectDatabase main, SubjectDatabase check)
+    boolean isSubset(SubjectDatabase main, SubjectDatabase check)
     {
-        int index1 = 0;
-        int index2 = 0;
-        for (index1 = 0; index1 < check.getSize(); index1++)
-        {
-            for (index2 = 0; index2 < main.getSize(); index2++)
-            {
-                if ((check.getSubject(index1).equals(main.getSubject(index2))))
-                    break;
-            }
-            if (index2 == main.getSize())
-                return false;
-        }
-        return true;
+        return main.containsAll(check);
     }
 
     /**
-     * Print out all students on the list.
+     * Compact the slots of a StudentDatabase object to be processed and build its index of
+     * identity numbers, so that lookups and scans do not change the list.
+     */
+    void prepareForReading()
+    {
+        compact();
+        getIdentityNumberIndex();
+    }
+
+    /**
+     * Print out all students on the list, as of its latest version.
      */
     public void printStudentDatabase()
     {
+        publishVersion().printRosterVersion();
+    }
+
+    /**
+     * Publish the students now on a StudentDatabase object to be processed as a new version if a
+     * student has been added or removed since the last version was published, and return the latest
+     * version. Listings read a version rather than the list itself, so that they never see the list
+     * half way through a change and never hold up the thread changing it. Must only be called by
+     * the thread changing the list (or while holding the lock it changes the list under); the
+     * returned version can then be handed to and read by any thread.
+     *
+     * @return  The latest version of the list.
+     */
+    public RosterVersion publishVersion()
+    {
+        RosterVersion version = publishedVersion;
+        if (version.getNumber() == changeCount)
+            return version;
+        Student[] students = new Student[getSize()];
         int index = 0;
-        while (index < studentDatabase.size())
-        {
-            Student student = studentDatabase.get(index);
-            System.out.println((index + 1) + (". ") + student.toString());
-            index++;
-        }
-        System.out.println("");
+        for (Student student : studentDatabase)
+            if (student != null)
+                students[index++] = student;
+        version = new RosterVersion(students, changeCount);
+        publishedVersion = version;
+        return version;
+    }
+
+    /**
+     * Given the subjects whose credit points have just changed, work out again the total credit of
+     * the students on a StudentDatabase object to be processed who are enrolled in any of them
+     * (see Student.recalculateCredit()). The other students are left untouched, and so are the
+     * list and its indexes, none of which depend on credit points.
+     *
+     * @param   subjectsChanged The subjects whose credit points have changed.
+     * @return  The students whose total credit has been worked out again.
+     */
+    public ArrayList<Student> recalculateCredits(Set<Subject> subjectsChanged)
+    {
+        compact();
+        ArrayList<Student> studentsRecalculated = new ArrayList<>();
+        if (subjectsChanged.isEmpty())
+            return studentsRecalculated;
+        for (Student student : studentDatabase)
+            if (student.recalculateCredit(subjectsChanged))
+                studentsRecalculated.add(student);
+        return studentsRecalculated;
+    }
+
+    /**
+     * Given a subscriber, stop telling it about changes of a StudentDatabase object to be
+     * processed.
+     *
+     * @param   listener    The subscriber to be removed.
+     */
+    public void removeChangeListener(StudentChangeListener listener)
+    {
+        if (changePublisher != null)
+            changePublisher.removeListener(listener);
     }
 
     /**
@@ -253,13 +554,126 @@ public class StudentDatabase
      */
     public void removeStudent(Student newStudent)
     {
-        studentDatabase.remove(newStudent);
+        long startTime = MetricsRegistry.startTimer();
+        Integer slot = getIdentityNumberIndex().get(newStudent.getIdentityNumber());
+        if (slot != null && studentDatabase.get(slot) == newStudent)
+            removeSlot(slot);
+        else if (slot != null)
+            for (int sharedSlot : slotsOf(newStudent.getIdentityNumber()))
+                if (studentDatabase.get(sharedSlot) == newStudent)
+                {
+                    removeSlot(sharedSlot);
+                    break;
+                }
+        MetricsRegistry.record(Operation.REMOVE_STUDENT, startTime);
+    }
+
+    /**
+     * Given an identity number, remove the (last added) Student object with that identity number
+     * from a StudentDatabase object to be processed.
+     *
+     * @param   inputIdentityNumber The identity number of the student to be removed.
+     * @return  The removed student, or null if no student has the identity number.
+     */
+    public Student removeStudentByIdentityNumber(int inputIdentityNumber)
+    {
+        long startTime = MetricsRegistry.startTimer();
+        Student removedStudent = null;
+        Integer slot = getIdentityNumberIndex().get(inputIdentityNumber);
+        if (slot != null)
+        {
+            removedStudent = studentDatabase.get(slot);
+            removeSlot(slot);
+        }
+        MetricsRegistry.record(Operation.REMOVE_STUDENT, startTime);
+        return removedStudent;
+    }
+
+    /**
+     * Given a slot, leave a tombstone in the slot and remove the student in it from the index of
+     * identity numbers. The rest of the list is not shifted, so removing many students takes time
+     * proportional to their number. If another student has the same identity number, the index is
+     * pointed at the last such student instead, found from the slots kept for the shared identity
+     * number. The slots are compacted once half of them are empty.
+     *
+     * @param   slot    The slot of the student to be removed.
+     */
+    private void removeSlot(int slot)
+    {
+        Student student = studentDatabase.set(slot, null);
+        tombstones++;
+        changeCount++;
+        if (nameSearchIndex != null)
+            nameSearchIndex.removeStudent(student);
+        if (changePublisher != null)
+        {
+            if (student.getChangePublisher() == changePublisher)
+                student.setChangePublisher(null);
+            changePublisher.publish(StudentChangeEvent.Type.REMOVED, student, null);
+        }
+        int identityNumber = student.getIdentityNumber();
+        ArrayList<Integer> slots = sharedIdentityNumbers.get(identityNumber);
+        if (slots == null)
+            identityNumberIndex.remove(identityNumber);
+        else
+        {
+            slots.remove(Integer.valueOf(slot));
+            identityNumberIndex.put(identityNumber, slots.get(slots.size() - 1));
+            if (slots.size() == 1)
+                sharedIdentityNumbers.remove(identityNumber);
+        }
+        if (tombstones > studentDatabase.size() / 2)
+            compact();
     }
 
     /**
-     * Given a student name and an identity number, iterate through a StudentDatabase object to
-     * be processed and check if there is a Student object in the StudentDatabase object that
-     * matches the name and identity number.
+     * Given a (partial or mistyped) name and a limit, return the students of a StudentDatabase
+     * object to be processed whose names match the name best, building the index of names if it
+     * does not exist yet. Once built, the index is kept up to date as students are added and
+     * removed, so the name of a student must not be changed while the student is on the list.
+     *
+     * @param   inputName   The name to search for.
+     * @param   limit       The maximum number of students to be returned.
+     * @return  The list of matching students, best match first.
+     */
+    public StudentDatabase searchStudentsByName(String inputName, int limit)
+    {
+        if (nameSearchIndex == null)
+        {
+            nameSearchIndex = new NameSearchIndex();
+            for (Student student : studentDatabase)
+                if (student != null)
+                    nameSearchIndex.addStudent(student);
+        }
+        long startTime = MetricsRegistry.startTimer();
+        StudentQueryEvent event = new StudentQueryEvent();
+        event.begin();
+        StudentDatabase studentsByName = nameSearchIndex.search(inputName, limit);
+        event.complete(Operation.SEARCH_BY_NAME, getSize(), studentsByName.getSize());
+        MetricsRegistry.record(Operation.SEARCH_BY_NAME, startTime);
+        return studentsByName;
+    }
+
+    /**
+     * Given an identity number, return the slots of all the students of a StudentDatabase object
+     * to be processed with that identity number, in the order the students were added, from the
+     * index of identity numbers.
+     *
+     * @param   inputIdentityNumber The identity number to be looked up.
+     * @return  The slots of the students with the identity number, empty if there are none.
+     */
+    private List<Integer> slotsOf(int inputIdentityNumber)
+    {
+        Integer slot = getIdentityNumberIndex().get(inputIdentityNumber);
+        if (slot == null)
+            return Collections.emptyList();
+        ArrayList<Integer> slots = sharedIdentityNumbers.get(inputIdentityNumber);
+        return (slots == null ? Collections.singletonList(slot) : new ArrayList<>(slots));
+    }
+
+    /**
+     * Given a student name and an identity number, check if there is a Student object in a
+     * StudentDatabase object to be processed that matches the name and identity number.
      *
      * @param   inputStudentName  The student name against which comparison is to be made.
      * @param   inputIdentityNumber The student identity number against which comparison is to be
@@ -269,19 +683,11 @@ public class StudentDatabase
      */
     public boolean studentOnDatabase(String inputStudentName, int inputIdentityNumber)
     {
-        int index = 0;
-        boolean found = false;
-        while(index < studentDatabase.size() && !found)
-        {
-            Student existingStudent = studentDatabase.get(index);
-            if (existingStudent.compareStudentNames(inputStudentName) &&
-                    compareIdentityNumbers(existingStudent, inputIdentityNumber))
-            {
-                found = true;
-                return true;
-            }
-            index++;
-        }
-        return false;
+        long startTime = MetricsRegistry.startTimer();
+        Student existingStudent =
+                filterStudentByNameAndIdentityNumber(inputStudentName, inputIdentityNumber);
+        boolean found = compareIdentityNumbers(existingStudent, inputIdentityNumber);
+        MetricsRegistry.record(Operation.STUDENT_ON_DATABASE, startTime);
+        return found;
     }
 }
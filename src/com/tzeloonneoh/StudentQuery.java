@@ -0,0 +1,70 @@
+package com.tzeloonneoh;
+
+/**
+ * The StudentQuery class selects students by suspension status, total credit and enrolled
+ * subjects, e.g., "unsuspended students with fewer than 10 credits who are enrolled in Maths".
+ * A student matches the query if all three criteria hold.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class StudentQuery
+{
+    private int suspension;
+    private int creditLimit;
+    private SubjectDatabase subjectsRequired;
+
+    /**
+     * Construct a query.
+     *
+     * @param   suspension          The suspension status (0: any, 1: suspended or 2: unsuspended).
+     * @param   creditLimit         Only students with a total credit less than the limit match;
+     *                              any limit above Student.MAXIMUM_CREDIT matches every student.
+     * @param   subjectsRequired    The subjects the students must all be enrolled in (may be
+     *                              empty).
+     */
+    public StudentQuery(int suspension, int creditLimit, SubjectDatabase subjectsRequired)
+    {
+        this.suspension = suspension;
+        this.creditLimit = creditLimit;
+        this.subjectsRequired = subjectsRequired;
+    }
+
+    /**
+     * Given a student, check if the student matches the query.
+     *
+     * @param   student The student to be checked.
+     * @return  true    If the student matches all the criteria of the query, false otherwise.
+     */
+    public boolean matches(Student student)
+    {
+        if (suspension != 0 && student.getSuspension() != (suspension == 2))
+            return false;
+        if (creditLimit <= Student.MAXIMUM_CREDIT && student.getTotalCredit() >= creditLimit)
+            return false;
+        return (subjectsRequired.getSize() == 0 ||
+                student.getSubjectsEnrolled().containsAll(subjectsRequired));
+    }
+
+    /**
+     * Return the query as a string.
+     *
+     * @return  The description of the query.
+     */
+    public String toString()
+    {
+        StringBuilder description = new StringBuilder();
+        description.append(suspension == 0 ? "All" : (suspension == 1 ? "Suspended" :
+                "Unsuspended")).append(" students");
+        if (creditLimit <= Student.MAXIMUM_CREDIT)
+            description.append(" with fewer than ").append(creditLimit).append(" credits");
+        if (subjectsRequired.getSize() > 0)
+        {
+            description.append(" enrolled in");
+            for (int index = 0; index < subjectsRequired.getSize(); index++)
+                description.append(index == 0 ? " " : ", ").
+                        append(subjectsRequired.getSubject(index).getName());
+        }
+        return description.toString();
+    }
+}
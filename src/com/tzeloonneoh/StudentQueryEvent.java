@@ -0,0 +1,46 @@
+package com.tzeloonneoh;
+
+import jdk.jfr.*;
+
+/**
+ * The StudentQueryEvent class is a Java Flight Recorder event emitted by each lookup and filter of
+ * a StudentDatabase object. It records how many students were scanned and how many matched.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+@Name("com.tzeloonneoh.StudentQuery")
+@Label("Student Query")
+@Category("School Manager")
+@Description("Lookup or filter of a list of students")
+@StackTrace(false)
+public class StudentQueryEvent extends Event
+{
+    @Label("Query")
+    String query;
+
+    @Label("Students Scanned")
+    int scannedCount;
+
+    @Label("Students Matched")
+    int resultCount;
+
+    /**
+     * End the event and commit it with the given details if it is being recorded.
+     *
+     * @param   operation       The lookup or filter that was run.
+     * @param   scannedCount    The number of students on the list that was queried.
+     * @param   resultCount     The number of students that matched.
+     */
+    public void complete(Operation operation, int scannedCount, int resultCount)
+    {
+        end();
+        if (shouldCommit())
+        {
+            query = operation.getDescription();
+            this.scannedCount = scannedCount;
+            this.resultCount = resultCount;
+            commit();
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package com.tzeloonneoh;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * The Subject class represents a single subject object that can hold information about a subject,
- * i.e., subject name and credit points. A subject name can be numeric or alphabetic but must not
- * be a blank string. An identity number must be a number between 1 and 6 (inclusive). Student
- * objects are created by reading from a text file ("subjects.txt") and are not editable while the
- * program is running.
+ * i.e., subject name, credit points and (optionally) number of seats. A subject name can be numeric
+ * or alphabetic but must not be a blank string. An identity number must be a number between 1 and 6
+ * (inclusive). Student objects are created by reading from a text file ("subjects.txt") and are not
+ * editable while the program is running, except that the credit points and number of seats of a
+ * subject are updated in place when the file is reloaded (see SchoolManager.reloadSubjects()).
  *
  * @author Tze Loon Neoh
  * @version 21 Sep 2021
  */
 public class Subject
 {
+    /**
+     * The capacity of a subject that takes any number of students.
+     */
+    public static final int UNLIMITED = 0;
+
+    private static final AtomicIntegerFieldUpdater<Subject> SEATS_TAKEN =
+            AtomicIntegerFieldUpdater.newUpdater(Subject.class, "seatsTaken");
+
     private String name;
-    private int credit;
+    private volatile int credit;
+    private volatile int capacity;
+    private volatile int seatsTaken;
+    private ConcurrentLinkedQueue<Student> waitlist;
+    private Set<Student> studentsWaiting;
 
     /**
      * Construct and initialise a Subject object.
@@ -24,6 +40,8 @@ public class Subject
     {
         name = "None";
         credit = 1;
+        waitlist = new ConcurrentLinkedQueue<>();
+        studentsWaiting = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -34,10 +52,25 @@ public class Subject
      */
     public Subject(String subjectName, int subjectCredit)
     {
+        waitlist = new ConcurrentLinkedQueue<>();
+        studentsWaiting = ConcurrentHashMap.newKeySet();
         setName(subjectName);
         setCredit(subjectCredit);
     }
 
+    /**
+     * Construct and initialise a Subject object with the given number of seats.
+     *
+     * @param   subjectName     The new subject name.
+     * @param   subjectCredit   The new credit point of the subject.
+     * @param   subjectCapacity The number of seats, or UNLIMITED.
+     */
+    public Subject(String subjectName, int subjectCredit, int subjectCapacity)
+    {
+        this(subjectName, subjectCredit);
+        updateCapacity(subjectCapacity);
+    }
+
     /**
      * Given a credit point, check if the credit points is within a defined range.
      *
@@ -52,12 +85,27 @@ public class Subject
             return false;
     }
 
+    /**
+     * Return the seats taken and the students waiting for a Subject object with a capacity, e.g.,
+     * " (28/30 seats, 2 waiting)", or an empty string for a subject without one.
+     *
+     * @return  The seats of the subject.
+     */
+    public String describeSeats()
+    {
+        if (capacity == UNLIMITED)
+            return "";
+        int waiting = waitlist.size();
+        return (" (" + seatsTaken + "/" + capacity + " seats" +
+                (waiting > 0 ? ", " + waiting + " waiting" : "") + ")");
+    }
+
     /**
      * Print out the information regarding a Subject object.
      */
     public void displaySubject()
     {
-        System.out.println(name + ", " + credit);
+        Output.println(name + ", " + credit);
     }
 
     /**
@@ -89,6 +137,17 @@ public class Subject
         return formattedFullName.trim();
     }
 
+    /**
+     * Return the number of seats of a Subject object, i.e., its capacity, set by the optional
+     * third field in "subjects.txt". A subject without a capacity takes any number of students.
+     *
+     * @return  The number of seats, or UNLIMITED.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
     /**
      * Return the current credit points of a Subject object.
      *
@@ -109,6 +168,65 @@ public class Subject
         return name;
     }
 
+    /**
+     * Return the number of seats of a Subject object taken by students on the list of all
+     * students. Seats are only counted for a subject with a capacity.
+     *
+     * @return  The number of seats taken.
+     */
+    public int getSeatsTaken()
+    {
+        return seatsTaken;
+    }
+
+    /**
+     * Return the number of students waiting for a seat of a Subject object.
+     *
+     * @return  The length of the waitlist.
+     */
+    public int getWaitlistSize()
+    {
+        return waitlist.size();
+    }
+
+    /**
+     * Check if a Subject object has a capacity, i.e., if its seats are counted.
+     *
+     * @return  true    If the subject has a capacity, false otherwise.
+     */
+    public boolean hasCapacity()
+    {
+        return (capacity != UNLIMITED);
+    }
+
+    /**
+     * Given a student, add the student to the end of the waitlist of a Subject object, unless the
+     * student is already on it. The students on the waitlist are also kept in a concurrent set,
+     * so that checking and adding the student is a single atomic step and a student joining from
+     * several threads at once is only queued once. If a seat has been given back in the meantime,
+     * the waitlist is served straight away.
+     *
+     * @param   student The student to wait for a seat.
+     * @return  The students enrolled from the waitlist as a result.
+     */
+    public ArrayList<Student> joinWaitlist(Student student)
+    {
+        if (studentsWaiting.add(student))
+            waitlist.add(student);
+        return promoteWaitlist();
+    }
+
+    /**
+     * Given a student, remove the student from the waitlist of a Subject object.
+     *
+     * @param   student The student no longer waiting.
+     */
+    public void leaveWaitlist(Student student)
+    {
+        if (studentsWaiting.remove(student))
+            waitlist.remove(student);
+    }
+
     /**
      * Given a name (a string of words), check if the string is not empty and comprises only
      * alphabets and number.
@@ -142,6 +260,51 @@ public class Subject
         return true;
     }
 
+    /**
+     * Enrol the students at the head of the waitlist of a Subject object for as long as it has free
+     * seats, in the order they joined. Called whenever a seat is given back by a student
+     * unenrolling, being suspended or being removed from the school. A student who can no longer be
+     * enrolled (because the student has been suspended or removed from the school, is already
+     * enrolled in the subject or has too little credit left) is removed from the waitlist; a
+     * student who finds that another thread has taken the free seat first stays at the head.
+     * Several threads may serve the waitlist at the same time.
+     *
+     * @return  The students enrolled from the waitlist (and from the waitlists served in turn).
+     */
+    public ArrayList<Student> promoteWaitlist()
+    {
+        ArrayList<Student> promotedStudents = new ArrayList<>();
+        SubjectDatabase subject = new SubjectDatabase(1);
+        subject.addSubject(this);
+        while (seatsTaken < capacity)
+        {
+            Student student = waitlist.peek();
+            if (student == null)
+                break;
+            EnrolmentResult result = null;
+            if (student.getSuspension() && student.holdsSeats())
+            {
+                result = student.updateEnrolments(subject, new SubjectDatabase());
+                promotedStudents.addAll(result.getStudentsPromoted());
+                if (result.getStatus() == EnrolmentResult.Status.SUBJECT_FULL)
+                    continue;
+            }
+            leaveWaitlist(student);
+            if (result != null && result.isCommitted())
+                promotedStudents.add(student);
+        }
+        return promotedStudents;
+    }
+
+    /**
+     * Give back a seat of a Subject object with a capacity. The waitlist is not served; see
+     * promoteWaitlist().
+     */
+    void releaseSeat()
+    {
+        SEATS_TAKEN.decrementAndGet(this);
+    }
+
     /**
      * Take a integer and check if the integer is within the defined range. Set the current credit
      * points of subject to the value of the integer if it is within the range, otherwise print
@@ -151,12 +314,10 @@ public class Subject
      */
     public void setCredit(int newCredit)
     {
-        if (creditInRange(newCredit))
-            credit = newCredit;
-        else
+        if (updateCredit(newCredit) != ValidationResult.VALID)
         {
             credit = 1;
-            System.out.println("Invalid credit point! The subject credit point is set to '1'!\n");
+            Output.println("Invalid credit point! The subject credit point is set to '1'!\n");
         }
     }
 
@@ -169,15 +330,22 @@ public class Subject
      */
     public void setName(String newName)
     {
-        if (nameIsAlphaNumeric(newName))
-            name = formatName(newName);
-        else
+        if (updateName(newName) != ValidationResult.VALID)
         {
             name = "None";
-            System.out.println("Invalid name! The subject name is set to 'None'!\n");
+            Output.println("Invalid name! The subject name is set to 'None'!\n");
         }
     }
 
+    /**
+     * Take a seat of a Subject object with a capacity even if it is full, for a student loaded
+     * with the subject already enrolled.
+     */
+    void takeSeat()
+    {
+        SEATS_TAKEN.incrementAndGet(this);
+    }
+
     /**
      * Return information regarding a Subject object as a string.
      *
@@ -187,4 +355,71 @@ public class Subject
     {
         return (name + "," + credit);
     }
-}
\ No newline at end of file
+
+    /**
+     * Take a seat of a Subject object with a capacity if one is free. The seats taken are counted
+     * with a compare-and-set of a single counter, so that any number of threads can take and give
+     * back seats without a lock and the capacity is never exceeded.
+     *
+     * @return  true    If a seat has been taken, false if the subject is full.
+     */
+    boolean tryTakeSeat()
+    {
+        while (true)
+        {
+            int taken = seatsTaken;
+            if (taken >= capacity)
+                return false;
+            if (SEATS_TAKEN.compareAndSet(this, taken, taken + 1))
+                return true;
+        }
+    }
+
+    /**
+     * Take an integer and set the number of seats of a Subject object to it if it is not
+     * negative. Nothing is printed and the number of seats is left unchanged otherwise.
+     *
+     * @param   newCapacity The number of seats, or UNLIMITED.
+     * @return  VALID if the number of seats has been changed, CAPACITY_OUT_OF_RANGE otherwise.
+     */
+    public ValidationResult updateCapacity(int newCapacity)
+    {
+        if (newCapacity < 0)
+            return ValidationResult.CAPACITY_OUT_OF_RANGE;
+        capacity = newCapacity;
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Take a integer and check if the integer is within the defined range. Set the current credit
+     * points of subject to the value of the integer if it is within the range. Nothing is printed
+     * and the credit points are left unchanged otherwise, so that the caller can report the result.
+     *
+     * @param   newCredit   The new credit points.
+     * @return  VALID if the credit points have been changed, CREDIT_OUT_OF_RANGE otherwise.
+     */
+    public ValidationResult updateCredit(int newCredit)
+    {
+        if (!creditInRange(newCredit))
+            return ValidationResult.CREDIT_OUT_OF_RANGE;
+        credit = newCredit;
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Take a string of name and check if the string consists of only alphabets and numbers.
+     * Modify the current subject name to the name if it consists of only alphabets and numbers.
+     * Nothing is printed and the name is left unchanged otherwise, so that the caller can report
+     * the result.
+     *
+     * @param   newName The new subject name.
+     * @return  VALID if the name has been changed, INVALID_SUBJECT_NAME otherwise.
+     */
+    public ValidationResult updateName(String newName)
+    {
+        if (!nameIsAlphaNumeric(newName))
+            return ValidationResult.INVALID_SUBJECT_NAME;
+        name = formatName(newName);
+        return ValidationResult.VALID;
+    }
+}
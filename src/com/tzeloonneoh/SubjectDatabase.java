@@ -3,13 +3,19 @@ package com.tzeloonneoh;
 import java.util.*;
 
 /**
- * The SubjectDatabase class represent a list of Subject objects.
+ * The SubjectDatabase class represent a list of Subject objects. The set operations (union,
+ * intersection, difference and subset) do not change either list and run in linear time by
+ * hashing the Subject objects of one of the lists. Checking a subset of two short lists, such as
+ * the enrolled subjects of a student, compares the lists directly instead, since building a hash
+ * set would cost more than it saves.
  *
  * @author  Tze Loon Neoh
  * @version 31 Oct 2021
  */
 public class SubjectDatabase
 {
+    private static final int SMALL_PRODUCT = 64;
+
     private ArrayList<Subject> subjectDatabase;
 
     /**
@@ -20,6 +26,16 @@ public class SubjectDatabase
         subjectDatabase = new ArrayList<>();
     }
 
+    /**
+     * Construct an empty list with room for the given number of subjects.
+     *
+     * @param   capacity    The number of subjects the list is expected to hold.
+     */
+    SubjectDatabase(int capacity)
+    {
+        subjectDatabase = new ArrayList<>(capacity);
+    }
+
     /**
      * Add a Subject object to a SubjectDatabase object to be processed.
      *
@@ -38,6 +54,47 @@ public class SubjectDatabase
         subjectDatabase.clear();
     }
 
+    /**
+     * Given a SubjectDatabase object, check if all its Subject objects exist in the SubjectDatabase
+     * object to be processed.
+     *
+     * @param   other   The list of subjects to be checked.
+     * @return  true    If this list contains all the subjects in the other list, false otherwise.
+     */
+    public boolean containsAll(SubjectDatabase other)
+    {
+        if (other.getSize() * subjectDatabase.size() <= SMALL_PRODUCT)
+        {
+            for (Subject subject : other.subjectDatabase)
+                if (!subjectDatabase.contains(subject))
+                    return false;
+            return true;
+        }
+        Set<Subject> subjects = toSet();
+        for (Subject subject : other.subjectDatabase)
+            if (!subjects.contains(subject))
+                return false;
+        return true;
+    }
+
+    /**
+     * Given a SubjectDatabase object, return a new SubjectDatabase object holding the Subject
+     * objects of the SubjectDatabase object to be processed that are not in the given one (the
+     * relative complement of the given list in this list).
+     *
+     * @param   other   The list of subjects to be excluded.
+     * @return  The list of subjects in this list but not in the other list.
+     */
+    public SubjectDatabase difference(SubjectDatabase other)
+    {
+        Set<Subject> excluded = other.toSet();
+        SubjectDatabase difference = new SubjectDatabase();
+        for (Subject subject : subjectDatabase)
+            if (!excluded.contains(subject))
+                difference.addSubject(subject);
+        return difference;
+    }
+
     /**
      * Print out all subjects in the SubjectDatabase object of all the subjects offered at the
      * school.
@@ -48,7 +105,7 @@ public class SubjectDatabase
         while (index < subjectDatabase.size())
         {
             Subject subject = subjectDatabase.get(index);
-            System.out.println("(" + (index + 1) + ") " + subject.toString());
+            Output.println("(" + (index + 1) + ") " + subject.toString() + subject.describeSeats());
             index++;
         }
     }
@@ -62,7 +119,7 @@ public class SubjectDatabase
         while (index < subjectDatabase.size())
         {
             Subject subject = subjectDatabase.get(index);
-            System.out.println((index + 1) + ". " + subject.toString());
+            Output.println((index + 1) + ". " + subject.toString());
             index++;
         }
     }
@@ -88,6 +145,23 @@ public class SubjectDatabase
         return subjectDatabase.get(index);
     }
 
+    /**
+     * Given a SubjectDatabase object, return a new SubjectDatabase object holding the Subject
+     * objects of the SubjectDatabase object to be processed that are also in the given one.
+     *
+     * @param   other   The list of subjects to be intersected with.
+     * @return  The list of subjects in both this list and the other list.
+     */
+    public SubjectDatabase intersect(SubjectDatabase other)
+    {
+        Set<Subject> included = other.toSet();
+        SubjectDatabase intersection = new SubjectDatabase();
+        for (Subject subject : subjectDatabase)
+            if (included.contains(subject))
+                intersection.addSubject(subject);
+        return intersection;
+    }
+
     /**
      * Given an ArrayList of integers, iterate through the list and create a SubjectDatabase object
      * to store the Subject object(s) at the (integer - 1)th index in the SubjectDatabase object
@@ -112,9 +186,39 @@ public class SubjectDatabase
      * Remove a Subject object from a SubjectDatabase object to be processed.
      *
      * @param   newSubject  The Subject object to be removed.
+     * @return  true    If the Subject object was on the list, false otherwise.
+     */
+    public boolean removeSubject(Subject newSubject)
+    {
+        return subjectDatabase.remove(newSubject);
+    }
+
+    /**
+     * Return the Subject objects of a SubjectDatabase object to be processed as a hash set.
+     *
+     * @return  The set of subjects on the list.
+     */
+    private Set<Subject> toSet()
+    {
+        return new HashSet<>(subjectDatabase);
+    }
+
+    /**
+     * Given a SubjectDatabase object, return a new SubjectDatabase object holding the Subject
+     * objects of the SubjectDatabase object to be processed followed by those of the given one
+     * that are not already in it.
+     *
+     * @param   other   The list of subjects to be added.
+     * @return  The list of subjects in either this list or the other list.
      */
-    public void removeSubject(Subject newSubject)
+    public SubjectDatabase union(SubjectDatabase other)
     {
-        subjectDatabase.remove(newSubject);
+        Set<Subject> subjects = toSet();
+        SubjectDatabase union = new SubjectDatabase();
+        union.subjectDatabase.addAll(subjectDatabase);
+        for (Subject subject : other.subjectDatabase)
+            if (subjects.add(subject))
+                union.addSubject(subject);
+        return union;
     }
 }
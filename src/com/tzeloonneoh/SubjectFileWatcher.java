@@ -0,0 +1,121 @@
+package com.tzeloonneoh;
+
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * The SubjectFileWatcher class watches a subjects file ("subjects.txt") for changes on a
+ * background thread, so that the School Management System can take in new subjects and changed
+ * credit points without being restarted (see SchoolManager.reloadSubjects()). The directory of the
+ * file is registered with a WatchService and the thread blocks until the file is created,
+ * replaced or written to; events for the other files in the directory are ignored.
+ *
+ * A change is only noted by the watching thread. The file is read and applied by the thread
+ * running the menus, which asks takeChange() before showing a menu, so that the list of subjects
+ * never changes in the middle of an operation. Editors often save a file in several steps, so a
+ * change is only handed over once no event has been seen for "subjects.watchSettleMillis"
+ * milliseconds (default 200).
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class SubjectFileWatcher implements Closeable
+{
+    private static final long SETTLE_NANOS =
+            Long.getLong("subjects.watchSettleMillis", 200) * 1_000_000L;
+
+    private Path file;
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean changed;
+    private volatile long lastEventNanos;
+
+    /**
+     * Start watching the given file for changes.
+     *
+     * @param   filename    The name of the file to be watched.
+     * @throws  IOException If the directory of the file cannot be watched.
+     */
+    public SubjectFileWatcher(String filename) throws IOException
+    {
+        file = Paths.get(filename).toAbsolutePath().normalize();
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        watchThread = new Thread(this::watchFile, "subject-file-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stop watching the file. A change noted but not taken yet is dropped.
+     */
+    public void close()
+    {
+        try
+        {
+            watchService.close();
+        }
+        catch (IOException e)
+        {
+            Output.println("I/O error!");
+        }
+    }
+
+    /**
+     * Return the name of the file being watched.
+     *
+     * @return  The absolute name of the file.
+     */
+    public String getFilename()
+    {
+        return file.toString();
+    }
+
+    /**
+     * Check if the file has changed since the last change was taken and has not been written to
+     * for the settling time, and if so, take the change so that it is only reported once.
+     *
+     * @return  true    If the file has changed and is to be read again, false otherwise.
+     */
+    public boolean takeChange()
+    {
+        if (!changed || System.nanoTime() - lastEventNanos < SETTLE_NANOS)
+            return false;
+        changed = false;
+        return true;
+    }
+
+    /**
+     * Wait for events in the directory of the file and note a change whenever the file is
+     * created or written to, until the watcher is closed. Run on the watching thread. If events
+     * were lost (an overflow), the file is taken as changed.
+     */
+    private void watchFile()
+    {
+        try
+        {
+            while (true)
+            {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents())
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                            file.getFileName().equals(event.context()))
+                    {
+                        lastEventNanos = System.nanoTime();
+                        changed = true;
+                    }
+                if (!key.reset())
+                    return;
+            }
+        }
+        catch (ClosedWatchServiceException e)
+        {
+            // The watcher has been closed.
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.tzeloonneoh;
+
+import java.util.*;
+
+/**
+ * The SubjectFilterCache class keeps the results of recent "list students by subjects" queries so
+ * that repeating a query does not scan the whole list of students again. A query is identified by
+ * the set of selected subjects (regardless of the order in which they were selected) and the
+ * suspension status (1: suspended or 2: unsuspended) of the students to be listed. The least
+ * recently used result is evicted once the cache is full.
+ *
+ * The cache must be told about every change to a student on the list: take a snapshot of the
+ * student with snapshot() before changing it and pass the snapshot to invalidate() afterwards.
+ * Only the results that the student enters or leaves are discarded.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public class SubjectFilterCache
+{
+    private int capacity;
+    private LinkedHashMap<String, CachedResult> results;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * The CachedResult class holds the result of one query together with the query itself.
+     */
+    private static class CachedResult
+    {
+        private Set<String> subjectNames;
+        private int suspension;
+        private StudentDatabase students;
+
+        /**
+         * Construct the cached result of a query.
+         *
+         * @param   subjectNames    The names of the selected subjects.
+         * @param   suspension      The suspension status (1: suspended or 2: unsuspended).
+         * @param   students        The list of students matching the query.
+         */
+        private CachedResult(Set<String> subjectNames, int suspension, StudentDatabase students)
+        {
+            this.subjectNames = subjectNames;
+            this.suspension = suspension;
+            this.students = students;
+        }
+    }
+
+    /**
+     * The Snapshot class records the state of a student before a change, i.e., the names of the
+     * enrolled subjects and the suspension status.
+     */
+    public static class Snapshot
+    {
+        private Set<String> subjectNames;
+        private boolean suspension;
+
+        /**
+         * Construct the snapshot of a student.
+         *
+         * @param   student The student to be recorded.
+         */
+        private Snapshot(Student student)
+        {
+            subjectNames = namesOf(student.getSubjectsEnrolled());
+            suspension = student.getSuspension();
+        }
+    }
+
+    /**
+     * Construct an empty cache holding at most the given number of results.
+     *
+     * @param   capacity    The maximum number of results to be kept.
+     */
+    public SubjectFilterCache(int capacity)
+    {
+        this.capacity = capacity;
+        results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Given the selected subjects and a suspension status (1: suspended or 2: unsuspended), return
+     * the students with that suspension status who are enrolled in all the selected subjects. The
+     * cached result is returned if there is one, otherwise the list of students is filtered and the
+     * result is cached.
+     *
+     * @param   allStudents         The list of students to be filtered.
+     * @param   subjectsSelected    The list of selected subjects.
+     * @param   suspension          The suspension status (1: suspended or 2: unsuspended).
+     * @return  The list of students matching the query. The list must not be changed.
+     */
+    public synchronized StudentDatabase filterStudents(StudentDatabase allStudents,
+                                                       SubjectDatabase subjectsSelected,
+                                                       int suspension)
+    {
+        Set<String> subjectNames = namesOf(subjectsSelected);
+        String key = suspension + ":" + String.join(",", subjectNames);
+        CachedResult cachedResult = results.get(key);
+        if (cachedResult != null)
+        {
+            hits++;
+            return cachedResult.students;
+        }
+        misses++;
+        StudentDatabase students = allStudents.filterStudentsBySuspension(suspension).
+                filterStudentsBySubjects(subjectsSelected);
+        results.put(key, new CachedResult(subjectNames, suspension, students));
+        if (results.size() > capacity)
+        {
+            Iterator<String> eldest = results.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+        return students;
+    }
+
+    /**
+     * Return the hit, miss, eviction and invalidation counts of the cache as a string.
+     *
+     * @return  The statistics of the cache.
+     */
+    public synchronized String getStatistics()
+    {
+        long lookups = hits + misses;
+        return ("Subject filter cache: " + results.size() + "/" + capacity + " results, " +
+                hits + " hits, " + misses + " misses (" +
+                (lookups == 0 ? 0 : hits * 100 / lookups) + "% hit rate), " +
+                evictions + " evictions, " + invalidations + " invalidations");
+    }
+
+    /**
+     * Given the snapshot of a student taken before a change and the changed student, discard the
+     * cached results that the student has entered or left. A student who has just been added has
+     * no snapshot (null) and a student who has just been removed is passed as null.
+     *
+     * @param   before  The snapshot of the student before the change, or null.
+     * @param   after   The student after the change, or null.
+     */
+    public synchronized void invalidate(Snapshot before, Student after)
+    {
+        Snapshot current = (after == null ? null : new Snapshot(after));
+        Iterator<CachedResult> it = results.values().iterator();
+        while (it.hasNext())
+        {
+            CachedResult cachedResult = it.next();
+            if (matches(cachedResult, before) != matches(cachedResult, current))
+            {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Given the snapshots of students taken before a bulk change and the changed students (in the
+     * same order), discard the cached results that any of the students has entered or left. The
+     * cached results are scanned once for the whole batch.
+     *
+     * @param   before  The snapshots of the students before the change.
+     * @param   after   The students after the change.
+     */
+    public synchronized void invalidate(List<Snapshot> before, List<Student> after)
+    {
+        if (before.isEmpty() || results.isEmpty())
+            return;
+        ArrayList<Snapshot> current = new ArrayList<>(after.size());
+        for (Student student : after)
+            current.add(new Snapshot(student));
+        Iterator<CachedResult> it = results.values().iterator();
+        while (it.hasNext())
+        {
+            CachedResult cachedResult = it.next();
+            for (int index = 0; index < before.size(); index++)
+                if (matches(cachedResult, before.get(index)) !=
+                        matches(cachedResult, current.get(index)))
+                {
+                    it.remove();
+                    invalidations++;
+                    break;
+                }
+        }
+    }
+
+    /**
+     * Given a student just enrolled from the waitlist of a subject, discard the cached results
+     * whose query includes a subject with a capacity that the student is enrolled in. No snapshot
+     * of the student was taken before the change, but such a student can only have entered those
+     * results.
+     *
+     * @param   student The student enrolled from a waitlist.
+     */
+    public synchronized void invalidatePromotion(Student student)
+    {
+        if (results.isEmpty() || !student.getSuspension())
+            return;
+        Set<String> subjectNames = new HashSet<>();
+        SubjectDatabase subjectsEnrolled = student.getSubjectsEnrolled();
+        for (int index = 0; index < subjectsEnrolled.getSize(); index++)
+            if (subjectsEnrolled.getSubject(index).hasCapacity())
+                subjectNames.add(subjectsEnrolled.getSubject(index).getName());
+        Iterator<CachedResult> it = results.values().iterator();
+        while (it.hasNext())
+            if (!Collections.disjoint(it.next().subjectNames, subjectNames))
+            {
+                it.remove();
+                invalidations++;
+            }
+    }
+
+    /**
+     * Check if the cache holds no results, in which case there is nothing to invalidate.
+     *
+     * @return  true    If no result is cached, false otherwise.
+     */
+    public synchronized boolean isEmpty()
+    {
+        return results.isEmpty();
+    }
+
+    /**
+     * Given a cached result and the snapshot of a student, check if the student belongs in the
+     * result.
+     *
+     * @param   cachedResult    The cached result.
+     * @param   snapshot        The snapshot of the student, or null for no student.
+     * @return  true    If the student matches the query of the result, false otherwise.
+     */
+    private boolean matches(CachedResult cachedResult, Snapshot snapshot)
+    {
+        if (snapshot == null || snapshot.suspension != (cachedResult.suspension == 2))
+            return false;
+        return snapshot.subjectNames.containsAll(cachedResult.subjectNames);
+    }
+
+    /**
+     * Given a list of subjects, return the sorted set of their names.
+     *
+     * @param   subjects    The list of subjects.
+     * @return  The names of the subjects.
+     */
+    private static Set<String> namesOf(SubjectDatabase subjects)
+    {
+        Set<String> names = new TreeSet<>();
+        for (int index = 0; index < subjects.getSize(); index++)
+            names.add(subjects.getSubject(index).getName());
+        return names;
+    }
+
+    /**
+     * Given a student, record the enrolled subjects and suspension status of the student before a
+     * change, to be passed to invalidate() after the change.
+     *
+     * @param   student The student about to be changed.
+     * @return  The snapshot of the student.
+     */
+    public Snapshot snapshot(Student student)
+    {
+        return new Snapshot(student);
+    }
+}
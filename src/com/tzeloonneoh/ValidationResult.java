@@ -0,0 +1,46 @@
+package com.tzeloonneoh;
+
+/**
+ * The ValidationResult enumeration lists the result codes of validating a field of a student or a
+ * subject, and of parsing a line of "students.txt" or "subjects.txt". Every code other than VALID
+ * describes why a value was rejected.
+ *
+ * @author Tze Loon Neoh
+ * @version 19 Oct 2026
+ */
+public enum ValidationResult
+{
+    VALID("Valid"),
+    MISSING_FIELDS("Missing fields"),
+    INVALID_STUDENT_NAME("Student name is empty or not alphabetic"),
+    MALFORMED_IDENTITY_NUMBER("Identity number is not a number"),
+    IDENTITY_NUMBER_OUT_OF_RANGE("Identity number is out of range"),
+    INVALID_SUSPENSION("Suspension status is neither true nor false"),
+    INVALID_SUBJECT_NAME("Subject name is empty or not alphanumeric"),
+    MALFORMED_CREDIT("Credit points are not a number"),
+    CREDIT_OUT_OF_RANGE("Credit points are out of range"),
+    MALFORMED_CAPACITY("Capacity is not a number"),
+    CAPACITY_OUT_OF_RANGE("Capacity is negative");
+
+    private final String description;
+
+    /**
+     * Construct a result code with the description used to report it.
+     *
+     * @param   description The description of the result.
+     */
+    ValidationResult(String description)
+    {
+        this.description = description;
+    }
+
+    /**
+     * Return the description of the result, e.g., "Identity number is out of range".
+     *
+     * @return  The description of the result.
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+}